@@ -4,8 +4,7 @@ import NodeForm from '../components/NodeForm';
 import RelationshipForm from '../components/RelationshipForm';
 import SearchBar from '../components/SearchBar';
 import { 
-  getNodes, 
-  getRelationships, 
+  streamGraphVisualizationData,
   createNode, 
   updateNode, 
   deleteNode, 
@@ -36,13 +35,41 @@ const GraphData: React.FC = () => {
       setLoading(true);
       setError(null);
       
-      const [nodesData, relationshipsData] = await Promise.all([
-        getNodes(),
-        getRelationships()
-      ]);
+      setNodes([]);
+      setRelationships([]);
+      
+      // Render progressively: each streamed batch is appended as it arrives.
+      // Nodes are streamed before relationships, so endpoints can be resolved by ID.
+      const nodesById = new Map<number, NodeType>();
+      await streamGraphVisualizationData(records => {
+        const nodeBatch: NodeType[] = [];
+        const relationshipBatch: RelationshipType[] = [];
+        
+        records.forEach(record => {
+          if (record.kind === 'node') {
+            const { kind, ...node } = record;
+            nodesById.set(node.id!, node);
+            nodeBatch.push(node);
+          } else {
+            relationshipBatch.push({
+              id: record.id,
+              type: record.type,
+              source: nodesById.get(record.sourceId) || { id: record.sourceId },
+              target: nodesById.get(record.targetId) || { id: record.targetId },
+              properties: record.properties
+            });
+          }
+        });
+        
+        if (nodeBatch.length > 0) {
+          setNodes(prev => [...prev, ...nodeBatch]);
+        }
+        if (relationshipBatch.length > 0) {
+          setRelationships(prev => [...prev, ...relationshipBatch]);
+        }
+        setLoading(false);
+      });
       
-      setNodes(nodesData);
-      setRelationships(relationshipsData);
       setLoading(false);
     } catch (err) {
       console.error('Error fetching graph data:', err);
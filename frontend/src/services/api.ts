@@ -1,5 +1,6 @@
 import axios from 'axios';
-import { NodeType, RelationshipType, UserType, ProjectType } from '../types';
+import { NodeType, RelationshipType, UserType, ProjectType, GraphStreamRecord } from '../types';
+import { COLUMNAR_MEDIA_TYPE, ColumnarGraph, decodeColumnarGraph } from './columnar';
 
 // With the proxy setup, we always use the same relative path
 const API_BASE_URL = '';
@@ -125,6 +126,52 @@ export const getGraphVisualizationData = async (): Promise<{nodes: NodeType[], r
   }
 };
 
+// Streams visualization data as newline-delimited JSON, invoking the callback
+// with each batch of records as soon as it arrives from the server
+export const streamGraphVisualizationData = async (
+  onRecords: (records: GraphStreamRecord[]) => void
+): Promise<void> => {
+  const response = await fetch(`${API_BASE_URL}/api/graph/visualization`, {
+    headers: { Accept: 'application/x-ndjson' }
+  });
+  if (!response.ok || !response.body) {
+    throw new Error(`Error streaming visualization data: ${response.status}`);
+  }
+
+  const reader = response.body.getReader();
+  const decoder = new TextDecoder();
+  let buffered = '';
+
+  while (true) {
+    const { done, value } = await reader.read();
+    if (done) break;
+
+    buffered += decoder.decode(value, { stream: true });
+    const lines = buffered.split('\n');
+    buffered = lines.pop() || '';
+
+    const records = lines
+      .filter(line => line.trim().length > 0)
+      .map(line => JSON.parse(line) as GraphStreamRecord);
+    if (records.length > 0) {
+      onRecords(records);
+    }
+  }
+
+  if (buffered.trim().length > 0) {
+    onRecords([JSON.parse(buffered) as GraphStreamRecord]);
+  }
+};
+
+// Fetches visualization data in the compact columnar binary format
+export const getGraphVisualizationColumnar = async (): Promise<ColumnarGraph> => {
+  const response = await axios.get('/api/graph/visualization', {
+    headers: { Accept: COLUMNAR_MEDIA_TYPE },
+    responseType: 'arraybuffer'
+  });
+  return decodeColumnarGraph(response.data);
+};
+
 // Graph search
 export const searchGraph = async (query: string): Promise<{nodes: NodeType[], relationships: RelationshipType[]}> => {
   const response = await axios.get(`/api/graph/search?query=${encodeURIComponent(query)}`);
@@ -0,0 +1,74 @@
+// Decoder for the compact columnar binary graph format
+// (see ColumnarGraphEncoder on the server for the layout).
+// Columns are returned as typed-array views over the response buffer, without copying.
+
+export const COLUMNAR_MEDIA_TYPE = 'application/vnd.graphapp.columnar';
+
+const MAGIC = 0x48505247; // "GRPH"
+
+export interface ColumnarGraph {
+  strings: string[];
+  nodeIds: BigInt64Array;
+  nodeTypes: Int32Array;
+  nodeLabels: Int32Array;
+  nodeLabelsOffsets: Int32Array;
+  nodeLabelsCodes: Int32Array;
+  relationshipIds: BigInt64Array;
+  relationshipTypes: Int32Array;
+  relationshipSources: Int32Array;
+  relationshipTargets: Int32Array;
+}
+
+const align = (offset: number): number => (offset + 7) & ~7;
+
+export const decodeColumnarGraph = (buffer: ArrayBuffer): ColumnarGraph => {
+  const view = new DataView(buffer);
+  let offset = 0;
+
+  if (view.getInt32(0, true) !== MAGIC) {
+    throw new Error('Not a columnar graph payload');
+  }
+  const stringCount = view.getInt32(8, true);
+  const stringBytesLength = view.getInt32(12, true);
+  offset = 16;
+
+  const stringOffsets = new Int32Array(buffer, offset, stringCount + 1);
+  offset = align(offset + (stringCount + 1) * 4);
+  const blob = new Uint8Array(buffer, offset, stringBytesLength);
+  offset = align(offset + stringBytesLength);
+
+  const decoder = new TextDecoder();
+  const strings: string[] = new Array(stringCount);
+  for (let i = 0; i < stringCount; i++) {
+    strings[i] = decoder.decode(blob.subarray(stringOffsets[i], stringOffsets[i + 1]));
+  }
+
+  const nodeCount = view.getInt32(offset, true);
+  const relationshipCount = view.getInt32(offset + 4, true);
+  const nodeLabelsLength = view.getInt32(offset + 8, true);
+  offset += 16;
+
+  const longs = (length: number): BigInt64Array => {
+    const array = new BigInt64Array(buffer, offset, length);
+    offset += length * 8;
+    return array;
+  };
+  const ints = (length: number): Int32Array => {
+    const array = new Int32Array(buffer, offset, length);
+    offset = align(offset + length * 4);
+    return array;
+  };
+
+  return {
+    strings,
+    nodeIds: longs(nodeCount),
+    relationshipIds: longs(relationshipCount),
+    nodeTypes: ints(nodeCount),
+    nodeLabels: ints(nodeCount),
+    nodeLabelsOffsets: ints(nodeCount + 1),
+    nodeLabelsCodes: ints(nodeLabelsLength),
+    relationshipTypes: ints(relationshipCount),
+    relationshipSources: ints(relationshipCount),
+    relationshipTargets: ints(relationshipCount)
+  };
+};
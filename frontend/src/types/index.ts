@@ -14,6 +14,11 @@ export interface RelationshipType {
   properties?: Record<string, any>;
 }
 
+// A single line of the streamed (NDJSON) visualization data
+export type GraphStreamRecord =
+  | ({ kind: 'node' } & NodeType & { labels?: string[] })
+  | { kind: 'relationship'; id: number; type?: string; sourceId: number; targetId: number; properties?: Record<string, any> };
+
 // Relational data types
 export interface UserType {
   id?: number;
@@ -1,18 +1,22 @@
 package com.graphapp;
 
+import com.graphapp.config.DatabaseConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.data.neo4j.repository.config.EnableNeo4jRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main application class.
  */
 @SpringBootApplication
 @EntityScan(basePackages = {"com.graphapp.model.relational"})
-@EnableJpaRepositories(basePackages = {"com.graphapp.repository.relational"})
+@EnableJpaRepositories(basePackages = {"com.graphapp.repository.relational"},
+        transactionManagerRef = DatabaseConfig.TRANSACTION_MANAGER)
 @EnableNeo4jRepositories(basePackages = {"com.graphapp.repository.graph"})
+@EnableScheduling
 public class Application {
     
     /**
@@ -0,0 +1,162 @@
+package com.graphapp.analytics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Fork-join pool shared by the graph analytics, with helpers to run a loop over
+ * contiguous partitions of a node range in parallel.
+ * <p>
+ * Partitions can be balanced by a monotone cost prefix (such as a CSR offset array), so that
+ * each one covers about the same number of relationships rather than of nodes; on skewed degree
+ * distributions that keeps one partition holding the hubs from dominating the run time.
+ */
+@Component
+public class AnalyticsPool {
+
+    // Partitions per worker, so that workers finishing early can pick up remaining work
+    private static final int PARTITIONS_PER_WORKER = 4;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor for AnalyticsPool.
+     *
+     * @param parallelism The number of worker threads.
+     */
+    @Autowired
+    public AnalyticsPool(@Value("${graph.analytics.parallelism:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+                         int parallelism) {
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+    }
+
+    /**
+     * Shut the pool down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Get the number of worker threads.
+     *
+     * @return The parallelism.
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Split [0, size) into partitions of about equal size, several per worker.
+     *
+     * @param size The size of the range.
+     * @return The partition boundaries: partition {@code p} covers [{@code b[p]}, {@code b[p + 1]}).
+     */
+    public int[] partition(int size) {
+        return partition(size, pool.getParallelism() * PARTITIONS_PER_WORKER, i -> i);
+    }
+
+    /**
+     * Split [0, size) into partitions of about equal cost, several per worker.
+     *
+     * @param size The size of the range.
+     * @param prefixCost The total cost of the elements before index {@code i}, non-decreasing in {@code i},
+     *                   defined for {@code i} in [0, size].
+     * @return The partition boundaries: partition {@code p} covers [{@code b[p]}, {@code b[p + 1]}).
+     */
+    public int[] partition(int size, IntToLongFunction prefixCost) {
+        return partition(size, pool.getParallelism() * PARTITIONS_PER_WORKER, prefixCost);
+    }
+
+    /**
+     * Split [0, size) into one partition per worker, for loops whose partitions each need
+     * their own large scratch state.
+     *
+     * @param size The size of the range.
+     * @return The partition boundaries: partition {@code p} covers [{@code b[p]}, {@code b[p + 1]}).
+     */
+    public int[] partitionPerWorker(int size) {
+        return partition(size, pool.getParallelism(), i -> i);
+    }
+
+    /**
+     * Run a body over every partition in parallel and wait for all of them.
+     *
+     * @param boundaries The partition boundaries, as returned by {@link #partition(int)}.
+     * @param body The body, called once per partition.
+     */
+    public void forEachPartition(int[] boundaries, PartitionBody body) {
+        List<RecursiveAction> tasks = new ArrayList<>(boundaries.length - 1);
+        for (int p = 0; p < boundaries.length - 1; p++) {
+            int partition = p;
+            tasks.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    body.run(partition, boundaries[partition], boundaries[partition + 1]);
+                }
+            });
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+    }
+
+    /**
+     * Split [0, size) into a number of partitions of about equal cost.
+     *
+     * @param size The size of the range.
+     * @param partitions The number of partitions wanted.
+     * @param prefixCost The total cost of the elements before an index.
+     * @return The partition boundaries.
+     */
+    private int[] partition(int size, int partitions, IntToLongFunction prefixCost) {
+        int count = Math.max(1, Math.min(size, partitions));
+        long total = prefixCost.applyAsLong(size);
+        int[] boundaries = new int[count + 1];
+        boundaries[count] = size;
+        for (int p = 1; p < count; p++) {
+            long goal = total * p / count;
+            // Smallest index whose prefix cost reaches the goal
+            int low = boundaries[p - 1];
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (prefixCost.applyAsLong(mid) < goal) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            boundaries[p] = low;
+        }
+        return boundaries;
+    }
+
+    /**
+     * Loop body over one partition.
+     */
+    @FunctionalInterface
+    public interface PartitionBody {
+
+        /**
+         * Process one partition.
+         *
+         * @param partition The index of the partition.
+         * @param from The first index of the partition (inclusive).
+         * @param to The end of the partition (exclusive).
+         */
+        void run(int partition, int from, int to);
+    }
+}
@@ -0,0 +1,401 @@
+package com.graphapp.analytics;
+
+import com.graphapp.dto.CentralityResult;
+import com.graphapp.projection.CsrGraph;
+import com.graphapp.projection.Direction;
+import com.graphapp.projection.GraphProjection;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Centrality scores over the in-memory {@link GraphProjection}: PageRank, degree centrality,
+ * and betweenness centrality estimated from sampled sources.
+ * <p>
+ * All loops run on the {@link AnalyticsPool} over contiguous partitions of the node range and
+ * read and write primitive arrays only. PageRank is computed by pulling contributions along
+ * incoming relationships, so every node's new score is written by exactly one partition and no
+ * synchronization is needed within an iteration; partitions are balanced by relationship count.
+ * Scores can be written back to the nodes as a dynamic property, in batched {@code UNWIND} statements.
+ */
+@Component
+public class CentralityEngine {
+
+    // The property key is spliced in; it is always one of the fixed names used below
+    private static final String WRITE_SCORES_QUERY =
+            "UNWIND $rows AS row " +
+            "MATCH (n) WHERE ID(n) = row.id " +
+            "SET n.`%s` = row.score";
+
+    // Prefix used for the entries of the dynamic properties map when stored on Neo4j entities
+    private static final String PROPERTIES_PREFIX = "properties.";
+
+    private static final int MAX_ITERATIONS = 1000;
+
+    private final GraphProjection graphProjection;
+    private final AnalyticsPool pool;
+    private final Driver driver;
+    private final int batchSize;
+    private final int maxResults;
+
+    /**
+     * Constructor for CentralityEngine.
+     *
+     * @param graphProjection The in-memory graph projection.
+     * @param pool The fork-join pool the computations run on.
+     * @param driver The Neo4j driver, used to write scores back.
+     * @param batchSize The number of scores written per statement.
+     * @param maxResults The maximum number of top-scoring nodes returned.
+     */
+    @Autowired
+    public CentralityEngine(GraphProjection graphProjection, AnalyticsPool pool, Driver driver,
+                            @Value("${graph.bulk.batch-size:5000}") int batchSize,
+                            @Value("${graph.query.max-results:10000}") int maxResults) {
+        this.graphProjection = graphProjection;
+        this.pool = pool;
+        this.driver = driver;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Compute PageRank by power iteration until the L1 change between iterations drops below the
+     * tolerance or the iteration limit is reached. The rank of nodes without outgoing relationships
+     * is redistributed evenly, so scores always sum to one.
+     *
+     * @param damping The damping factor, in (0, 1).
+     * @param maxIterations The maximum number of iterations.
+     * @param tolerance The convergence threshold on the L1 change of the score vector.
+     * @param top The number of highest-scoring nodes to return.
+     * @param writeBack Whether to store every node's score in its {@code pagerank} property.
+     * @return The result.
+     * @throws IllegalArgumentException if a parameter is out of range.
+     */
+    public CentralityResult pageRank(double damping, int maxIterations, double tolerance, int top, boolean writeBack) {
+        if (!(damping > 0 && damping < 1)) {
+            throw new IllegalArgumentException("Damping must be between 0 and 1: " + damping);
+        }
+        if (maxIterations < 1 || maxIterations > MAX_ITERATIONS) {
+            throw new IllegalArgumentException("Iterations must be between 1 and " + MAX_ITERATIONS + ": " + maxIterations);
+        }
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException("Tolerance must be positive: " + tolerance);
+        }
+
+        long start = System.nanoTime();
+        CsrGraph graph = graphProjection.getGraph();
+        int n = graph.nodeCount();
+        CentralityResult result = new CentralityResult("pagerank", n, graph.edgeCount());
+
+        double[][] ranks = {new double[n], new double[n]};
+        Arrays.fill(ranks[0], 1.0 / n);
+        double[] contributions = new double[n];
+        int[] nodePartitions = pool.partition(n);
+        int[] edgePartitions = pool.partition(n, v -> (long) graph.inStart(v) + v);
+        double[] danglingSums = new double[nodePartitions.length - 1];
+        double[] deltaSums = new double[edgePartitions.length - 1];
+
+        boolean converged = n == 0;
+        int iteration = 0;
+        while (!converged && iteration < maxIterations) {
+            long iterationStart = System.nanoTime();
+            double[] current = ranks[iteration & 1];
+            double[] next = ranks[(iteration + 1) & 1];
+
+            pool.forEachPartition(nodePartitions, (partition, from, to) -> {
+                double dangling = 0;
+                for (int u = from; u < to; u++) {
+                    int degree = graph.outDegree(u);
+                    if (degree == 0) {
+                        dangling += current[u];
+                        contributions[u] = 0;
+                    } else {
+                        contributions[u] = current[u] / degree;
+                    }
+                }
+                danglingSums[partition] = dangling;
+            });
+            double base = (1 - damping) / n + damping * sum(danglingSums) / n;
+
+            pool.forEachPartition(edgePartitions, (partition, from, to) -> {
+                double delta = 0;
+                for (int v = from; v < to; v++) {
+                    double incoming = 0;
+                    for (int slot = graph.inStart(v), end = graph.inEnd(v); slot < end; slot++) {
+                        incoming += contributions[graph.inSource(slot)];
+                    }
+                    double rank = base + damping * incoming;
+                    delta += Math.abs(rank - current[v]);
+                    next[v] = rank;
+                }
+                deltaSums[partition] = delta;
+            });
+
+            converged = sum(deltaSums) < tolerance;
+            iteration++;
+            result.addIteration(System.nanoTime() - iterationStart);
+        }
+        result.setConverged(converged);
+
+        return finish(graph, ranks[iteration & 1], "pagerank", top, writeBack, result, start);
+    }
+
+    /**
+     * Compute degree centrality: each node's number of relationships in the given direction,
+     * divided by the number of other nodes.
+     *
+     * @param direction The direction of the relationships counted.
+     * @param top The number of highest-scoring nodes to return.
+     * @param writeBack Whether to store every node's score in its {@code degree} property.
+     * @return The result.
+     */
+    public CentralityResult degree(Direction direction, int top, boolean writeBack) {
+        long start = System.nanoTime();
+        CsrGraph graph = graphProjection.getGraph();
+        int n = graph.nodeCount();
+        CentralityResult result = new CentralityResult("degree", n, graph.edgeCount());
+
+        double[] scores = new double[n];
+        double scale = n > 1 ? 1.0 / (n - 1) : 1.0;
+        pool.forEachPartition(pool.partition(n), (partition, from, to) -> {
+            for (int u = from; u < to; u++) {
+                int degree = 0;
+                if (direction != Direction.INCOMING) {
+                    degree += graph.outDegree(u);
+                }
+                if (direction != Direction.OUTGOING) {
+                    degree += graph.inDegree(u);
+                }
+                scores[u] = degree * scale;
+            }
+        });
+        result.addIteration(System.nanoTime() - start);
+
+        return finish(graph, scores, "degree", top, writeBack, result, start);
+    }
+
+    /**
+     * Estimate betweenness centrality with Brandes' algorithm run from a random sample of source
+     * nodes, following relationships in their direction. The dependencies accumulated from the
+     * sample are scaled by {@code nodeCount / samples}; with at least as many samples as nodes
+     * the result is exact.
+     * <p>
+     * Sources are split across one partition per worker; each partition needs scratch arrays of
+     * about 24 bytes per node, reset after each source by clearing only the nodes it reached.
+     *
+     * @param samples The number of source nodes to sample.
+     * @param seed The random seed, so that runs can be reproduced.
+     * @param top The number of highest-scoring nodes to return.
+     * @param writeBack Whether to store every node's score in its {@code betweenness} property.
+     * @return The result.
+     * @throws IllegalArgumentException if the number of samples is not positive.
+     */
+    public CentralityResult betweenness(int samples, long seed, int top, boolean writeBack) {
+        if (samples < 1) {
+            throw new IllegalArgumentException("Samples must be positive: " + samples);
+        }
+
+        long start = System.nanoTime();
+        CsrGraph graph = graphProjection.getGraph();
+        int n = graph.nodeCount();
+        CentralityResult result = new CentralityResult("betweenness", n, graph.edgeCount());
+
+        int[] sources = sampleSources(n, Math.min(samples, n), seed);
+        AtomicLongArray dependencies = new AtomicLongArray(n);
+        pool.forEachPartition(pool.partitionPerWorker(sources.length), (partition, from, to) -> {
+            int[] distance = new int[n];
+            Arrays.fill(distance, -1);
+            double[] paths = new double[n];
+            double[] dependency = new double[n];
+            int[] order = new int[n];
+            for (int i = from; i < to; i++) {
+                accumulateFrom(graph, sources[i], distance, paths, dependency, order, dependencies);
+            }
+        });
+
+        double scale = sources.length > 0 ? (double) n / sources.length : 0;
+        double[] scores = new double[n];
+        for (int v = 0; v < n; v++) {
+            scores[v] = Double.longBitsToDouble(dependencies.get(v)) * scale;
+        }
+        result.addIteration(System.nanoTime() - start);
+
+        return finish(graph, scores, "betweenness", top, writeBack, result, start);
+    }
+
+    /**
+     * Run one source of Brandes' algorithm: count shortest paths breadth-first, then accumulate
+     * dependencies in reverse order, finding predecessors through the incoming adjacency.
+     *
+     * @param graph The graph.
+     * @param source The index of the source node.
+     * @param distance Scratch distances, -1 for unreached; restored to -1 on return.
+     * @param paths Scratch shortest-path counts; restored to zero on return.
+     * @param dependency Scratch dependencies; restored to zero on return.
+     * @param order Scratch array for the breadth-first visiting order.
+     * @param dependencies The shared totals to add this source's dependencies to.
+     */
+    private void accumulateFrom(CsrGraph graph, int source, int[] distance, double[] paths, double[] dependency,
+                                int[] order, AtomicLongArray dependencies) {
+        int head = 0;
+        int tail = 0;
+        distance[source] = 0;
+        paths[source] = 1;
+        order[tail++] = source;
+        while (head < tail) {
+            int v = order[head++];
+            for (int edge = graph.outStart(v), end = graph.outEnd(v); edge < end; edge++) {
+                int w = graph.target(edge);
+                if (distance[w] < 0) {
+                    distance[w] = distance[v] + 1;
+                    order[tail++] = w;
+                }
+                if (distance[w] == distance[v] + 1) {
+                    paths[w] += paths[v];
+                }
+            }
+        }
+
+        for (int i = tail - 1; i > 0; i--) {
+            int w = order[i];
+            double share = (1 + dependency[w]) / paths[w];
+            for (int slot = graph.inStart(w), end = graph.inEnd(w); slot < end; slot++) {
+                int v = graph.inSource(slot);
+                if (distance[v] >= 0 && distance[v] == distance[w] - 1) {
+                    dependency[v] += paths[v] * share;
+                }
+            }
+            add(dependencies, w, dependency[w]);
+        }
+
+        for (int i = 0; i < tail; i++) {
+            int v = order[i];
+            distance[v] = -1;
+            paths[v] = 0;
+            dependency[v] = 0;
+        }
+    }
+
+    /**
+     * Fill in the top scores, write scores back if requested, and record the total time.
+     *
+     * @param graph The graph.
+     * @param scores The score of every node.
+     * @param property The dynamic property to write the scores to.
+     * @param top The number of highest-scoring nodes to return.
+     * @param writeBack Whether to write the scores back.
+     * @param result The result to fill in.
+     * @param start The start time of the computation, from {@link System#nanoTime()}.
+     * @return The result.
+     */
+    private CentralityResult finish(CsrGraph graph, double[] scores, String property, int top, boolean writeBack,
+                                    CentralityResult result, long start) {
+        for (int node : TopK.select(scores.length, i -> scores[i], Math.max(0, Math.min(top, maxResults)))) {
+            result.addScore(graph.nodeId(node), scores[node]);
+        }
+        if (writeBack) {
+            result.setWritten(writeScores(graph, scores, property));
+        }
+        result.setTotalNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Write every node's score to a dynamic property, one transaction per batch.
+     *
+     * @param graph The graph.
+     * @param scores The score of every node.
+     * @param property The name of the dynamic property.
+     * @return The number of scores written.
+     */
+    private long writeScores(CsrGraph graph, double[] scores, String property) {
+        String query = String.format(WRITE_SCORES_QUERY, PROPERTIES_PREFIX + property);
+        long written = 0;
+        try (Session session = driver.session()) {
+            List<Map<String, Object>> rows = new ArrayList<>(Math.min(batchSize, scores.length));
+            for (int node = 0; node < scores.length; node++) {
+                Map<String, Object> row = new HashMap<>();
+                row.put("id", graph.nodeId(node));
+                row.put("score", scores[node]);
+                rows.add(row);
+                if (rows.size() == batchSize || node == scores.length - 1) {
+                    Map<String, Object> parameters = Collections.singletonMap("rows", rows);
+                    session.writeTransaction(tx -> tx.run(query, parameters).consume());
+                    written += rows.size();
+                    rows.clear();
+                }
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Pick distinct random source nodes.
+     *
+     * @param n The number of nodes.
+     * @param count The number of sources, at most {@code n}.
+     * @param seed The random seed.
+     * @return The indexes of the sources.
+     */
+    private static int[] sampleSources(int n, int count, long seed) {
+        int[] sources = new int[count];
+        if (count == n) {
+            for (int i = 0; i < n; i++) {
+                sources[i] = i;
+            }
+            return sources;
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        BitSet chosen = new BitSet(n);
+        for (int i = 0; i < count; ) {
+            int node = random.nextInt(n);
+            if (!chosen.get(node)) {
+                chosen.set(node);
+                sources[i++] = node;
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * Atomically add to a double stored as raw bits.
+     *
+     * @param values The array of raw double bits.
+     * @param index The index.
+     * @param delta The amount to add.
+     */
+    private static void add(AtomicLongArray values, int index, double delta) {
+        long current;
+        long updated;
+        do {
+            current = values.get(index);
+            updated = Double.doubleToRawLongBits(Double.longBitsToDouble(current) + delta);
+        } while (!values.compareAndSet(index, current, updated));
+    }
+
+    /**
+     * Sum per-partition totals.
+     *
+     * @param values The totals.
+     * @return The sum.
+     */
+    private static double sum(double[] values) {
+        double total = 0;
+        for (double value : values) {
+            total += value;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,17 @@
+package com.graphapp.analytics;
+
+/**
+ * Kind of connected components.
+ */
+public enum ComponentType {
+
+    /**
+     * Nodes connected by relationships followed in either direction.
+     */
+    WEAK,
+
+    /**
+     * Nodes that can each reach every other following relationships in their direction.
+     */
+    STRONG
+}
@@ -0,0 +1,316 @@
+package com.graphapp.analytics;
+
+import com.graphapp.dto.ComponentsResult;
+import com.graphapp.projection.CsrGraph;
+import com.graphapp.projection.GraphProjection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Weakly and strongly connected components over the in-memory {@link GraphProjection}.
+ * <p>
+ * Weak components use a lock-free union-find over an int parent array: relationships are
+ * partitioned across the {@link AnalyticsPool} workers, which link roots with a compare-and-set
+ * and shorten paths by halving as they go. A root is always linked under the smaller index, so
+ * each component ends up rooted at its smallest member. Strong components use Tarjan's algorithm
+ * with an explicit call stack, so deep graphs cannot overflow the thread stack. Both run in time
+ * linear in the size of the graph.
+ * <p>
+ * The labeling of each kind is kept for the projection snapshot it was computed from, so
+ * per-node lookups do not recompute it until the projection is replaced. Components are
+ * identified by the Neo4j ID of their smallest-index member.
+ */
+@Component
+public class ComponentsEngine {
+
+    private static final int UNVISITED = -1;
+
+    private final GraphProjection graphProjection;
+    private final AnalyticsPool pool;
+    private final int maxResults;
+    private final Map<ComponentType, Labeling> labelings = new EnumMap<>(ComponentType.class);
+
+    /**
+     * Constructor for ComponentsEngine.
+     *
+     * @param graphProjection The in-memory graph projection.
+     * @param pool The fork-join pool the weak components run on.
+     * @param maxResults The maximum number of components listed in a result.
+     */
+    @Autowired
+    public ComponentsEngine(GraphProjection graphProjection, AnalyticsPool pool,
+                            @Value("${graph.query.max-results:10000}") int maxResults) {
+        this.graphProjection = graphProjection;
+        this.pool = pool;
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Get the components of the graph, with the largest ones listed.
+     *
+     * @param type The kind of components.
+     * @param top The number of largest components to list.
+     * @return The result.
+     */
+    public ComponentsResult getComponents(ComponentType type, int top) {
+        Labeling labeling = labeling(type);
+        ComponentsResult result = new ComponentsResult(type.name().toLowerCase(), labeling.graph.nodeCount(),
+                labeling.componentCount, labeling.singletonCount, labeling.nanos);
+        int[] sizes = labeling.sizes;
+        for (int root : TopK.select(sizes.length, i -> sizes[i], Math.max(0, Math.min(top, maxResults)))) {
+            if (sizes[root] == 0) {
+                break;
+            }
+            result.addComponent(labeling.graph.nodeId(root), sizes[root]);
+        }
+        return result;
+    }
+
+    /**
+     * Get the component a node belongs to.
+     *
+     * @param nodeId The ID of the node.
+     * @param type The kind of components.
+     * @return A map with the node ID, the component ID and the component size.
+     * @throws RuntimeException if the node is not in the projection.
+     */
+    public Map<String, Object> getComponentOf(long nodeId, ComponentType type) {
+        Labeling labeling = labeling(type);
+        int node = labeling.graph.indexOf(nodeId);
+        if (node < 0) {
+            throw new RuntimeException("Node not found with id: " + nodeId);
+        }
+        int root = labeling.roots[node];
+
+        Map<String, Object> component = new HashMap<>();
+        component.put("type", type.name().toLowerCase());
+        component.put("nodeId", nodeId);
+        component.put("componentId", labeling.graph.nodeId(root));
+        component.put("size", labeling.sizes[root]);
+        return component;
+    }
+
+    /**
+     * Get the labeling of a kind for the current projection, computing it if needed.
+     *
+     * @param type The kind of components.
+     * @return The labeling.
+     */
+    private Labeling labeling(ComponentType type) {
+        CsrGraph graph = graphProjection.getGraph();
+        synchronized (labelings) {
+            Labeling cached = labelings.get(type);
+            if (cached != null && cached.graph == graph) {
+                return cached;
+            }
+        }
+
+        long start = System.nanoTime();
+        int[] roots = type == ComponentType.WEAK ? weakRoots(graph) : strongRoots(graph);
+        Labeling labeling = new Labeling(graph, roots, System.nanoTime() - start);
+        synchronized (labelings) {
+            labelings.put(type, labeling);
+        }
+        return labeling;
+    }
+
+    /**
+     * Label weakly connected components with a parallel lock-free union-find.
+     *
+     * @param graph The graph.
+     * @return The root (smallest member index) of each node's component.
+     */
+    private int[] weakRoots(CsrGraph graph) {
+        int n = graph.nodeCount();
+        AtomicIntegerArray parent = new AtomicIntegerArray(n);
+        int[] nodePartitions = pool.partition(n);
+        pool.forEachPartition(nodePartitions, (partition, from, to) -> {
+            for (int v = from; v < to; v++) {
+                parent.lazySet(v, v);
+            }
+        });
+
+        pool.forEachPartition(pool.partition(n, v -> (long) graph.outStart(v) + v), (partition, from, to) -> {
+            for (int u = from; u < to; u++) {
+                for (int edge = graph.outStart(u), end = graph.outEnd(u); edge < end; edge++) {
+                    union(parent, u, graph.target(edge));
+                }
+            }
+        });
+
+        int[] roots = new int[n];
+        pool.forEachPartition(nodePartitions, (partition, from, to) -> {
+            for (int v = from; v < to; v++) {
+                roots[v] = find(parent, v);
+            }
+        });
+        return roots;
+    }
+
+    /**
+     * Merge the sets of two nodes, linking the larger root under the smaller.
+     * Retries if another thread relinks the root first.
+     *
+     * @param parent The parent array.
+     * @param u The first node.
+     * @param v The second node.
+     */
+    private static void union(AtomicIntegerArray parent, int u, int v) {
+        while (true) {
+            int ru = find(parent, u);
+            int rv = find(parent, v);
+            if (ru == rv) {
+                return;
+            }
+            if (ru < rv) {
+                int swap = ru;
+                ru = rv;
+                rv = swap;
+            }
+            if (parent.compareAndSet(ru, ru, rv)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Find the root of a node's set, pointing nodes on the way at their grandparents.
+     * Parents only ever move to smaller indexes, so concurrent halving is safe.
+     *
+     * @param parent The parent array.
+     * @param node The node.
+     * @return The root.
+     */
+    private static int find(AtomicIntegerArray parent, int node) {
+        int x = node;
+        while (true) {
+            int p = parent.get(x);
+            if (p == x) {
+                return x;
+            }
+            int grandparent = parent.get(p);
+            if (grandparent != p) {
+                parent.compareAndSet(x, p, grandparent);
+            }
+            x = grandparent;
+        }
+    }
+
+    /**
+     * Label strongly connected components with Tarjan's algorithm, iteratively.
+     *
+     * @param graph The graph.
+     * @return The representative (smallest member index) of each node's component.
+     */
+    private int[] strongRoots(CsrGraph graph) {
+        int n = graph.nodeCount();
+        int[] index = new int[n];
+        Arrays.fill(index, UNVISITED);
+        int[] low = new int[n];
+        int[] stack = new int[n];
+        BitSet onStack = new BitSet(n);
+        int[] callNodes = new int[n];
+        int[] callEdges = new int[n];
+        int[] roots = new int[n];
+        int counter = 0;
+        int top = 0;
+
+        for (int start = 0; start < n; start++) {
+            if (index[start] != UNVISITED) {
+                continue;
+            }
+            int depth = 0;
+            callNodes[0] = start;
+            callEdges[0] = graph.outStart(start);
+            index[start] = low[start] = counter++;
+            stack[top++] = start;
+            onStack.set(start);
+
+            while (depth >= 0) {
+                int v = callNodes[depth];
+                int edge = callEdges[depth];
+                if (edge < graph.outEnd(v)) {
+                    callEdges[depth] = edge + 1;
+                    int w = graph.target(edge);
+                    if (index[w] == UNVISITED) {
+                        index[w] = low[w] = counter++;
+                        stack[top++] = w;
+                        onStack.set(w);
+                        depth++;
+                        callNodes[depth] = w;
+                        callEdges[depth] = graph.outStart(w);
+                    } else if (onStack.get(w)) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+
+                if (low[v] == index[v]) {
+                    // v is the root of a component made of v and everything above it on the stack
+                    int bottom = top - 1;
+                    while (stack[bottom] != v) {
+                        bottom--;
+                    }
+                    int representative = v;
+                    for (int i = bottom; i < top; i++) {
+                        representative = Math.min(representative, stack[i]);
+                    }
+                    for (int i = bottom; i < top; i++) {
+                        roots[stack[i]] = representative;
+                        onStack.clear(stack[i]);
+                    }
+                    top = bottom;
+                }
+                depth--;
+                if (depth >= 0) {
+                    int parent = callNodes[depth];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * Component labeling of one projection snapshot, with the size of each component by root.
+     */
+    private static class Labeling {
+
+        private final CsrGraph graph;
+        private final int[] roots;
+        private final int[] sizes;
+        private final int componentCount;
+        private final int singletonCount;
+        private final long nanos;
+
+        Labeling(CsrGraph graph, int[] roots, long nanos) {
+            this.graph = graph;
+            this.roots = roots;
+            this.nanos = nanos;
+            this.sizes = new int[roots.length];
+            for (int root : roots) {
+                sizes[root]++;
+            }
+            int components = 0;
+            int singletons = 0;
+            for (int size : sizes) {
+                if (size > 0) {
+                    components++;
+                }
+                if (size == 1) {
+                    singletons++;
+                }
+            }
+            this.componentCount = components;
+            this.singletonCount = singletons;
+        }
+    }
+}
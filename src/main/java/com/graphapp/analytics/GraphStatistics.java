@@ -0,0 +1,355 @@
+package com.graphapp.analytics;
+
+import com.graphapp.event.GraphMutationEvent;
+import com.graphapp.repository.graph.NodeRepository;
+import com.graphapp.repository.graph.RelationshipRepository;
+import com.graphapp.util.LongIntHashMap;
+import org.neo4j.driver.AccessMode;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Graph statistics maintained from committed writes instead of graph scans.
+ * <p>
+ * Totals and counts by type are {@link LongAdder}s, so concurrent writers update them without
+ * contending on a lock. Node degrees (relationships in either direction) are tracked per node
+ * with a histogram of degree frequencies, which keeps the minimum and maximum current as
+ * relationships come and go; the average is derived from the totals. Reading the statistics
+ * costs the number of distinct types, not the size of the graph.
+ * <p>
+ * The counters are seeded from Neo4j when the application is ready and reconciled on a fixed
+ * delay, which corrects drift from writes made to Neo4j outside the application.
+ * Reconciliation builds a new set of counters and swaps it in; writes committed while its scan
+ * runs may be missed or counted twice until the next reconciliation.
+ */
+@Component
+public class GraphStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(GraphStatistics.class);
+
+    private static final String UNKNOWN_TYPE = "unknown";
+    private static final String NODE_DEGREES_QUERY = "MATCH (n) RETURN ID(n) AS id, size((n)--()) AS degree";
+
+    private final Driver driver;
+    private final NodeRepository nodeRepository;
+    private final RelationshipRepository relationshipRepository;
+
+    private volatile Counters counters = new Counters(16);
+    private volatile boolean seeded;
+    private volatile Instant reconciledAt;
+    private volatile long reconcileMillis;
+
+    /**
+     * Constructor for GraphStatistics.
+     *
+     * @param driver The Neo4j driver.
+     * @param nodeRepository The node repository.
+     * @param relationshipRepository The relationship repository.
+     */
+    @Autowired
+    public GraphStatistics(Driver driver, NodeRepository nodeRepository, RelationshipRepository relationshipRepository) {
+        this.driver = driver;
+        this.nodeRepository = nodeRepository;
+        this.relationshipRepository = relationshipRepository;
+    }
+
+    /**
+     * Seed the counters once the application is ready, then reconcile them on a fixed delay.
+     * Failures are logged and the counters are kept until the next attempt.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${graph.statistics.reconcile-interval-ms:600000}",
+            initialDelayString = "${graph.statistics.reconcile-interval-ms:600000}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            logger.warn("Graph statistics not reconciled, will retry on the next reconciliation: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recount everything from Neo4j and replace the counters.
+     *
+     * @throws RuntimeException if querying Neo4j fails.
+     */
+    public void reconcile() {
+        long start = System.nanoTime();
+        Counters recounted = load();
+        Counters previous = counters;
+        counters = recounted;
+        reconcileMillis = (System.nanoTime() - start) / 1_000_000;
+        reconciledAt = Instant.now();
+        if (seeded && (previous.nodes.sum() != recounted.nodes.sum()
+                || previous.relationships.sum() != recounted.relationships.sum())) {
+            logger.info("Graph statistics reconciled: {} -> {} nodes, {} -> {} relationships",
+                    previous.nodes.sum(), recounted.nodes.sum(),
+                    previous.relationships.sum(), recounted.relationships.sum());
+        }
+        seeded = true;
+    }
+
+    /**
+     * Apply a committed change to the counters.
+     *
+     * @param event The change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGraphMutation(GraphMutationEvent event) {
+        Counters current = counters;
+        switch (event.getKind()) {
+            case NODE_CREATED:
+                current.nodes.increment();
+                current.add(current.nodesByType, event.getType(), 1);
+                current.degrees.addNode(event.getId());
+                break;
+            case NODE_UPDATED:
+                if (!Objects.equals(event.getType(), event.getPreviousType())) {
+                    current.add(current.nodesByType, event.getPreviousType(), -1);
+                    current.add(current.nodesByType, event.getType(), 1);
+                }
+                break;
+            case NODE_DELETED:
+                current.nodes.decrement();
+                current.add(current.nodesByType, event.getPreviousType(), -1);
+                current.degrees.removeNode(event.getId());
+                break;
+            case RELATIONSHIP_CREATED:
+                current.relationships.increment();
+                current.add(current.relationshipsByType, event.getType(), 1);
+                current.degrees.adjust(event.getSourceId(), event.getTargetId(), 1);
+                break;
+            case RELATIONSHIP_UPDATED:
+                if (!Objects.equals(event.getType(), event.getPreviousType())) {
+                    current.add(current.relationshipsByType, event.getPreviousType(), -1);
+                    current.add(current.relationshipsByType, event.getType(), 1);
+                }
+                current.degrees.adjust(event.getPreviousSourceId(), event.getPreviousTargetId(), -1);
+                current.degrees.adjust(event.getSourceId(), event.getTargetId(), 1);
+                break;
+            case RELATIONSHIP_DELETED:
+                current.relationships.decrement();
+                current.add(current.relationshipsByType, event.getPreviousType(), -1);
+                current.degrees.adjust(event.getPreviousSourceId(), event.getPreviousTargetId(), -1);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Get the current statistics.
+     *
+     * @return A map with node and relationship totals and counts by type, the minimum, maximum
+     *         and average node degree, and when the counters were last reconciled.
+     */
+    public Map<String, Object> getStatistics() {
+        Counters current = counters;
+        long nodes = current.nodes.sum();
+        long relationships = current.relationships.sum();
+
+        Map<String, Object> degree = new HashMap<>();
+        int[] range = current.degrees.range();
+        degree.put("min", range[0]);
+        degree.put("max", range[1]);
+        // Every relationship adds one to the degree of each endpoint
+        degree.put("avg", nodes > 0 ? 2.0 * relationships / nodes : 0.0);
+
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("nodes", nodes);
+        statistics.put("relationships", relationships);
+        statistics.put("nodesByType", snapshot(current.nodesByType));
+        statistics.put("relationshipsByType", snapshot(current.relationshipsByType));
+        statistics.put("degree", degree);
+        statistics.put("seeded", seeded);
+        statistics.put("reconciledAt", reconciledAt);
+        statistics.put("reconcileMillis", reconcileMillis);
+        return statistics;
+    }
+
+    /**
+     * Count nodes and relationships by type and stream node degrees from Neo4j.
+     *
+     * @return The new counters.
+     */
+    private Counters load() {
+        List<Map<String, Object>> nodeCounts = nodeRepository.countByType();
+        List<Map<String, Object>> relationshipCounts = relationshipRepository.countByType();
+
+        Counters loaded = new Counters(1024);
+        for (Map<String, Object> row : nodeCounts) {
+            long count = ((Number) row.get("count")).longValue();
+            loaded.nodes.add(count);
+            loaded.add(loaded.nodesByType, (String) row.get("type"), count);
+        }
+        for (Map<String, Object> row : relationshipCounts) {
+            long count = ((Number) row.get("count")).longValue();
+            loaded.relationships.add(count);
+            loaded.add(loaded.relationshipsByType, (String) row.get("type"), count);
+        }
+
+        try (Session session = driver.session(SessionConfig.builder()
+                .withDefaultAccessMode(AccessMode.READ)
+                .build())) {
+            session.readTransaction(tx -> {
+                Result result = tx.run(NODE_DEGREES_QUERY);
+                while (result.hasNext()) {
+                    Record record = result.next();
+                    loaded.degrees.seed(record.get("id").asLong(), record.get("degree").asInt());
+                }
+                return null;
+            });
+        }
+        return loaded;
+    }
+
+    /**
+     * Copy the non-zero counts of a counter map.
+     *
+     * @param counts The counters by type.
+     * @return The counts by type.
+     */
+    private static Map<String, Long> snapshot(Map<String, LongAdder> counts) {
+        Map<String, Long> snapshot = new HashMap<>();
+        counts.forEach((type, count) -> {
+            long value = count.sum();
+            if (value != 0) {
+                snapshot.put(type, value);
+            }
+        });
+        return snapshot;
+    }
+
+    /**
+     * One generation of counters, replaced as a whole by reconciliation.
+     */
+    private static class Counters {
+
+        private final LongAdder nodes = new LongAdder();
+        private final LongAdder relationships = new LongAdder();
+        private final Map<String, LongAdder> nodesByType = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> relationshipsByType = new ConcurrentHashMap<>();
+        private final DegreeHistogram degrees;
+
+        Counters(int expectedNodes) {
+            this.degrees = new DegreeHistogram(expectedNodes);
+        }
+
+        void add(Map<String, LongAdder> counts, String type, long delta) {
+            counts.computeIfAbsent(type != null ? type : UNKNOWN_TYPE, key -> new LongAdder()).add(delta);
+        }
+    }
+
+    /**
+     * Degree of every node and the number of nodes with each degree, with the smallest and
+     * largest occupied degree kept current. Synchronized, as a relationship change updates
+     * two nodes and the bounds together.
+     */
+    private static class DegreeHistogram {
+
+        private final LongIntHashMap degrees;
+        private long[] frequencies = new long[64];
+        private long population;
+        private int min;
+        private int max;
+
+        DegreeHistogram(int expectedNodes) {
+            this.degrees = new LongIntHashMap(expectedNodes);
+        }
+
+        synchronized void seed(long nodeId, int degree) {
+            int previous = degrees.get(nodeId);
+            if (previous != LongIntHashMap.MISSING) {
+                leave(previous);
+            }
+            degrees.put(nodeId, degree);
+            enter(degree);
+        }
+
+        synchronized void addNode(long nodeId) {
+            if (!degrees.containsKey(nodeId)) {
+                degrees.put(nodeId, 0);
+                enter(0);
+            }
+        }
+
+        synchronized void removeNode(long nodeId) {
+            int degree = degrees.remove(nodeId);
+            if (degree != LongIntHashMap.MISSING) {
+                leave(degree);
+            }
+        }
+
+        synchronized void adjust(Long sourceId, Long targetId, int delta) {
+            adjust(sourceId, delta);
+            adjust(targetId, delta);
+        }
+
+        synchronized int[] range() {
+            return population > 0 ? new int[] {min, max} : new int[] {0, 0};
+        }
+
+        private void adjust(Long nodeId, int delta) {
+            if (nodeId == null) {
+                return;
+            }
+            int degree = degrees.get(nodeId);
+            if (degree == LongIntHashMap.MISSING) {
+                return;
+            }
+            int updated = Math.max(0, degree + delta);
+            leave(degree);
+            degrees.put(nodeId, updated);
+            enter(updated);
+        }
+
+        private void enter(int degree) {
+            if (degree >= frequencies.length) {
+                frequencies = Arrays.copyOf(frequencies, Math.max(degree + 1, frequencies.length << 1));
+            }
+            frequencies[degree]++;
+            if (population++ == 0) {
+                min = degree;
+                max = degree;
+            } else {
+                min = Math.min(min, degree);
+                max = Math.max(max, degree);
+            }
+        }
+
+        private void leave(int degree) {
+            frequencies[degree]--;
+            population--;
+            if (population == 0 || frequencies[degree] > 0) {
+                return;
+            }
+            // The bound emptied: move it to the nearest occupied degree
+            while (frequencies[min] == 0) {
+                min++;
+            }
+            while (frequencies[max] == 0) {
+                max--;
+            }
+        }
+    }
+}
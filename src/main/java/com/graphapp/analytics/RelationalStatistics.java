@@ -0,0 +1,263 @@
+package com.graphapp.analytics;
+
+import com.graphapp.config.DatabaseConfig;
+import com.graphapp.event.RelationalMutationEvent;
+import com.graphapp.repository.relational.ProjectRepository;
+import com.graphapp.repository.relational.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * User and project statistics maintained from committed writes instead of queries.
+ * <p>
+ * The counts are computed once with aggregate queries in a single read transaction, so they
+ * are consistent with each other, and from then on updated by the {@link RelationalMutationEvent}s
+ * of committed writes. Every change increments a version; the response is built once per version
+ * and served from memory until the next change, so reading the statistics runs no SQL.
+ * <p>
+ * The counts are recomputed at the end of every bulk import, which writes without events, and on
+ * a fixed delay, which corrects drift from writes made to SQLite outside the application.
+ * Recomputation swaps in the new counts; writes committed while its queries run may be missed or
+ * counted twice until the next recomputation.
+ */
+@Component
+public class RelationalStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(RelationalStatistics.class);
+
+    private final UserRepository userRepository;
+    private final ProjectRepository projectRepository;
+    private final TransactionTemplate readTransaction;
+
+    // Guarded by this
+    private Counts counts;
+    private Instant updatedAt;
+    private Instant reconciledAt;
+    private long reconcileMillis;
+
+    private volatile long version;
+    private volatile Snapshot snapshot;
+
+    /**
+     * Constructor for RelationalStatistics.
+     *
+     * @param userRepository The user repository.
+     * @param projectRepository The project repository.
+     * @param transactionManager The JPA transaction manager.
+     */
+    @Autowired
+    public RelationalStatistics(UserRepository userRepository, ProjectRepository projectRepository,
+                                @Qualifier(DatabaseConfig.TRANSACTION_MANAGER) PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.projectRepository = projectRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Compute the counts once the application is ready, then recompute them on a fixed delay.
+     * Failures are logged and the counts are kept until the next attempt.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${relational.statistics.reconcile-interval-ms:600000}",
+            initialDelayString = "${relational.statistics.reconcile-interval-ms:600000}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            logger.warn("Relational statistics not reconciled, will retry on the next reconciliation: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recompute the counts from the database and replace them.
+     *
+     * @throws RuntimeException if querying the database fails.
+     */
+    public void reconcile() {
+        long start = System.nanoTime();
+        Counts loaded = readTransaction.execute(status -> load());
+        synchronized (this) {
+            Counts previous = counts;
+            counts = loaded;
+            reconcileMillis = (System.nanoTime() - start) / 1_000_000;
+            reconciledAt = Instant.now();
+            updatedAt = reconciledAt;
+            version++;
+            if (previous != null && (previous.users != loaded.users || previous.projects != loaded.projects)) {
+                logger.info("Relational statistics reconciled: {} -> {} users, {} -> {} projects",
+                        previous.users, loaded.users, previous.projects, loaded.projects);
+            }
+        }
+    }
+
+    /**
+     * Apply a committed change to the counts. Changes committed before the counts are first
+     * computed are ignored, as the computation sees them.
+     *
+     * @param event The change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRelationalMutation(RelationalMutationEvent event) {
+        if (counts == null) {
+            return;
+        }
+        switch (event.getKind()) {
+            case USER_CREATED:
+                counts.users++;
+                break;
+            case USER_DELETED:
+                counts.users--;
+                // The user's projects were deleted with it
+                Long owned = counts.projectsPerUser.remove(event.getId());
+                if (owned != null) {
+                    counts.projects -= owned;
+                    counts.usersWithProjects--;
+                }
+                break;
+            case PROJECT_CREATED:
+                counts.projects++;
+                counts.addProject(event.getUserId());
+                break;
+            case PROJECT_UPDATED:
+                if (!Objects.equals(event.getUserId(), event.getPreviousUserId())) {
+                    counts.removeProject(event.getPreviousUserId());
+                    counts.addProject(event.getUserId());
+                }
+                break;
+            case PROJECT_DELETED:
+                counts.projects--;
+                counts.removeProject(event.getPreviousUserId());
+                break;
+            default:
+                return;
+        }
+        updatedAt = Instant.now();
+        version++;
+    }
+
+    /**
+     * Get the current statistics, computing the counts first if they have not been yet.
+     *
+     * @return A map with the user and project totals, the number of users with projects, the
+     *         number of projects of each user, and the version and time of the last change.
+     * @throws RuntimeException if the counts have to be computed and querying the database fails.
+     */
+    public Map<String, Object> getStatistics() {
+        Snapshot current = snapshot;
+        if (current != null && current.version == version) {
+            return current.statistics;
+        }
+        synchronized (this) {
+            if (counts == null) {
+                reconcile();
+            }
+            current = snapshot;
+            if (current == null || current.version != version) {
+                current = new Snapshot(version, build());
+                snapshot = current;
+            }
+            return current.statistics;
+        }
+    }
+
+    /**
+     * Build the response from the counts. Must be called holding the monitor.
+     *
+     * @return The statistics.
+     */
+    private Map<String, Object> build() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("totalUsers", counts.users);
+        statistics.put("usersWithProjects", counts.usersWithProjects);
+        statistics.put("totalProjects", counts.projects);
+        statistics.put("projectsPerUser", Collections.unmodifiableMap(new HashMap<>(counts.projectsPerUser)));
+        statistics.put("version", version);
+        statistics.put("updatedAt", updatedAt);
+        statistics.put("reconciledAt", reconciledAt);
+        statistics.put("reconcileMillis", reconcileMillis);
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    /**
+     * Compute the counts with aggregate queries. Must be called in a transaction, so that all
+     * the queries read the same state.
+     *
+     * @return The counts.
+     */
+    private Counts load() {
+        Counts loaded = new Counts();
+        loaded.users = userRepository.count();
+        loaded.projects = projectRepository.count();
+        loaded.usersWithProjects = projectRepository.countDistinctUsers();
+        for (Object[] row : projectRepository.countProjectsByUser()) {
+            loaded.projectsPerUser.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        return loaded;
+    }
+
+    /**
+     * Counts of one computation, updated in place by committed changes.
+     */
+    private static class Counts {
+
+        private long users;
+        private long projects;
+        private long usersWithProjects;
+        private final Map<Long, Long> projectsPerUser = new HashMap<>();
+
+        void addProject(Long userId) {
+            if (userId == null) {
+                return;
+            }
+            if (projectsPerUser.merge(userId, 1L, Long::sum) == 1L) {
+                usersWithProjects++;
+            }
+        }
+
+        void removeProject(Long userId) {
+            if (userId == null) {
+                return;
+            }
+            Long count = projectsPerUser.get(userId);
+            if (count == null) {
+                return;
+            }
+            if (count <= 1) {
+                projectsPerUser.remove(userId);
+                usersWithProjects--;
+            } else {
+                projectsPerUser.put(userId, count - 1);
+            }
+        }
+    }
+
+    /**
+     * Response built for one version of the counts.
+     */
+    private static final class Snapshot {
+
+        private final long version;
+        private final Map<String, Object> statistics;
+
+        Snapshot(long version, Map<String, Object> statistics) {
+            this.version = version;
+            this.statistics = statistics;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.graphapp.analytics;
+
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Selection of the highest-scoring indexes with a bounded binary min-heap of primitive ints,
+ * in O(n log k) time and O(k) space without boxing.
+ */
+final class TopK {
+
+    private TopK() {
+    }
+
+    /**
+     * Select the highest-scoring indexes in [0, size).
+     *
+     * @param size The number of candidates.
+     * @param score The score of each candidate.
+     * @param k The number of indexes to select.
+     * @return The selected indexes, highest score first.
+     */
+    static int[] select(int size, IntToDoubleFunction score, int k) {
+        int[] heap = new int[Math.max(0, Math.min(k, size))];
+        int count = 0;
+        for (int i = 0; i < size && heap.length > 0; i++) {
+            if (count < heap.length) {
+                heap[count] = i;
+                siftUp(heap, count++, score);
+            } else if (score.applyAsDouble(i) > score.applyAsDouble(heap[0])) {
+                heap[0] = i;
+                siftDown(heap, count, score);
+            }
+        }
+        int[] ordered = new int[count];
+        for (int i = count - 1; i >= 0; i--) {
+            ordered[i] = heap[0];
+            heap[0] = heap[i];
+            siftDown(heap, i, score);
+        }
+        return ordered;
+    }
+
+    /**
+     * Move a heap entry up until its parent scores no higher.
+     *
+     * @param heap The heap of indexes.
+     * @param index The position of the entry.
+     * @param score The score of each index.
+     */
+    private static void siftUp(int[] heap, int index, IntToDoubleFunction score) {
+        int entry = heap[index];
+        double value = score.applyAsDouble(entry);
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (score.applyAsDouble(heap[parent]) <= value) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = entry;
+    }
+
+    /**
+     * Move the root of the heap down until its children score no lower.
+     *
+     * @param heap The heap of indexes.
+     * @param size The number of entries in the heap.
+     * @param score The score of each index.
+     */
+    private static void siftDown(int[] heap, int size, IntToDoubleFunction score) {
+        if (size == 0) {
+            return;
+        }
+        int index = 0;
+        int entry = heap[0];
+        double value = score.applyAsDouble(entry);
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && score.applyAsDouble(heap[child + 1]) < score.applyAsDouble(heap[child])) {
+                child++;
+            }
+            if (value <= score.applyAsDouble(heap[child])) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = entry;
+    }
+}
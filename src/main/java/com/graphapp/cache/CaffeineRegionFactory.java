@@ -0,0 +1,170 @@
+package com.graphapp.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.access.AccessType;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hibernate second-level cache regions held in Caffeine caches.
+ * <p>
+ * Entity, natural-id and query result regions are each bounded to a maximum number of entries;
+ * query results also expire after a fixed time. The update timestamps region is never bounded,
+ * since a query result is served only while no timestamp of its tables is newer, and an evicted
+ * timestamp would let a stale result through. Hibernate's own access strategies run on top of
+ * these regions, so entities mapped {@code READ_WRITE} are soft-locked while a transaction
+ * writes them and refreshed once it completes.
+ * <p>
+ * Hit, miss and eviction counts of every region are published as {@code cache.*} meters tagged
+ * {@code cache=hibernate.<region>}.
+ */
+public class CaffeineRegionFactory extends RegionFactoryTemplate {
+
+    private static final String METRICS_PREFIX = "hibernate.";
+
+    private final MeterRegistry meterRegistry;
+    private final long maxSize;
+    private final Duration queryTtl;
+    private final Map<String, Cache<Object, Object>> regions = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for CaffeineRegionFactory.
+     *
+     * @param meterRegistry The registry the region statistics are published to.
+     * @param maxSize The maximum number of entries per region.
+     * @param queryTtlSeconds The time after which a cached query result expires.
+     */
+    public CaffeineRegionFactory(MeterRegistry meterRegistry, long maxSize, long queryTtlSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.maxSize = maxSize;
+        this.queryTtl = Duration.ofSeconds(queryTtlSeconds);
+    }
+
+    /**
+     * Get the statistics of every region.
+     *
+     * @return A map from region name to its entry count, hits, misses, hit rate and evictions.
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new TreeMap<>();
+        regions.forEach((name, cache) -> {
+            CacheStats stats = cache.stats();
+            Map<String, Object> region = new TreeMap<>();
+            region.put("size", cache.estimatedSize());
+            region.put("hits", stats.hitCount());
+            region.put("misses", stats.missCount());
+            region.put("hitRate", stats.hitRate());
+            region.put("evictions", stats.evictionCount());
+            statistics.put(name, region);
+        });
+        return statistics;
+    }
+
+    @Override
+    public AccessType getDefaultAccessType() {
+        return AccessType.READ_WRITE;
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map configValues) {
+        // Regions are created as Hibernate builds them
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        regions.values().forEach(Cache::invalidateAll);
+        regions.clear();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return new CaffeineStorageAccess(region(regionConfig.getRegionName(),
+                Caffeine.newBuilder().maximumSize(maxSize)));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+                                                                  SessionFactoryImplementor sessionFactory) {
+        return new CaffeineStorageAccess(region(regionName,
+                Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(queryTtl)));
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+                                                                SessionFactoryImplementor sessionFactory) {
+        // One entry per table; unbounded, as dropping a timestamp would validate stale query results
+        return new CaffeineStorageAccess(region(regionName, Caffeine.newBuilder()));
+    }
+
+    /**
+     * Build the cache of a region and publish its statistics.
+     *
+     * @param name The region name.
+     * @param builder The cache configuration.
+     * @return The cache.
+     */
+    private Cache<Object, Object> region(String name, Caffeine<Object, Object> builder) {
+        Cache<Object, Object> cache = builder.recordStats().build();
+        regions.put(name, cache);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, METRICS_PREFIX + name);
+        return cache;
+    }
+
+    /**
+     * Storage of one region.
+     */
+    private static class CaffeineStorageAccess implements DomainDataStorageAccess {
+
+        private final Cache<Object, Object> cache;
+
+        CaffeineStorageAccess(Cache<Object, Object> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return cache.getIfPresent(key);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            cache.put(key, value);
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return cache.asMap().containsKey(key);
+        }
+
+        @Override
+        public void evictData() {
+            cache.invalidateAll();
+        }
+
+        @Override
+        public void evictData(Object key) {
+            cache.invalidate(key);
+        }
+
+        @Override
+        public void release() {
+            cache.invalidateAll();
+        }
+    }
+}
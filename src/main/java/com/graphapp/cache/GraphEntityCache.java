@@ -0,0 +1,205 @@
+package com.graphapp.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.graphapp.event.GraphMutationEvent;
+import com.graphapp.model.graph.GraphNode;
+import com.graphapp.model.graph.Relationship;
+import com.graphapp.repository.graph.NodeRepository;
+import com.graphapp.repository.graph.RelationshipRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded read-through cache of graph nodes and relationships by ID.
+ * <p>
+ * Misses load through the repositories; concurrent misses on the same ID share one load, and
+ * absent entities are not cached. Each cache is bounded either by entry count or, if a maximum
+ * weight is configured, by weight: one unit per entity plus one per label and dynamic property,
+ * so entities with large property maps take more of the budget. Entries are invalidated by ID
+ * once a write to them commits, through {@link GraphMutationEvent}s.
+ * <p>
+ * Relationships are cached without their endpoints, which are resolved through the node cache
+ * on every read, so updating a node never leaves a stale copy inside a cached relationship.
+ * Returned entities are shared and must not be modified; writes load their own copies.
+ * Hit, miss, load and eviction counts are published as {@code cache.*} meters tagged
+ * {@code cache=graph.nodes} and {@code cache=graph.relationships}.
+ */
+@Component
+public class GraphEntityCache {
+
+    private final NodeRepository nodeRepository;
+    private final RelationshipRepository relationshipRepository;
+    private final Cache<Long, GraphNode> nodes;
+    private final Cache<Long, CachedRelationship> relationships;
+
+    /**
+     * Constructor for GraphEntityCache.
+     *
+     * @param nodeRepository The node repository.
+     * @param relationshipRepository The relationship repository.
+     * @param meterRegistry The registry the cache statistics are published to.
+     * @param maxSize The maximum number of entries per cache, used when no maximum weight is set.
+     * @param maxWeight The maximum total weight per cache, or 0 to bound by entry count.
+     */
+    @Autowired
+    public GraphEntityCache(NodeRepository nodeRepository, RelationshipRepository relationshipRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${graph.cache.max-size:10000}") long maxSize,
+                            @Value("${graph.cache.max-weight:0}") long maxWeight) {
+        this.nodeRepository = nodeRepository;
+        this.relationshipRepository = relationshipRepository;
+
+        Caffeine<Object, Object> nodeBuilder = Caffeine.newBuilder().recordStats();
+        Caffeine<Object, Object> relationshipBuilder = Caffeine.newBuilder().recordStats();
+        if (maxWeight > 0) {
+            this.nodes = nodeBuilder.maximumWeight(maxWeight)
+                    .weigher((Long id, GraphNode node) -> weigh(node))
+                    .build();
+            this.relationships = relationshipBuilder.maximumWeight(maxWeight)
+                    .weigher((Long id, CachedRelationship relationship) -> relationship.weight)
+                    .build();
+        } else {
+            this.nodes = nodeBuilder.maximumSize(maxSize).build();
+            this.relationships = relationshipBuilder.maximumSize(maxSize).build();
+        }
+
+        CaffeineCacheMetrics.monitor(meterRegistry, nodes, "graph.nodes");
+        CaffeineCacheMetrics.monitor(meterRegistry, relationships, "graph.relationships");
+    }
+
+    /**
+     * Get a node by ID, loading it on a miss.
+     *
+     * @param id The ID of the node.
+     * @return An Optional containing the node if found.
+     */
+    public Optional<GraphNode> getNode(Long id) {
+        return Optional.ofNullable(nodes.get(id, key -> nodeRepository.findById(key).orElse(null)));
+    }
+
+    /**
+     * Get a relationship by ID, loading it on a miss. Its endpoints come from the node cache.
+     *
+     * @param id The ID of the relationship.
+     * @return An Optional containing the relationship if found.
+     */
+    public Optional<Relationship> getRelationship(Long id) {
+        CachedRelationship cached = relationships.get(id, key -> relationshipRepository.findById(key)
+                .map(CachedRelationship::new)
+                .orElse(null));
+        if (cached == null) {
+            return Optional.empty();
+        }
+        Relationship relationship = new Relationship(cached.type,
+                cached.sourceId != null ? getNode(cached.sourceId).orElse(null) : null,
+                cached.targetId != null ? getNode(cached.targetId).orElse(null) : null,
+                cached.properties);
+        relationship.setId(cached.id);
+        return Optional.of(relationship);
+    }
+
+    /**
+     * Drop every cached node, after a write that changed nodes without publishing events,
+     * such as a centrality write-back.
+     */
+    public void invalidateNodes() {
+        nodes.invalidateAll();
+    }
+
+    /**
+     * Invalidate the entry of a node or relationship once a write to it has committed.
+     * Creations need no invalidation, since absent entities are not cached.
+     *
+     * @param event The change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGraphMutation(GraphMutationEvent event) {
+        switch (event.getKind()) {
+            case NODE_UPDATED:
+            case NODE_DELETED:
+                nodes.invalidate(event.getId());
+                break;
+            case RELATIONSHIP_UPDATED:
+            case RELATIONSHIP_DELETED:
+                relationships.invalidate(event.getId());
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Get the statistics of both caches.
+     *
+     * @return A map with the entry count, hits, misses, hit rate, evictions and evicted weight
+     *         of the node and relationship caches.
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("nodes", statistics(nodes));
+        statistics.put("relationships", statistics(relationships));
+        return statistics;
+    }
+
+    /**
+     * Get the statistics of one cache.
+     *
+     * @param cache The cache.
+     * @return The statistics.
+     */
+    private static Map<String, Object> statistics(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("size", cache.estimatedSize());
+        statistics.put("hits", stats.hitCount());
+        statistics.put("misses", stats.missCount());
+        statistics.put("hitRate", stats.hitRate());
+        statistics.put("evictions", stats.evictionCount());
+        statistics.put("evictedWeight", stats.evictionWeight());
+        statistics.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return statistics;
+    }
+
+    /**
+     * Get the weight of a node: one unit, plus one per label and per dynamic property.
+     *
+     * @param node The node.
+     * @return The weight.
+     */
+    private static int weigh(GraphNode node) {
+        return 1 + (node.getLabels() != null ? node.getLabels().size() : 0)
+                + (node.getProperties() != null ? node.getProperties().size() : 0);
+    }
+
+    /**
+     * Relationship as cached: its own fields and the IDs of its endpoints.
+     */
+    private static class CachedRelationship {
+
+        private final Long id;
+        private final String type;
+        private final Long sourceId;
+        private final Long targetId;
+        private final Map<String, Object> properties;
+        private final int weight;
+
+        CachedRelationship(Relationship relationship) {
+            this.id = relationship.getId();
+            this.type = relationship.getType();
+            this.sourceId = relationship.getSource() != null ? relationship.getSource().getId() : null;
+            this.targetId = relationship.getTarget() != null ? relationship.getTarget().getId() : null;
+            this.properties = relationship.getProperties();
+            this.weight = 1 + (properties != null ? properties.size() : 0);
+        }
+    }
+}
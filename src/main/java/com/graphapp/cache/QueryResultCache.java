@@ -0,0 +1,299 @@
+package com.graphapp.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.graphapp.event.GraphMutationEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache of query results keyed by query name and arguments, invalidated by tag.
+ * <p>
+ * Each result is tagged with the node types, node labels and relationship types it depends
+ * on, derived from its arguments and from its content. A committed {@link GraphMutationEvent}
+ * invalidates only the tags of the types and labels it touches, before and after the change.
+ * <p>
+ * Invalidation is by epoch rather than by removing keys: every load records the epoch at which
+ * it started, and every tag invalidation records a newer epoch for the tag. A result is valid
+ * only if none of its tags was invalidated after its load started, so a load that raced with a
+ * write is discarded on its next read instead of serving the pre-write result. Concurrent misses
+ * on the same key share one load. Entries also expire a fixed time after their load started, to
+ * bound the staleness of writes made to Neo4j outside the application; the epoch of a tag is kept
+ * for the same time after its last invalidation, as no entry it could invalidate outlives it.
+ */
+@Component
+public class QueryResultCache {
+
+    /**
+     * Tag of results that depend on the set of node types, such as counts by type.
+     */
+    public static final String ALL_NODE_TYPES = "node-types";
+
+    private static final String NODE_TYPE_PREFIX = "node-type:";
+    private static final String NODE_LABEL_PREFIX = "node-label:";
+    private static final String RELATIONSHIP_TYPE_PREFIX = "relationship-type:";
+
+    private final Cache<QueryKey, Entry> results;
+    private final AtomicLong epoch = new AtomicLong();
+    private final Map<String, Long> invalidatedAt;
+    private volatile long invalidatedAllAt;
+
+    /**
+     * Constructor for QueryResultCache.
+     *
+     * @param meterRegistry The registry the cache statistics are published to.
+     * @param maxSize The maximum number of cached results.
+     * @param ttlSeconds The time after the start of its load at which a result expires regardless of writes.
+     */
+    @Autowired
+    public QueryResultCache(MeterRegistry meterRegistry,
+                            @Value("${graph.query-cache.max-size:1000}") long maxSize,
+                            @Value("${graph.query-cache.ttl-seconds:300}") long ttlSeconds) {
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new LoadExpiry(ttl.toNanos()))
+                .recordStats()
+                .build();
+        this.invalidatedAt = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .<String, Long>build()
+                .asMap();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "graph.queries");
+    }
+
+    /**
+     * Get the tag of a node type.
+     *
+     * @param type The node type.
+     * @return The tag.
+     */
+    public static String nodeType(String type) {
+        return NODE_TYPE_PREFIX + type;
+    }
+
+    /**
+     * Get the tag of a node label.
+     *
+     * @param label The node label.
+     * @return The tag.
+     */
+    public static String nodeLabel(String label) {
+        return NODE_LABEL_PREFIX + label;
+    }
+
+    /**
+     * Get the tag of a relationship type.
+     *
+     * @param type The relationship type.
+     * @return The tag.
+     */
+    public static String relationshipType(String type) {
+        return RELATIONSHIP_TYPE_PREFIX + type;
+    }
+
+    /**
+     * Get a cached result, loading it on a miss or if it was invalidated.
+     *
+     * @param query The name of the query.
+     * @param argument The argument of the query, may be null.
+     * @param loader The query.
+     * @param tagger The tags of a loaded result, given the result.
+     * @param <T> The type of the result.
+     * @return The result.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String query, String argument, Supplier<T> loader, Function<T, Collection<String>> tagger) {
+        QueryKey key = new QueryKey(query, argument);
+        Function<QueryKey, Entry> load = k -> {
+            long startedNanos = System.nanoTime();
+            long startedAt = epoch.get();
+            T value = loader.get();
+            return new Entry(value, tagger.apply(value).toArray(new String[0]), startedAt, startedNanos);
+        };
+        Entry entry = results.get(key, load);
+        if (!isValid(entry)) {
+            // Loaded before a write to one of its tags committed; a reload started now sees the write
+            results.asMap().remove(key, entry);
+            entry = results.get(key, load);
+        }
+        return (T) entry.value;
+    }
+
+    /**
+     * Invalidate the results tagged with the types and labels a committed write touched.
+     *
+     * @param event The change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGraphMutation(GraphMutationEvent event) {
+        if (event.isNodeEvent()) {
+            invalidateIfPresent(NODE_TYPE_PREFIX, event.getType(), event.getPreviousType());
+            invalidateIfPresent(NODE_LABEL_PREFIX, event.getLabel(), event.getPreviousLabel());
+            if (event.getKind() != GraphMutationEvent.Kind.NODE_UPDATED
+                    || !Objects.equals(event.getType(), event.getPreviousType())) {
+                invalidate(ALL_NODE_TYPES);
+            }
+        } else {
+            invalidateIfPresent(RELATIONSHIP_TYPE_PREFIX, event.getType(), event.getPreviousType());
+        }
+    }
+
+    /**
+     * Invalidate the results with a tag.
+     *
+     * @param tag The tag.
+     */
+    public void invalidate(String tag) {
+        invalidatedAt.put(tag, epoch.incrementAndGet());
+    }
+
+    /**
+     * Invalidate every result, after a write whose effects cannot be attributed to tags,
+     * such as a centrality write-back.
+     */
+    public void invalidateAll() {
+        invalidatedAllAt = epoch.incrementAndGet();
+        results.invalidateAll();
+    }
+
+    /**
+     * Get the statistics of the cache.
+     *
+     * @return A map with the entry count, hits, misses, evictions and number of invalidated tags.
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("size", results.estimatedSize());
+        statistics.put("hits", results.stats().hitCount());
+        statistics.put("misses", results.stats().missCount());
+        statistics.put("hitRate", results.stats().hitRate());
+        statistics.put("evictions", results.stats().evictionCount());
+        statistics.put("invalidatedTags", invalidatedAt.size());
+        return statistics;
+    }
+
+    /**
+     * Invalidate the tags with a prefix for the values that are present.
+     *
+     * @param prefix The tag prefix.
+     * @param values The values, which may be null or equal.
+     */
+    private void invalidateIfPresent(String prefix, String... values) {
+        Arrays.stream(values)
+                .filter(value -> value != null)
+                .distinct()
+                .forEach(value -> invalidate(prefix + value));
+    }
+
+    /**
+     * Check that no tag of an entry was invalidated after its load started.
+     *
+     * @param entry The entry.
+     * @return True if the entry can be served.
+     */
+    private boolean isValid(Entry entry) {
+        if (invalidatedAllAt > entry.startedAt) {
+            return false;
+        }
+        for (String tag : entry.tags) {
+            Long at = invalidatedAt.get(tag);
+            if (at != null && at > entry.startedAt) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Key of a cached result.
+     */
+    private static final class QueryKey {
+
+        private final String query;
+        private final String argument;
+
+        QueryKey(String query, String argument) {
+            this.query = query;
+            this.argument = argument;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof QueryKey)) {
+                return false;
+            }
+            QueryKey other = (QueryKey) o;
+            return query.equals(other.query) && Objects.equals(argument, other.argument);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * query.hashCode() + (argument != null ? argument.hashCode() : 0);
+        }
+    }
+
+    /**
+     * Cached result with its tags and the epoch and time at which its load started.
+     */
+    private static final class Entry {
+
+        private final Object value;
+        private final String[] tags;
+        private final long startedAt;
+        private final long startedNanos;
+
+        Entry(Object value, String[] tags, long startedAt, long startedNanos) {
+            this.value = value;
+            this.tags = tags;
+            this.startedAt = startedAt;
+            this.startedNanos = startedNanos;
+        }
+    }
+
+    /**
+     * Expiry of cached results a fixed time after their load started, so that a result never
+     * outlives the epochs of the invalidations that raced with its load.
+     */
+    private static final class LoadExpiry implements Expiry<QueryKey, Entry> {
+
+        private final long ttlNanos;
+
+        LoadExpiry(long ttlNanos) {
+            this.ttlNanos = ttlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(QueryKey key, Entry entry, long currentTime) {
+            return Math.max(0, ttlNanos - (currentTime - entry.startedNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(QueryKey key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(QueryKey key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
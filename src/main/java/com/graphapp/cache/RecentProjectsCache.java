@@ -0,0 +1,267 @@
+package com.graphapp.cache;
+
+import com.graphapp.config.DatabaseConfig;
+import com.graphapp.event.RelationalMutationEvent;
+import com.graphapp.model.relational.Project;
+import com.graphapp.repository.relational.ProjectRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Bounded in-memory list of the most recently updated projects.
+ * <p>
+ * The list always holds a prefix of the projects ordered by update time, most recent first (ties
+ * by ID, as in {@link ProjectRepository#findRecentProjects}): at most {@code capacity} projects,
+ * loaded with one top-N query and kept current by the {@link RelationalMutationEvent}s of
+ * committed writes. Creating or updating a project moves it to the front and pushes the last one
+ * out; deleting a project shortens the prefix. A request for more projects than the prefix holds
+ * reloads it, and requests beyond the capacity go to the database, so small feeds never do.
+ * <p>
+ * A reload keeps its result only if no change was applied while its query ran, since the result
+ * may predate that change. Updating a user clears the list, as the cached projects hold a copy of
+ * their user, and bulk imports clear it through {@link #invalidate}, so the next request reloads
+ * it. Returned projects are shared and must not be modified.
+ */
+@Component
+public class RecentProjectsCache {
+
+    private static final Comparator<Project> MOST_RECENT_FIRST = Comparator
+            .comparing((Project project) -> truncate(project.getUpdatedAt()), Comparator.reverseOrder())
+            .thenComparing(Project::getId, Comparator.reverseOrder());
+
+    private final ProjectRepository projectRepository;
+    private final TransactionTemplate readTransaction;
+    private final int capacity;
+
+    // Guarded by this
+    private final TreeSet<Project> projects = new TreeSet<>(MOST_RECENT_FIRST);
+    private final Map<Long, Project> projectsById = new HashMap<>();
+    private boolean complete;
+    private long changes;
+    private long hits;
+    private long reloads;
+
+    /**
+     * Constructor for RecentProjectsCache.
+     *
+     * @param projectRepository The project repository.
+     * @param transactionManager The JPA transaction manager.
+     * @param capacity The maximum number of projects kept in memory.
+     */
+    @Autowired
+    public RecentProjectsCache(ProjectRepository projectRepository,
+                               @Qualifier(DatabaseConfig.TRANSACTION_MANAGER) PlatformTransactionManager transactionManager,
+                               @Value("${relational.recent-projects.capacity:100}") int capacity) {
+        this.projectRepository = projectRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.capacity = Math.max(1, capacity);
+    }
+
+    /**
+     * Get the most recently updated projects.
+     *
+     * @param limit The maximum number of projects to return.
+     * @return The projects, most recent first.
+     * @throws IllegalArgumentException if the limit is not positive.
+     */
+    public List<Project> getRecentProjects(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+        if (limit > capacity) {
+            return query(limit);
+        }
+
+        long startedAt;
+        synchronized (this) {
+            if (complete || projects.size() >= limit) {
+                hits++;
+                return first(limit);
+            }
+            startedAt = changes;
+        }
+
+        List<Project> loaded = query(capacity);
+        synchronized (this) {
+            reloads++;
+            if (changes == startedAt) {
+                projects.clear();
+                projectsById.clear();
+                for (Project project : loaded) {
+                    add(project);
+                }
+                complete = loaded.size() < capacity;
+            }
+        }
+        return loaded.size() > limit ? new ArrayList<>(loaded.subList(0, limit)) : loaded;
+    }
+
+    /**
+     * Apply a committed change to the list.
+     *
+     * @param event The change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRelationalMutation(RelationalMutationEvent event) {
+        switch (event.getKind()) {
+            case PROJECT_CREATED:
+            case PROJECT_UPDATED:
+                remove(event.getId());
+                offer(event.getProject());
+                break;
+            case PROJECT_DELETED:
+                remove(event.getId());
+                break;
+            case USER_UPDATED:
+                if (projects.stream().anyMatch(project -> isOwnedBy(project, event.getId()))) {
+                    projects.clear();
+                    projectsById.clear();
+                    complete = false;
+                }
+                break;
+            case USER_DELETED:
+                // The user's projects were deleted with it
+                projects.stream()
+                        .filter(project -> isOwnedBy(project, event.getId()))
+                        .map(Project::getId)
+                        .forEach(projectsById::remove);
+                projects.removeIf(project -> isOwnedBy(project, event.getId()));
+                break;
+            default:
+                return;
+        }
+        changes++;
+    }
+
+    /**
+     * Clear the list after projects were written without events, such as by a bulk import, so
+     * that the next request reloads it. A reload already running discards its result.
+     */
+    public synchronized void invalidate() {
+        projects.clear();
+        projectsById.clear();
+        complete = false;
+        changes++;
+    }
+
+    /**
+     * Get the statistics of the list.
+     *
+     * @return A map with the number of cached projects, the capacity, and the number of requests
+     *         served from memory and of reloads.
+     */
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("size", projects.size());
+        statistics.put("capacity", capacity);
+        statistics.put("complete", complete);
+        statistics.put("hits", hits);
+        statistics.put("reloads", reloads);
+        return statistics;
+    }
+
+    /**
+     * Insert a created or updated project if it falls within the prefix, then trim the prefix
+     * to the capacity. Unless the list holds every project, a project after the last one held
+     * (or any project, if none is held) is left out, as projects between the two may be missing.
+     * Must be called holding the monitor.
+     *
+     * @param project The project.
+     */
+    private void offer(Project project) {
+        if (!complete && (projects.isEmpty() || MOST_RECENT_FIRST.compare(project, projects.last()) > 0)) {
+            return;
+        }
+        add(project);
+        if (projects.size() > capacity) {
+            projectsById.remove(projects.pollLast().getId());
+            complete = false;
+        }
+    }
+
+    /**
+     * Add a project to the list. Must be called holding the monitor.
+     *
+     * @param project The project.
+     */
+    private void add(Project project) {
+        projects.add(project);
+        projectsById.put(project.getId(), project);
+    }
+
+    /**
+     * Remove a project from the list if it is held. Must be called holding the monitor.
+     *
+     * @param id The ID of the project.
+     */
+    private void remove(long id) {
+        Project project = projectsById.remove(id);
+        if (project != null) {
+            projects.remove(project);
+        }
+    }
+
+    /**
+     * Copy the first projects of the list. Must be called holding the monitor.
+     *
+     * @param limit The maximum number of projects.
+     * @return The projects.
+     */
+    private List<Project> first(int limit) {
+        List<Project> first = new ArrayList<>(Math.min(limit, projects.size()));
+        Iterator<Project> iterator = projects.iterator();
+        while (iterator.hasNext() && first.size() < limit) {
+            first.add(iterator.next());
+        }
+        return first;
+    }
+
+    /**
+     * Run the top-N query.
+     *
+     * @param limit The number of projects.
+     * @return The projects, most recent first.
+     */
+    private List<Project> query(int limit) {
+        return readTransaction.execute(status -> projectRepository.findRecentProjects(PageRequest.of(0, limit)));
+    }
+
+    /**
+     * Check whether a project belongs to a user.
+     *
+     * @param project The project.
+     * @param userId The ID of the user.
+     * @return True if the project's user has the ID.
+     */
+    private static boolean isOwnedBy(Project project, long userId) {
+        return project.getUser() != null && project.getUser().getId() != null && project.getUser().getId() == userId;
+    }
+
+    /**
+     * Truncate an update time to the millisecond precision it is stored with, so that projects
+     * held in memory are ordered as the database orders them.
+     *
+     * @param updatedAt The update time.
+     * @return The truncated time.
+     */
+    private static LocalDateTime truncate(LocalDateTime updatedAt) {
+        return updatedAt.truncatedTo(ChronoUnit.MILLIS);
+    }
+}
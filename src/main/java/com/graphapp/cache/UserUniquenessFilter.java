@@ -0,0 +1,340 @@
+package com.graphapp.cache;
+
+import com.graphapp.event.RelationalMutationEvent;
+import com.graphapp.repository.relational.UserRepository;
+import com.graphapp.util.CountingBloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * In-memory membership filters over the usernames and emails of all users, consulted before the
+ * uniqueness checks of user writes.
+ * <p>
+ * Each filter is a {@link CountingBloomFilter}: a value it reports absent is not taken, so the
+ * existence query is skipped; a value it may hold is checked against the database as before. The
+ * filters are built from one streaming scan of the users table at startup and kept current by the
+ * {@link RelationalMutationEvent}s of committed writes and by bulk imports. Until they are built,
+ * every check queries the database.
+ * <p>
+ * A value can be taken while its filter does not hold it yet, between a commit and its event or
+ * when a write bypasses both; the unique indexes on {@code users} reject such a write, so they
+ * remain the final arbiter. The filters are rebuilt on a fixed delay, sized for twice the current
+ * number of users, which restores the false-positive rate as users are added and drops counters
+ * left by values that could not be removed. During a rebuild, values are added to both the old
+ * and the new filters and removals are applied to the old ones only, as removing a value the scan
+ * has not added yet could remove another's.
+ * <p>
+ * The estimated false-positive probability and memory of each filter are published as the
+ * {@code relational.users.filter.fpp} and {@code relational.users.filter.memory} gauges, and the
+ * outcome of every check as the {@code relational.users.filter.checks} counter, tagged
+ * {@code filter=username|email} and {@code result=absent|present|false_positive|unavailable}.
+ */
+@Component
+public class UserUniquenessFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserUniquenessFilter.class);
+
+    private static final String USERNAME = "username";
+    private static final String EMAIL = "email";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final long expectedUsers;
+    private final double fpp;
+    private final Map<String, Map<String, Counter>> checks = new HashMap<>();
+
+    private volatile Filters filters;
+
+    // Guarded by this
+    private Filters rebuilding;
+    private Instant builtAt;
+    private long buildMillis;
+
+    /**
+     * Constructor for UserUniquenessFilter.
+     *
+     * @param jdbcTemplate The JDBC template used for the scan, which runs on the read pool.
+     * @param userRepository The user repository, for the values the filters may hold.
+     * @param meterRegistry The registry the filter metrics are published to.
+     * @param expectedUsers The smallest number of users the filters are sized for.
+     * @param fpp The target false-positive probability.
+     */
+    @Autowired
+    public UserUniquenessFilter(JdbcTemplate jdbcTemplate, UserRepository userRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${relational.user-filter.expected-users:100000}") long expectedUsers,
+                                @Value("${relational.user-filter.fpp:0.01}") double fpp) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.expectedUsers = Math.max(1, expectedUsers);
+        this.fpp = fpp;
+
+        for (String filter : new String[] {USERNAME, EMAIL}) {
+            Gauge.builder("relational.users.filter.fpp", this, self -> self.statistic(filter, CountingBloomFilter::expectedFpp))
+                    .description("Estimated false-positive probability of the user membership filter")
+                    .tag("filter", filter)
+                    .register(meterRegistry);
+            Gauge.builder("relational.users.filter.memory", this, self -> self.statistic(filter, CountingBloomFilter::memoryBytes))
+                    .description("Memory taken by the counters of the user membership filter")
+                    .tag("filter", filter)
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            Map<String, Counter> results = new HashMap<>();
+            for (String result : new String[] {"absent", "present", "false_positive", "unavailable"}) {
+                results.put(result, Counter.builder("relational.users.filter.checks")
+                        .description("Uniqueness checks by filter outcome")
+                        .tag("filter", filter)
+                        .tag("result", result)
+                        .register(meterRegistry));
+            }
+            checks.put(filter, results);
+        }
+    }
+
+    /**
+     * Build the filters once the application is ready, then rebuild them on a fixed delay.
+     * Failures are logged and the current filters are kept until the next attempt.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${relational.user-filter.rebuild-interval-ms:3600000}",
+            initialDelayString = "${relational.user-filter.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.warn("User membership filters not built, will retry on the next rebuild: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Build new filters from a scan of the users table and replace the current ones.
+     *
+     * @throws RuntimeException if querying the database fails.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        Long users = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        Filters built = new Filters(Math.max(expectedUsers, 2 * (users != null ? users : 0)), fpp);
+        // Registered before the scan starts, so writes committed after its snapshot are added by their events
+        synchronized (this) {
+            rebuilding = built;
+        }
+        boolean scanned = false;
+        try {
+            jdbcTemplate.query("SELECT username, email FROM users",
+                    (RowCallbackHandler) rs -> built.add(rs.getString(1), rs.getString(2)));
+            scanned = true;
+        } finally {
+            synchronized (this) {
+                if (rebuilding == built) {
+                    rebuilding = null;
+                    if (scanned) {
+                        filters = built;
+                        buildMillis = (System.nanoTime() - start) / 1_000_000;
+                        builtAt = Instant.now();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Check whether a username is taken, querying the database only if the filter may hold it.
+     *
+     * @param username The username.
+     * @return True if a user has the username.
+     */
+    public boolean usernameExists(String username) {
+        Filters current = filters;
+        return exists(USERNAME, username, current != null ? current.usernames : null, userRepository::existsByUsername);
+    }
+
+    /**
+     * Check whether an email is taken, querying the database only if the filter may hold it.
+     *
+     * @param email The email.
+     * @return True if a user has the email.
+     */
+    public boolean emailExists(String email) {
+        Filters current = filters;
+        return exists(EMAIL, email, current != null ? current.emails : null, userRepository::existsByEmail);
+    }
+
+    /**
+     * Add the username and email of a user written outside the service layer.
+     *
+     * @param username The username.
+     * @param email The email.
+     */
+    public synchronized void add(String username, String email) {
+        if (filters != null) {
+            filters.add(username, email);
+        }
+        if (rebuilding != null) {
+            rebuilding.add(username, email);
+        }
+    }
+
+    /**
+     * Apply a committed change of a user to the filters.
+     *
+     * @param event The change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRelationalMutation(RelationalMutationEvent event) {
+        switch (event.getKind()) {
+            case USER_CREATED:
+                add(event.getUsername(), event.getEmail());
+                break;
+            case USER_UPDATED:
+                if (!Objects.equals(event.getUsername(), event.getPreviousUsername())) {
+                    add(event.getUsername(), null);
+                    remove(event.getPreviousUsername(), null);
+                }
+                if (!Objects.equals(event.getEmail(), event.getPreviousEmail())) {
+                    add(null, event.getEmail());
+                    remove(null, event.getPreviousEmail());
+                }
+                break;
+            case USER_DELETED:
+                remove(event.getPreviousUsername(), event.getPreviousEmail());
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Get the statistics of the filters.
+     *
+     * @return A map with, for each filter, the number of values it holds, its number of hash
+     *         functions, memory and estimated false-positive probability, and the time and
+     *         duration of the last build.
+     */
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("built", filters != null);
+        statistics.put("rebuilding", rebuilding != null);
+        statistics.put("builtAt", builtAt);
+        statistics.put("buildMillis", buildMillis);
+        if (filters != null) {
+            statistics.put(USERNAME, describe(filters.usernames));
+            statistics.put(EMAIL, describe(filters.emails));
+        }
+        return statistics;
+    }
+
+    /**
+     * Check whether a value is taken and count the outcome.
+     *
+     * @param name The name of the filter.
+     * @param value The value.
+     * @param filter The filter, or null if it is not built yet.
+     * @param query The existence query.
+     * @return True if a user has the value.
+     */
+    private boolean exists(String name, String value, CountingBloomFilter filter, Predicate<String> query) {
+        if (value == null) {
+            // The columns are not nullable, so no user has it
+            return false;
+        }
+        Map<String, Counter> results = checks.get(name);
+        if (filter != null && !filter.mightContain(value)) {
+            results.get("absent").increment();
+            return false;
+        }
+        boolean exists = query.test(value);
+        results.get(filter == null ? "unavailable" : exists ? "present" : "false_positive").increment();
+        return exists;
+    }
+
+    /**
+     * Remove values from the current filters. Must be called holding the monitor.
+     *
+     * @param username The username, or null.
+     * @param email The email, or null.
+     */
+    private void remove(String username, String email) {
+        if (filters == null) {
+            return;
+        }
+        if (username != null) {
+            filters.usernames.remove(username);
+        }
+        if (email != null) {
+            filters.emails.remove(email);
+        }
+    }
+
+    /**
+     * Read a statistic of the current filter of a kind, for the gauges.
+     *
+     * @param name The name of the filter.
+     * @param statistic The statistic.
+     * @return The value, or 0 if the filters are not built yet.
+     */
+    private double statistic(String name, ToDoubleFunction<CountingBloomFilter> statistic) {
+        Filters current = filters;
+        if (current == null) {
+            return 0;
+        }
+        return statistic.applyAsDouble(USERNAME.equals(name) ? current.usernames : current.emails);
+    }
+
+    /**
+     * Describe a filter.
+     *
+     * @param filter The filter.
+     * @return A map with its size, number of hash functions, memory and estimated false-positive probability.
+     */
+    private static Map<String, Object> describe(CountingBloomFilter filter) {
+        Map<String, Object> description = new HashMap<>();
+        description.put("size", filter.size());
+        description.put("hashes", filter.hashes());
+        description.put("memoryBytes", filter.memoryBytes());
+        description.put("fpp", filter.expectedFpp());
+        return description;
+    }
+
+    /**
+     * Username and email filters of one build.
+     */
+    private static final class Filters {
+
+        private final CountingBloomFilter usernames;
+        private final CountingBloomFilter emails;
+
+        Filters(long expectedInsertions, double fpp) {
+            this.usernames = new CountingBloomFilter(expectedInsertions, fpp);
+            this.emails = new CountingBloomFilter(expectedInsertions, fpp);
+        }
+
+        void add(String username, String email) {
+            if (username != null) {
+                usernames.add(username);
+            }
+            if (email != null) {
+                emails.add(email);
+            }
+        }
+    }
+}
@@ -1,15 +1,21 @@
 package com.graphapp.config;
 
+import com.graphapp.cache.CaffeineRegionFactory;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Profile;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.sqlite.SQLiteConfig;
 
 import javax.persistence.EntityManagerFactory;
 import javax.sql.DataSource;
@@ -17,39 +23,158 @@ import java.util.Properties;
 
 /**
  * Configuration for relational database (SQLite).
+ * <p>
+ * Reads are served by a connection pool and writes by a single dedicated connection, since
+ * SQLite serializes writers anyway. Both run in WAL mode so readers never block behind the
+ * writer. Entities marked cacheable, their natural IDs and cacheable queries are kept in a
+ * bounded second-level cache.
  */
 @Configuration
 @EnableTransactionManagement
 public class DatabaseConfig {
     
+    /**
+     * Bean name of the JPA transaction manager.
+     */
+    public static final String TRANSACTION_MANAGER = "jpaTransactionManager";
+    
     @Value("${spring.datasource.url}")
     private String databaseUrl;
     
     @Value("${spring.datasource.driver-class-name}")
     private String databaseDriverClassName;
     
+    @Value("${sqlite.read-pool-size:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+    private int readPoolSize;
+    
+    @Value("${sqlite.connection-timeout-ms:30000}")
+    private long connectionTimeoutMs;
+    
+    @Value("${sqlite.busy-timeout-ms:5000}")
+    private int busyTimeoutMs;
+    
+    @Value("${sqlite.synchronous:FULL}")
+    private SQLiteConfig.SynchronousMode synchronous;
+    
+    @Value("${sqlite.cache-size-kb:65536}")
+    private int cacheSizeKb;
+    
+    @Value("${sqlite.mmap-size:268435456}")
+    private long mmapSize;
+    
+    @Value("${relational.cache.max-size:10000}")
+    private long cacheMaxSize;
+    
+    @Value("${relational.cache.query-ttl-seconds:300}")
+    private long cacheQueryTtlSeconds;
+    
     /**
-     * Configure the data source for SQLite.
+     * Configure the data source for SQLite, routing each transaction to the read pool
+     * or to the writer connection.
      * 
+     * @param readDataSource The read pool.
+     * @param writeDataSource The writer connection.
      * @return The data source.
      */
     @Bean
-    public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
+    @Primary
+    public DataSource dataSource(@Qualifier("sqliteReadDataSource") DataSource readDataSource,
+                                 @Qualifier("sqliteWriteDataSource") DataSource writeDataSource) {
+        return new LazyConnectionDataSourceProxy(new SqliteRoutingDataSource(readDataSource, writeDataSource));
+    }
+    
+    /**
+     * Configure the pool of read connections.
+     * Pool metrics (wait time, usage, active and pending connections) are published by the
+     * actuator as {@code hikaricp.*} meters tagged with the pool name.
+     * 
+     * @return The read pool.
+     */
+    @Bean(destroyMethod = "close")
+    public HikariDataSource sqliteReadDataSource() {
+        SQLiteConfig sqliteConfig = sqliteConfig();
+        sqliteConfig.setTransactionMode(SQLiteConfig.TransactionMode.DEFERRED);
+        return pool("sqlite-read", readPoolSize, sqliteConfig);
+    }
+    
+    /**
+     * Configure the single writer connection.
+     * Write transactions begin IMMEDIATE so they take the write lock up front instead of
+     * failing to upgrade a read lock.
+     * 
+     * @return The writer pool, holding exactly one connection.
+     */
+    @Bean(destroyMethod = "close")
+    public HikariDataSource sqliteWriteDataSource() {
+        SQLiteConfig sqliteConfig = sqliteConfig();
+        sqliteConfig.setTransactionMode(SQLiteConfig.TransactionMode.IMMEDIATE);
+        return pool("sqlite-write", 1, sqliteConfig);
+    }
+    
+    /**
+     * Build the pragmas shared by read and write connections.
+     * 
+     * @return The SQLite configuration.
+     */
+    private SQLiteConfig sqliteConfig() {
+        SQLiteConfig sqliteConfig = new SQLiteConfig();
+        sqliteConfig.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        sqliteConfig.setSynchronous(synchronous);
+        sqliteConfig.setTempStore(SQLiteConfig.TempStore.MEMORY);
+        sqliteConfig.setBusyTimeout(busyTimeoutMs);
+        // A negative cache size is in KiB rather than pages
+        sqliteConfig.setCacheSize(-cacheSizeKb);
+        sqliteConfig.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, String.valueOf(mmapSize));
+        return sqliteConfig;
+    }
+    
+    /**
+     * Build a fixed-size connection pool.
+     * The pool starts on first use, so the actuator can attach its metrics tracker first.
+     * 
+     * @param name The pool name, used as the metrics tag.
+     * @param size The number of connections.
+     * @param sqliteConfig The SQLite pragmas applied to every connection.
+     * @return The pool.
+     */
+    private HikariDataSource pool(String name, int size, SQLiteConfig sqliteConfig) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
         dataSource.setDriverClassName(databaseDriverClassName);
-        dataSource.setUrl(databaseUrl);
+        dataSource.setJdbcUrl(databaseUrl);
+        dataSource.setDataSourceProperties(sqliteConfig.toProperties());
+        dataSource.setMaximumPoolSize(size);
+        dataSource.setMinimumIdle(size);
+        dataSource.setConnectionTimeout(connectionTimeoutMs);
+        // SQLite connections are local files and never go stale
+        dataSource.setMaxLifetime(0);
+        dataSource.setIdleTimeout(0);
         return dataSource;
     }
     
+    /**
+     * Configure the second-level cache regions of the entity manager factory.
+     * 
+     * @param meterRegistry The registry the region statistics are published to.
+     * @return The region factory.
+     */
+    @Bean
+    public CaffeineRegionFactory relationalCacheRegionFactory(MeterRegistry meterRegistry) {
+        return new CaffeineRegionFactory(meterRegistry, cacheMaxSize, cacheQueryTtlSeconds);
+    }
+    
     /**
      * Configure the entity manager factory for JPA.
      * 
+     * @param dataSource The routing data source.
+     * @param regionFactory The second-level cache regions.
      * @return The entity manager factory.
      */
     @Bean
-    public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource,
+                                                                       CaffeineRegionFactory regionFactory) {
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
-        em.setDataSource(dataSource());
+        em.setDataSource(dataSource);
         em.setPackagesToScan("com.graphapp.model.relational");
         
         HibernateJpaVendorAdapter vendorAdapter = new HibernateJpaVendorAdapter();
@@ -57,22 +182,33 @@ public class DatabaseConfig {
         
         Properties properties = new Properties();
         properties.setProperty("hibernate.hbm2ddl.auto", "update");
+        // Inspect only the mapped tables; bulk metadata extraction fails on the FTS5 virtual tables
+        properties.setProperty("hibernate.hbm2ddl.jdbc_metadata_extraction_strategy", "individually");
         properties.setProperty("hibernate.dialect", "org.sqlite.hibernate.dialect.SQLiteDialect");
         properties.setProperty("hibernate.show_sql", "true");
         properties.setProperty("hibernate.format_sql", "true");
+        // Only entities annotated @Cacheable are cached; queries only with the cacheable hint
+        properties.setProperty("javax.persistence.sharedCache.mode", "ENABLE_SELECTIVE");
+        properties.setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true");
+        properties.setProperty(AvailableSettings.USE_QUERY_CACHE, "true");
+        // Writing a project evicts its user's cached project collection, which is the inverse side
+        properties.setProperty(AvailableSettings.AUTO_EVICT_COLLECTION_CACHE, "true");
         em.setJpaProperties(properties);
+        em.getJpaPropertyMap().put(AvailableSettings.CACHE_REGION_FACTORY, regionFactory);
         
         return em;
     }
     
     /**
      * Configure the transaction manager for JPA.
+     * Registered under its own name so it is not overridden by the Neo4j transaction manager;
+     * relational services and repositories refer to it by {@link #TRANSACTION_MANAGER}.
      * 
      * @param emf The entity manager factory.
      * @return The transaction manager.
      */
-    @Bean
-    public PlatformTransactionManager transactionManager(EntityManagerFactory emf) {
+    @Bean(TRANSACTION_MANAGER)
+    public PlatformTransactionManager jpaTransactionManager(EntityManagerFactory emf) {
         JpaTransactionManager transactionManager = new JpaTransactionManager();
         transactionManager.setEntityManagerFactory(emf);
         return transactionManager;
@@ -6,9 +6,12 @@ import org.neo4j.driver.GraphDatabase;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.neo4j.config.AbstractNeo4jConfig;
+import org.springframework.data.neo4j.core.DatabaseSelectionProvider;
 import org.springframework.data.neo4j.repository.config.EnableNeo4jRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 /**
@@ -48,4 +51,21 @@ public class Neo4jConfig extends AbstractNeo4jConfig {
         // Use username/password authentication for external servers
         return GraphDatabase.driver(uri, AuthTokens.basic(username, password));
     }
-}
\ No newline at end of file
+    
+    /**
+     * Configure the Neo4j transaction manager.
+     * Marked primary so that unqualified {@code @Transactional} methods, which are all graph
+     * writes, use it; relational code refers to the JPA transaction manager by
+     * {@link DatabaseConfig#TRANSACTION_MANAGER}.
+     * 
+     * @param driver The Neo4j driver.
+     * @param databaseSelectionProvider The provider of the target database.
+     * @return The transaction manager.
+     */
+    @Bean
+    @Primary
+    @Override
+    public PlatformTransactionManager transactionManager(Driver driver, DatabaseSelectionProvider databaseSelectionProvider) {
+        return super.transactionManager(driver, databaseSelectionProvider);
+    }
+}
@@ -0,0 +1,47 @@
+package com.graphapp.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Data source that sends SQLite work either to the read pool or to the single writer connection.
+ * <p>
+ * Read-write transactions use the writer. Read-only transactions and statements outside a
+ * transaction use the read pool. The decision depends on the transaction state at the time the
+ * connection is fetched, so this data source must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}. Otherwise the
+ * connection is fetched before the transaction manager has recorded the read-only flag.
+ */
+public class SqliteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String READ = "read";
+    private static final String WRITE = "write";
+
+    /**
+     * Constructor for SqliteRoutingDataSource.
+     *
+     * @param readDataSource The pooled data source used for reads.
+     * @param writeDataSource The single-connection data source used for writes.
+     */
+    public SqliteRoutingDataSource(DataSource readDataSource, DataSource writeDataSource) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(READ, readDataSource);
+        targets.put(WRITE, writeDataSource);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(readDataSource);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return WRITE;
+        }
+        return READ;
+    }
+}
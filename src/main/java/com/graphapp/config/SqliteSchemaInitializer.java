@@ -0,0 +1,71 @@
+package com.graphapp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Applies the parts of the SQLite schema that Hibernate's schema update cannot.
+ * <p>
+ * The SQLite dialect emits unique constraints as {@code ALTER TABLE ... ADD CONSTRAINT}, which SQLite
+ * does not support, so the {@code unique = true} columns of the entities are not enforced by the
+ * database. This creates equivalent unique indexes once the tables exist, along with the indexes
+ * that back ordered queries and joins, such as the recent projects feed and the projects of a user.
+ * Each statement runs in its own read-write transaction, so it is sent to the writer connection.
+ */
+@Component
+public class SqliteSchemaInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqliteSchemaInitializer.class);
+
+    private static final List<String> INDEXES = Arrays.asList(
+            "CREATE UNIQUE INDEX IF NOT EXISTS ux_users_username ON users (username)",
+            "CREATE UNIQUE INDEX IF NOT EXISTS ux_users_email ON users (email)",
+            "CREATE INDEX IF NOT EXISTS ix_projects_updated_at ON projects (updated_at, id)",
+            "CREATE INDEX IF NOT EXISTS ix_projects_user_id ON projects (user_id)");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Constructor for SqliteSchemaInitializer.
+     *
+     * @param jdbcTemplate The JDBC template.
+     * @param transactionManager The JPA transaction manager, so the DDL runs on the writer connection.
+     */
+    @Autowired
+    public SqliteSchemaInitializer(JdbcTemplate jdbcTemplate,
+                                   @Qualifier(DatabaseConfig.TRANSACTION_MANAGER) PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Create the indexes if they are missing.
+     * An index that cannot be created because existing rows violate it is logged and skipped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void createIndexes() {
+        for (String statement : INDEXES) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute(statement));
+            } catch (DataAccessException e) {
+                logger.warn("Could not apply '{}': {}", statement, e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+}
@@ -1,13 +1,29 @@
 package com.graphapp.controller;
 
+import com.graphapp.analytics.ComponentType;
+import com.graphapp.dto.BulkWriteResult;
+import com.graphapp.dto.CentralityResult;
+import com.graphapp.dto.ColumnarGraphEncoder;
+import com.graphapp.dto.ComponentsResult;
+import com.graphapp.dto.CursorPage;
+import com.graphapp.dto.GraphPayload;
+import com.graphapp.dto.RelationshipDto;
+import com.graphapp.dto.TraversalResult;
 import com.graphapp.model.graph.GraphNode;
 import com.graphapp.model.graph.Relationship;
+import com.graphapp.projection.Direction;
+import com.graphapp.service.GraphBulkService;
 import com.graphapp.service.GraphDataService;
+import com.graphapp.service.GraphStreamService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -20,20 +36,30 @@ import java.util.Optional;
 @RequestMapping({"${api.prefix:/api}/graph", "/graph"})
 public class GraphDataController {
 
+    // Page size of a keyset page requested with a cursor but no limit
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
     private final GraphDataService graphDataService;
+    private final GraphStreamService graphStreamService;
+    private final GraphBulkService graphBulkService;
 
     /**
      * Constructor for GraphDataController.
      * 
      * @param graphDataService The graph data service.
+     * @param graphStreamService The graph streaming service.
+     * @param graphBulkService The graph bulk-loading service.
      */
     @Autowired
-    public GraphDataController(GraphDataService graphDataService) {
+    public GraphDataController(GraphDataService graphDataService, GraphStreamService graphStreamService,
+                               GraphBulkService graphBulkService) {
         this.graphDataService = graphDataService;
+        this.graphStreamService = graphStreamService;
+        this.graphBulkService = graphBulkService;
     }
 
     /**
-     * Get all nodes.
+     * Get all nodes, capped at the server-side maximum number of results.
      * 
      * @return The list of nodes.
      */
@@ -42,6 +68,34 @@ public class GraphDataController {
         return ResponseEntity.ok(graphDataService.getAllNodes());
     }
 
+    /**
+     * Get a page of nodes using keyset pagination.
+     * 
+     * @param after The cursor returned with the previous page, or absent for the first page.
+     * @param limit The maximum number of nodes to return.
+     * @return The page of nodes, or a 400 response if the cursor is invalid.
+     */
+    @GetMapping(value = "/nodes", params = "limit")
+    public ResponseEntity<CursorPage<GraphNode>> getNodesPage(@RequestParam(required = false) String after,
+                                                              @RequestParam int limit) {
+        try {
+            return ResponseEntity.ok(graphDataService.getNodesPage(after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get the page of nodes after a cursor, with the default page size.
+     * 
+     * @param after The cursor returned with the previous page.
+     * @return The page of nodes, or a 400 response if the cursor is invalid.
+     */
+    @GetMapping(value = "/nodes", params = {"after", "!limit"})
+    public ResponseEntity<CursorPage<GraphNode>> getNodesPageAfter(@RequestParam String after) {
+        return getNodesPage(after, DEFAULT_PAGE_SIZE);
+    }
+
     /**
      * Get a node by ID.
      * 
@@ -67,6 +121,23 @@ public class GraphDataController {
                 .body(graphDataService.createNode(node));
     }
 
+    /**
+     * Create nodes in bulk from a JSON array or newline-delimited JSON body.
+     * The body is parsed incrementally and written in batches.
+     * 
+     * @param body The request body stream.
+     * @param batchSize The number of nodes per batch, or absent for the configured default.
+     * @return The report of created IDs, errors, and per-batch timing.
+     * @throws IOException if reading the request body fails.
+     */
+    @PostMapping(value = "/nodes/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkWriteResult> createNodesBulk(InputStream body,
+                                                           @RequestParam(required = false) Integer batchSize)
+            throws IOException {
+        return ResponseEntity.ok(graphBulkService.createNodes(body, batchSize));
+    }
+
     /**
      * Update a node.
      * 
@@ -122,6 +193,16 @@ public class GraphDataController {
         return ResponseEntity.ok(graphDataService.findNodesByLabel(label));
     }
 
+    /**
+     * Count nodes by type.
+     * 
+     * @return The map of type to count.
+     */
+    @GetMapping("/nodes/type-counts")
+    public ResponseEntity<Map<String, Long>> countNodesByType() {
+        return ResponseEntity.ok(graphDataService.countNodesByType());
+    }
+
     /**
      * Search nodes by various criteria.
      * 
@@ -134,7 +215,7 @@ public class GraphDataController {
     }
 
     /**
-     * Get all relationships.
+     * Get all relationships, capped at the server-side maximum number of results.
      * 
      * @return The list of relationships.
      */
@@ -143,6 +224,72 @@ public class GraphDataController {
         return ResponseEntity.ok(graphDataService.getAllRelationships());
     }
 
+    /**
+     * Get a page of relationships using keyset pagination.
+     * 
+     * @param after The cursor returned with the previous page, or absent for the first page.
+     * @param limit The maximum number of relationships to return.
+     * @return The page of relationships, or a 400 response if the cursor is invalid.
+     */
+    @GetMapping(value = "/relationships", params = "limit")
+    public ResponseEntity<CursorPage<Relationship>> getRelationshipsPage(@RequestParam(required = false) String after,
+                                                                         @RequestParam int limit) {
+        try {
+            return ResponseEntity.ok(graphDataService.getRelationshipsPage(after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get the page of relationships after a cursor, with the default page size.
+     * 
+     * @param after The cursor returned with the previous page.
+     * @return The page of relationships, or a 400 response if the cursor is invalid.
+     */
+    @GetMapping(value = "/relationships", params = {"after", "!limit"})
+    public ResponseEntity<CursorPage<Relationship>> getRelationshipsPageAfter(@RequestParam String after) {
+        return getRelationshipsPage(after, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Get all relationships in normalized form, referencing endpoints by ID.
+     * 
+     * @return The list of relationships.
+     */
+    @GetMapping(value = "/relationships", params = "format=normalized")
+    public ResponseEntity<List<RelationshipDto>> getNormalizedRelationships() {
+        return ResponseEntity.ok(graphDataService.getNormalizedRelationships());
+    }
+
+    /**
+     * Get a page of relationships in normalized form using keyset pagination.
+     * 
+     * @param after The cursor returned with the previous page, or absent for the first page.
+     * @param limit The maximum number of relationships to return.
+     * @return The page of relationships, or a 400 response if the cursor is invalid.
+     */
+    @GetMapping(value = "/relationships", params = {"limit", "format=normalized"})
+    public ResponseEntity<CursorPage<RelationshipDto>> getNormalizedRelationshipsPage(
+            @RequestParam(required = false) String after, @RequestParam int limit) {
+        try {
+            return ResponseEntity.ok(graphDataService.getNormalizedRelationshipsPage(after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get the page of relationships in normalized form after a cursor, with the default page size.
+     * 
+     * @param after The cursor returned with the previous page.
+     * @return The page of relationships, or a 400 response if the cursor is invalid.
+     */
+    @GetMapping(value = "/relationships", params = {"after", "!limit", "format=normalized"})
+    public ResponseEntity<CursorPage<RelationshipDto>> getNormalizedRelationshipsPageAfter(@RequestParam String after) {
+        return getNormalizedRelationshipsPage(after, DEFAULT_PAGE_SIZE);
+    }
+
     /**
      * Get a relationship by ID.
      * 
@@ -172,6 +319,24 @@ public class GraphDataController {
         }
     }
 
+    /**
+     * Create relationships in bulk from a JSON array or newline-delimited JSON body.
+     * Each row references its endpoints by {@code sourceId} and {@code targetId};
+     * rows whose endpoints do not exist are reported as errors.
+     * 
+     * @param body The request body stream.
+     * @param batchSize The number of relationships per batch, or absent for the configured default.
+     * @return The report of created IDs, errors, and per-batch timing.
+     * @throws IOException if reading the request body fails.
+     */
+    @PostMapping(value = "/relationships/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkWriteResult> createRelationshipsBulk(InputStream body,
+                                                                   @RequestParam(required = false) Integer batchSize)
+            throws IOException {
+        return ResponseEntity.ok(graphBulkService.createRelationships(body, batchSize));
+    }
+
     /**
      * Update a relationship.
      * 
@@ -227,6 +392,207 @@ public class GraphDataController {
         return ResponseEntity.ok(graphDataService.findRelationshipsByNodeId(nodeId));
     }
 
+    /**
+     * Get the IDs of the nodes directly connected to a node, from the in-memory graph projection.
+     * 
+     * @param id The ID of the node.
+     * @param direction The direction in which to follow relationships.
+     * @param type The relationship type to follow, or absent for all types.
+     * @return The neighbor IDs, or a 404 response if the node is not in the projection.
+     */
+    @GetMapping("/nodes/{id}/neighbors")
+    public ResponseEntity<List<Long>> getNeighborIds(@PathVariable Long id,
+                                                     @RequestParam(defaultValue = "BOTH") Direction direction,
+                                                     @RequestParam(required = false) String type) {
+        try {
+            return ResponseEntity.ok(graphDataService.getNeighborIds(id, direction, type));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Get the nodes within a number of hops of a node, from the in-memory graph projection.
+     * 
+     * @param id The ID of the center node.
+     * @param depth The number of hops.
+     * @param direction The direction in which relationships are followed.
+     * @param types The relationship types that may be followed, or absent for all types.
+     * @return The node and relationship IDs of the neighborhood, a 400 response if the depth is
+     *         out of range, or a 404 response if the node is not in the projection.
+     */
+    @GetMapping("/nodes/{id}/neighborhood")
+    public ResponseEntity<TraversalResult> getNeighborhood(@PathVariable Long id,
+                                                           @RequestParam(defaultValue = "1") int depth,
+                                                           @RequestParam(defaultValue = "BOTH") Direction direction,
+                                                           @RequestParam(required = false) List<String> types) {
+        try {
+            return ResponseEntity.ok(graphDataService.getNeighborhood(id, depth, direction, types));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Find a shortest path between two nodes, from the in-memory graph projection.
+     * 
+     * @param from The ID of the start node.
+     * @param to The ID of the end node.
+     * @param maxDepth The maximum path length.
+     * @param direction The direction in which relationships may be followed from start to end.
+     * @param types The relationship types that may be followed, or absent for all types.
+     * @return The path as node and relationship IDs in order, a 400 response if the maximum depth
+     *         is out of range, or a 404 response if either node is unknown or there is no such path.
+     */
+    @GetMapping("/paths")
+    public ResponseEntity<TraversalResult> findShortestPath(@RequestParam Long from, @RequestParam Long to,
+                                                            @RequestParam(defaultValue = "6") int maxDepth,
+                                                            @RequestParam(defaultValue = "BOTH") Direction direction,
+                                                            @RequestParam(required = false) List<String> types) {
+        try {
+            return graphDataService.findShortestPath(from, to, maxDepth, direction, types)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Rank nodes by PageRank, computed over the in-memory graph projection.
+     * 
+     * @param top The number of highest-ranked nodes to return.
+     * @param damping The damping factor.
+     * @param maxIterations The maximum number of iterations.
+     * @param tolerance The convergence threshold on the L1 change of the scores.
+     * @param writeBack Whether to store each node's score in its {@code pagerank} property.
+     * @return The highest-ranked nodes with iteration timings, or a 400 response if a parameter is out of range.
+     */
+    @GetMapping("/analytics/pagerank")
+    public ResponseEntity<CentralityResult> getPageRank(@RequestParam(defaultValue = "10") int top,
+                                                        @RequestParam(defaultValue = "0.85") double damping,
+                                                        @RequestParam(defaultValue = "20") int maxIterations,
+                                                        @RequestParam(defaultValue = "1e-6") double tolerance,
+                                                        @RequestParam(defaultValue = "false") boolean writeBack) {
+        try {
+            return ResponseEntity.ok(graphDataService.getPageRank(damping, maxIterations, tolerance, top, writeBack));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Rank nodes by degree centrality, computed over the in-memory graph projection.
+     * 
+     * @param top The number of highest-scoring nodes to return.
+     * @param direction The direction of the relationships counted.
+     * @param writeBack Whether to store each node's score in its {@code degree} property.
+     * @return The highest-scoring nodes.
+     */
+    @GetMapping("/analytics/degree")
+    public ResponseEntity<CentralityResult> getDegreeCentrality(@RequestParam(defaultValue = "10") int top,
+                                                                @RequestParam(defaultValue = "BOTH") Direction direction,
+                                                                @RequestParam(defaultValue = "false") boolean writeBack) {
+        return ResponseEntity.ok(graphDataService.getDegreeCentrality(direction, top, writeBack));
+    }
+
+    /**
+     * Rank nodes by approximate betweenness centrality, estimated over the in-memory graph
+     * projection from a sample of source nodes.
+     * 
+     * @param top The number of highest-scoring nodes to return.
+     * @param samples The number of source nodes to sample.
+     * @param seed The random seed.
+     * @param writeBack Whether to store each node's score in its {@code betweenness} property.
+     * @return The highest-scoring nodes, or a 400 response if the number of samples is not positive.
+     */
+    @GetMapping("/analytics/betweenness")
+    public ResponseEntity<CentralityResult> getBetweennessCentrality(@RequestParam(defaultValue = "10") int top,
+                                                                     @RequestParam(defaultValue = "32") int samples,
+                                                                     @RequestParam(defaultValue = "42") long seed,
+                                                                     @RequestParam(defaultValue = "false") boolean writeBack) {
+        try {
+            return ResponseEntity.ok(graphDataService.getBetweennessCentrality(samples, seed, top, writeBack));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get the connected components of the graph, computed over the in-memory graph projection.
+     * 
+     * @param type The kind of components.
+     * @param top The number of largest components to list.
+     * @return The component count and the largest components.
+     */
+    @GetMapping("/analytics/components")
+    public ResponseEntity<ComponentsResult> getComponents(@RequestParam(defaultValue = "WEAK") ComponentType type,
+                                                          @RequestParam(defaultValue = "10") int top) {
+        return ResponseEntity.ok(graphDataService.getComponents(type, top));
+    }
+
+    /**
+     * Get the connected component a node belongs to.
+     * 
+     * @param nodeId The ID of the node.
+     * @param type The kind of components.
+     * @return The component ID and size, or a 404 response if the node is not in the projection.
+     */
+    @GetMapping("/analytics/components/{nodeId}")
+    public ResponseEntity<Map<String, Object>> getComponentOf(@PathVariable Long nodeId,
+                                                              @RequestParam(defaultValue = "WEAK") ComponentType type) {
+        try {
+            return ResponseEntity.ok(graphDataService.getComponentOf(nodeId, type));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Get the graph statistics: node and relationship counts by type, node degree bounds and
+     * average, and totals. Served from counters, so the cost does not depend on the graph size.
+     * 
+     * @return The statistics.
+     */
+    @GetMapping("/statistics")
+    public ResponseEntity<Map<String, Object>> getStatistics() {
+        return ResponseEntity.ok(graphDataService.getStatistics());
+    }
+
+    /**
+     * Get the statistics of the entity and query result caches.
+     * 
+     * @return A map with the size, hits, misses and evictions of each cache.
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> getCacheStatistics() {
+        return ResponseEntity.ok(graphDataService.getCacheStatistics());
+    }
+
+    /**
+     * Get a summary of the in-memory graph projection.
+     * 
+     * @return A map with the projection's size, load timing and changes pending compaction.
+     */
+    @GetMapping("/projection")
+    public ResponseEntity<Map<String, Object>> getProjectionSummary() {
+        return ResponseEntity.ok(graphDataService.getProjectionSummary());
+    }
+
+    /**
+     * Reload the in-memory graph projection from Neo4j.
+     * 
+     * @return A map with the reloaded projection's size and load timing.
+     */
+    @PostMapping("/projection/refresh")
+    public ResponseEntity<Map<String, Object>> refreshProjection() {
+        return ResponseEntity.ok(graphDataService.refreshProjection());
+    }
+
     /**
      * Search relationships by type or properties.
      * 
@@ -248,6 +614,46 @@ public class GraphDataController {
         return ResponseEntity.ok(graphDataService.getVisualizationData());
     }
 
+    /**
+     * Get visualization data in normalized form: each node appears once
+     * and relationships reference their endpoints by ID. Capped at the server-side maximum
+     * number of results; use the streaming formats for the whole graph.
+     * 
+     * @return The normalized graph payload.
+     */
+    @GetMapping(value = "/visualization", params = "format=normalized")
+    public ResponseEntity<GraphPayload> getNormalizedVisualizationData() {
+        return ResponseEntity.ok(graphDataService.getNormalizedVisualizationData());
+    }
+
+    /**
+     * Stream visualization data as newline-delimited JSON.
+     * Selected when the client sends {@code Accept: application/x-ndjson}.
+     * 
+     * @return A streaming body writing one node or relationship per line.
+     */
+    @GetMapping(value = "/visualization", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamVisualizationData() {
+        StreamingResponseBody body = graphStreamService::writeVisualizationData;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Get visualization data in the compact columnar binary format.
+     * Selected when the client sends {@code Accept: application/vnd.graphapp.columnar}.
+     * 
+     * @return A streaming body writing the encoded graph.
+     */
+    @GetMapping(value = "/visualization", produces = ColumnarGraphEncoder.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> getColumnarVisualizationData() {
+        StreamingResponseBody body = graphStreamService::writeColumnarVisualizationData;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ColumnarGraphEncoder.MEDIA_TYPE))
+                .body(body);
+    }
+
     /**
      * Search for nodes and relationships based on a query.
      * 
@@ -258,4 +664,15 @@ public class GraphDataController {
     public ResponseEntity<Map<String, Object>> searchGraph(@RequestParam String query) {
         return ResponseEntity.ok(graphDataService.searchGraph(query));
     }
+
+    /**
+     * Search for nodes and relationships, returning a normalized payload.
+     * 
+     * @param query The search query.
+     * @return The normalized graph payload.
+     */
+    @GetMapping(value = "/search", params = "format=normalized")
+    public ResponseEntity<GraphPayload> searchGraphNormalized(@RequestParam String query) {
+        return ResponseEntity.ok(graphDataService.searchGraphNormalized(query));
+    }
 }
\ No newline at end of file
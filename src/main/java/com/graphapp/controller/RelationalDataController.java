@@ -1,13 +1,21 @@
 package com.graphapp.controller;
 
+import com.graphapp.dto.BulkImportResult;
+import com.graphapp.dto.CursorPage;
+import com.graphapp.dto.ProjectSummary;
+import com.graphapp.dto.UserSummary;
 import com.graphapp.model.relational.Project;
 import com.graphapp.model.relational.User;
+import com.graphapp.service.RelationalBulkService;
 import com.graphapp.service.RelationalDataService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -21,15 +29,19 @@ import java.util.Optional;
 public class RelationalDataController {
 
     private final RelationalDataService relationalDataService;
+    private final RelationalBulkService relationalBulkService;
 
     /**
      * Constructor for RelationalDataController.
      * 
      * @param relationalDataService The relational data service.
+     * @param relationalBulkService The relational bulk import service.
      */
     @Autowired
-    public RelationalDataController(RelationalDataService relationalDataService) {
+    public RelationalDataController(RelationalDataService relationalDataService,
+                                    RelationalBulkService relationalBulkService) {
         this.relationalDataService = relationalDataService;
+        this.relationalBulkService = relationalBulkService;
     }
 
     /**
@@ -42,6 +54,24 @@ public class RelationalDataController {
         return ResponseEntity.ok(relationalDataService.getAllUsers());
     }
 
+    /**
+     * Get a page of user summaries using keyset pagination.
+     * Each summary has the user's columns and number of projects, selected in one query.
+     * 
+     * @param after The cursor returned with the previous page, or absent for the first page.
+     * @param limit The maximum number of users to return.
+     * @return The page of user summaries, or a 400 response if the cursor is invalid.
+     */
+    @GetMapping("/users/summaries")
+    public ResponseEntity<CursorPage<UserSummary>> getUserSummariesPage(@RequestParam(required = false) String after,
+                                                                        @RequestParam(defaultValue = "100") int limit) {
+        try {
+            return ResponseEntity.ok(relationalDataService.getUserSummariesPage(after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Get a user by ID.
      * 
@@ -71,6 +101,23 @@ public class RelationalDataController {
         }
     }
 
+    /**
+     * Import users in bulk from a JSON array or newline-delimited JSON body.
+     * Users whose username or email already exists are skipped.
+     * 
+     * @param body The request body stream.
+     * @param batchSize The number of users per batch, or absent for the configured default.
+     * @return The report of inserted, skipped, and rejected rows.
+     * @throws IOException if reading the request body fails.
+     */
+    @PostMapping(value = "/users/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkImportResult> importUsers(InputStream body,
+                                                        @RequestParam(required = false) Integer batchSize)
+            throws IOException {
+        return ResponseEntity.ok(relationalBulkService.importUsers(body, batchSize));
+    }
+
     /**
      * Update a user.
      * 
@@ -151,6 +198,24 @@ public class RelationalDataController {
         return ResponseEntity.ok(relationalDataService.getAllProjects());
     }
 
+    /**
+     * Get a page of project summaries using keyset pagination.
+     * Each summary has the project's columns and its user's ID and username, selected in one query.
+     * 
+     * @param after The cursor returned with the previous page, or absent for the first page.
+     * @param limit The maximum number of projects to return.
+     * @return The page of project summaries, or a 400 response if the cursor is invalid.
+     */
+    @GetMapping("/projects/summaries")
+    public ResponseEntity<CursorPage<ProjectSummary>> getProjectSummariesPage(@RequestParam(required = false) String after,
+                                                                              @RequestParam(defaultValue = "100") int limit) {
+        try {
+            return ResponseEntity.ok(relationalDataService.getProjectSummariesPage(after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Get a project by ID.
      * 
@@ -180,6 +245,23 @@ public class RelationalDataController {
         }
     }
 
+    /**
+     * Import projects in bulk from a JSON array or newline-delimited JSON body.
+     * Projects whose owner does not exist are rejected.
+     * 
+     * @param body The request body stream.
+     * @param batchSize The number of projects per batch, or absent for the configured default.
+     * @return The report of inserted and rejected rows.
+     * @throws IOException if reading the request body fails.
+     */
+    @PostMapping(value = "/projects/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkImportResult> importProjects(InputStream body,
+                                                           @RequestParam(required = false) Integer batchSize)
+            throws IOException {
+        return ResponseEntity.ok(relationalBulkService.importProjects(body, batchSize));
+    }
+
     /**
      * Update a project.
      * 
@@ -236,14 +318,18 @@ public class RelationalDataController {
     }
 
     /**
-     * Get recent projects up to the given limit.
+     * Get the most recently updated projects up to the given limit.
      * 
      * @param limit The maximum number of projects to return.
-     * @return The list of projects.
+     * @return The list of projects, most recent first, or a 400 response if the limit is not positive.
      */
     @GetMapping("/projects/recent")
     public ResponseEntity<List<Project>> getRecentProjects(@RequestParam(defaultValue = "10") int limit) {
-        return ResponseEntity.ok(relationalDataService.getRecentProjects(limit));
+        try {
+            return ResponseEntity.ok(relationalDataService.getRecentProjects(limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -255,4 +341,14 @@ public class RelationalDataController {
     public ResponseEntity<Map<String, Object>> getStatistics() {
         return ResponseEntity.ok(relationalDataService.getStatistics());
     }
+
+    /**
+     * Get the statistics of the relational caches.
+     * 
+     * @return A map with the statistics of each cache.
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> getCacheStatistics() {
+        return ResponseEntity.ok(relationalDataService.getCacheStatistics());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,144 @@
+package com.graphapp.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Report of a bulk import into the relational store: how many rows were inserted,
+ * skipped as duplicates, or rejected, with the reason for each rejected row and per-batch timing.
+ */
+public class BulkImportResult {
+
+    private long inserted;
+    private long skipped;
+    private final List<BulkWriteResult.RowError> errors = new ArrayList<>();
+    private final List<BatchTiming> batches = new ArrayList<>();
+    private long totalMillis;
+
+    /**
+     * Record the outcome of a batch along with its timing.
+     *
+     * @param size The number of rows in the batch.
+     * @param inserted The number of rows inserted.
+     * @param skipped The number of rows skipped because they conflicted with existing rows.
+     * @param millis The time taken to write the batch, in milliseconds.
+     */
+    public void addBatch(int size, int inserted, int skipped, long millis) {
+        this.inserted += inserted;
+        this.skipped += skipped;
+        batches.add(new BatchTiming(batches.size(), size, inserted, skipped, millis));
+    }
+
+    /**
+     * Record a row that could not be written.
+     *
+     * @param index The zero-based index of the row in the input.
+     * @param message The reason the row was rejected.
+     */
+    public void addError(long index, String message) {
+        errors.add(new BulkWriteResult.RowError(index, message));
+    }
+
+    /**
+     * Get the number of rows inserted.
+     *
+     * @return The count.
+     */
+    public long getInserted() {
+        return inserted;
+    }
+
+    /**
+     * Get the number of rows skipped because they conflicted with existing rows.
+     *
+     * @return The count.
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Get the number of rows rejected.
+     *
+     * @return The count.
+     */
+    public long getFailed() {
+        return errors.size();
+    }
+
+    /**
+     * Get the rows that could not be written.
+     *
+     * @return The list of errors.
+     */
+    public List<BulkWriteResult.RowError> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Get the timing of each batch.
+     *
+     * @return The list of batch timings.
+     */
+    public List<BatchTiming> getBatches() {
+        return batches;
+    }
+
+    /**
+     * Get the total time taken, in milliseconds.
+     *
+     * @return The total time.
+     */
+    public long getTotalMillis() {
+        return totalMillis;
+    }
+
+    /**
+     * Set the total time taken, in milliseconds.
+     *
+     * @param totalMillis The total time.
+     */
+    public void setTotalMillis(long totalMillis) {
+        this.totalMillis = totalMillis;
+    }
+
+    /**
+     * Timing of a single batch.
+     */
+    public static class BatchTiming {
+
+        private final int batch;
+        private final int rows;
+        private final int inserted;
+        private final int skipped;
+        private final long millis;
+
+        BatchTiming(int batch, int rows, int inserted, int skipped, long millis) {
+            this.batch = batch;
+            this.rows = rows;
+            this.inserted = inserted;
+            this.skipped = skipped;
+            this.millis = millis;
+        }
+
+        public int getBatch() {
+            return batch;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public int getInserted() {
+            return inserted;
+        }
+
+        public int getSkipped() {
+            return skipped;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+    }
+}
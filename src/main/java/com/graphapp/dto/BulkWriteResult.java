@@ -0,0 +1,147 @@
+package com.graphapp.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Report of a bulk write: the IDs created, the rows that failed, and per-batch timing.
+ */
+public class BulkWriteResult {
+
+    private final List<Long> createdIds = new ArrayList<>();
+    private final List<RowError> errors = new ArrayList<>();
+    private final List<BatchTiming> batches = new ArrayList<>();
+    private long totalMillis;
+
+    /**
+     * Record the IDs created by a batch along with its timing.
+     *
+     * @param ids The IDs created by the batch.
+     * @param size The number of rows in the batch.
+     * @param millis The time taken to write the batch, in milliseconds.
+     */
+    public void addBatch(List<Long> ids, int size, long millis) {
+        createdIds.addAll(ids);
+        batches.add(new BatchTiming(batches.size(), size, ids.size(), millis));
+    }
+
+    /**
+     * Record a row that could not be written.
+     *
+     * @param index The zero-based index of the row in the input.
+     * @param message The reason the row was rejected.
+     */
+    public void addError(long index, String message) {
+        errors.add(new RowError(index, message));
+    }
+
+    /**
+     * Get the IDs created, in input order.
+     *
+     * @return The list of IDs.
+     */
+    public List<Long> getCreatedIds() {
+        return createdIds;
+    }
+
+    /**
+     * Get the number of entities created.
+     *
+     * @return The count.
+     */
+    public int getTotalCreated() {
+        return createdIds.size();
+    }
+
+    /**
+     * Get the rows that could not be written.
+     *
+     * @return The list of errors.
+     */
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Get the timing of each batch.
+     *
+     * @return The list of batch timings.
+     */
+    public List<BatchTiming> getBatches() {
+        return batches;
+    }
+
+    /**
+     * Get the total time taken, in milliseconds.
+     *
+     * @return The total time.
+     */
+    public long getTotalMillis() {
+        return totalMillis;
+    }
+
+    /**
+     * Set the total time taken, in milliseconds.
+     *
+     * @param totalMillis The total time.
+     */
+    public void setTotalMillis(long totalMillis) {
+        this.totalMillis = totalMillis;
+    }
+
+    /**
+     * A row that could not be written.
+     */
+    public static class RowError {
+
+        private final long index;
+        private final String message;
+
+        RowError(long index, String message) {
+            this.index = index;
+            this.message = message;
+        }
+
+        public long getIndex() {
+            return index;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    /**
+     * Timing of a single batch.
+     */
+    public static class BatchTiming {
+
+        private final int batch;
+        private final int rows;
+        private final int created;
+        private final long millis;
+
+        BatchTiming(int batch, int rows, int created, long millis) {
+            this.batch = batch;
+            this.rows = rows;
+            this.created = created;
+            this.millis = millis;
+        }
+
+        public int getBatch() {
+            return batch;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public int getCreated() {
+            return created;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.graphapp.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a centrality computation over the in-memory graph: the highest-scoring nodes,
+ * whether the run converged, and its timing.
+ */
+public class CentralityResult {
+
+    private final String algorithm;
+    private final int nodeCount;
+    private final int relationshipCount;
+    private final List<NodeScore> scores = new ArrayList<>();
+    private final List<Double> iterationMillis = new ArrayList<>();
+    private boolean converged = true;
+    private long written;
+    private double totalMillis;
+
+    /**
+     * Constructor with the algorithm and graph size.
+     *
+     * @param algorithm The name of the algorithm.
+     * @param nodeCount The number of nodes scored.
+     * @param relationshipCount The number of relationships in the graph.
+     */
+    public CentralityResult(String algorithm, int nodeCount, int relationshipCount) {
+        this.algorithm = algorithm;
+        this.nodeCount = nodeCount;
+        this.relationshipCount = relationshipCount;
+    }
+
+    /**
+     * Record the score of a node; nodes are added highest score first.
+     *
+     * @param nodeId The ID of the node.
+     * @param score The score.
+     */
+    public void addScore(long nodeId, double score) {
+        scores.add(new NodeScore(nodeId, score));
+    }
+
+    /**
+     * Record the time taken by one iteration.
+     *
+     * @param nanos The time taken, in nanoseconds.
+     */
+    public void addIteration(long nanos) {
+        iterationMillis.add(nanos / 1_000L / 1_000.0);
+    }
+
+    /**
+     * Get the name of the algorithm.
+     *
+     * @return The algorithm.
+     */
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Get the number of nodes scored.
+     *
+     * @return The node count.
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Get the number of relationships in the graph.
+     *
+     * @return The relationship count.
+     */
+    public int getRelationshipCount() {
+        return relationshipCount;
+    }
+
+    /**
+     * Get the highest-scoring nodes, highest first.
+     *
+     * @return The list of scores.
+     */
+    public List<NodeScore> getScores() {
+        return scores;
+    }
+
+    /**
+     * Get the number of iterations run.
+     *
+     * @return The iteration count.
+     */
+    public int getIterations() {
+        return iterationMillis.size();
+    }
+
+    /**
+     * Get the time taken by each iteration, in milliseconds.
+     *
+     * @return The list of iteration times.
+     */
+    public List<Double> getIterationMillis() {
+        return iterationMillis;
+    }
+
+    /**
+     * Check whether the run met its convergence threshold.
+     *
+     * @return True if converged, or if the algorithm is not iterative.
+     */
+    public boolean isConverged() {
+        return converged;
+    }
+
+    /**
+     * Set whether the run met its convergence threshold.
+     *
+     * @param converged True if converged.
+     */
+    public void setConverged(boolean converged) {
+        this.converged = converged;
+    }
+
+    /**
+     * Get the number of node scores written back to Neo4j.
+     *
+     * @return The count, zero if scores were not written back.
+     */
+    public long getWritten() {
+        return written;
+    }
+
+    /**
+     * Set the number of node scores written back to Neo4j.
+     *
+     * @param written The count.
+     */
+    public void setWritten(long written) {
+        this.written = written;
+    }
+
+    /**
+     * Get the total time taken, in milliseconds.
+     *
+     * @return The total time.
+     */
+    public double getTotalMillis() {
+        return totalMillis;
+    }
+
+    /**
+     * Set the total time taken.
+     *
+     * @param nanos The total time, in nanoseconds.
+     */
+    public void setTotalNanos(long nanos) {
+        this.totalMillis = nanos / 1_000L / 1_000.0;
+    }
+
+    /**
+     * Score of a single node.
+     */
+    public static class NodeScore {
+
+        private final long nodeId;
+        private final double score;
+
+        NodeScore(long nodeId, double score) {
+            this.nodeId = nodeId;
+            this.score = score;
+        }
+
+        public long getNodeId() {
+            return nodeId;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+}
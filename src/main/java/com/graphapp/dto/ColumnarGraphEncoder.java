@@ -0,0 +1,261 @@
+package com.graphapp.dto;
+
+import com.graphapp.util.IntArrayList;
+import com.graphapp.util.LongArrayList;
+import com.graphapp.util.LongIntHashMap;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encoder for the compact columnar binary graph format.
+ * <p>
+ * Nodes and relationships are appended one at a time (nodes first) and accumulated
+ * in primitive columns; strings are dictionary-encoded into a shared table.
+ * All values are little-endian and every array starts on an 8-byte boundary,
+ * so browsers can view the columns directly as typed arrays without copying.
+ * <pre>
+ * int32   magic ("GRPH"), int32 version
+ * int32   stringCount, int32 stringBytesLength
+ * int32[stringCount + 1]  string offsets into the UTF-8 blob
+ * byte[stringBytesLength] UTF-8 blob, zero-padded to 8 bytes
+ * int32   nodeCount, int32 relationshipCount, int32 nodeLabelsLength, int32 reserved
+ * int64[nodeCount]          node IDs
+ * int64[relationshipCount]  relationship IDs
+ * int32[nodeCount]          node type codes (-1 for null)
+ * int32[nodeCount]          node label codes (-1 for null)
+ * int32[nodeCount + 1]      offsets into the node labels codes
+ * int32[nodeLabelsLength]   node labels codes
+ * int32[relationshipCount]  relationship type codes (-1 for null)
+ * int32[relationshipCount]  relationship source node indexes
+ * int32[relationshipCount]  relationship target node indexes
+ * (zero-padded to 8 bytes after each int32 section)
+ * </pre>
+ * Relationships whose endpoints were not added as nodes are skipped.
+ */
+public class ColumnarGraphEncoder {
+
+    /**
+     * Media type of the encoded payload.
+     */
+    public static final String MEDIA_TYPE = "application/vnd.graphapp.columnar";
+
+    private static final int MAGIC = 0x48505247; // "GRPH" when read little-endian
+    private static final int VERSION = 1;
+    private static final int NULL_CODE = -1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Map<String, Integer> stringCodes = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+
+    private final LongIntHashMap nodeIndexes = new LongIntHashMap(1024);
+    private final LongArrayList nodeIds = new LongArrayList(1024);
+    private final IntArrayList nodeTypes = new IntArrayList(1024);
+    private final IntArrayList nodeLabels = new IntArrayList(1024);
+    private final IntArrayList nodeLabelsOffsets = new IntArrayList(1024);
+    private final IntArrayList nodeLabelsCodes = new IntArrayList(1024);
+
+    private final LongArrayList relationshipIds = new LongArrayList(1024);
+    private final IntArrayList relationshipTypes = new IntArrayList(1024);
+    private final IntArrayList relationshipSources = new IntArrayList(1024);
+    private final IntArrayList relationshipTargets = new IntArrayList(1024);
+
+    /**
+     * Default constructor.
+     */
+    public ColumnarGraphEncoder() {
+        nodeLabelsOffsets.add(0);
+    }
+
+    /**
+     * Append a node.
+     *
+     * @param id The ID of the node.
+     * @param type The type of the node, may be null.
+     * @param label The label of the node, may be null.
+     * @param labels The list of labels, may be null.
+     */
+    public void addNode(long id, String type, String label, List<String> labels) {
+        if (nodeIndexes.containsKey(id)) {
+            return;
+        }
+        nodeIndexes.put(id, nodeIds.size());
+        nodeIds.add(id);
+        nodeTypes.add(code(type));
+        nodeLabels.add(code(label));
+        if (labels != null) {
+            for (String value : labels) {
+                nodeLabelsCodes.add(code(value));
+            }
+        }
+        nodeLabelsOffsets.add(nodeLabelsCodes.size());
+    }
+
+    /**
+     * Append a relationship between two previously added nodes.
+     *
+     * @param id The ID of the relationship.
+     * @param type The type of the relationship, may be null.
+     * @param sourceId The ID of the source node.
+     * @param targetId The ID of the target node.
+     * @return True if the relationship was added, false if an endpoint is unknown.
+     */
+    public boolean addRelationship(long id, String type, long sourceId, long targetId) {
+        int source = nodeIndexes.get(sourceId);
+        int target = nodeIndexes.get(targetId);
+        if (source == LongIntHashMap.MISSING || target == LongIntHashMap.MISSING) {
+            return false;
+        }
+        relationshipIds.add(id);
+        relationshipTypes.add(code(type));
+        relationshipSources.add(source);
+        relationshipTargets.add(target);
+        return true;
+    }
+
+    /**
+     * Write the encoded graph.
+     *
+     * @param out The output stream to write to.
+     * @throws IOException if writing fails.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        Writer writer = new Writer(out);
+
+        writer.putInt(MAGIC);
+        writer.putInt(VERSION);
+
+        byte[][] encoded = new byte[strings.size()][];
+        int stringBytesLength = 0;
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = strings.get(i).getBytes(StandardCharsets.UTF_8);
+            stringBytesLength += encoded[i].length;
+        }
+        writer.putInt(encoded.length);
+        writer.putInt(stringBytesLength);
+        int offset = 0;
+        writer.putInt(offset);
+        for (byte[] bytes : encoded) {
+            offset += bytes.length;
+            writer.putInt(offset);
+        }
+        writer.align();
+        for (byte[] bytes : encoded) {
+            writer.putBytes(bytes);
+        }
+        writer.align();
+
+        writer.putInt(nodeIds.size());
+        writer.putInt(relationshipIds.size());
+        writer.putInt(nodeLabelsCodes.size());
+        writer.putInt(0);
+
+        writer.putLongs(nodeIds);
+        writer.putLongs(relationshipIds);
+        writer.putInts(nodeTypes);
+        writer.putInts(nodeLabels);
+        writer.putInts(nodeLabelsOffsets);
+        writer.putInts(nodeLabelsCodes);
+        writer.putInts(relationshipTypes);
+        writer.putInts(relationshipSources);
+        writer.putInts(relationshipTargets);
+
+        writer.flush();
+    }
+
+    /**
+     * Get the dictionary code of a string, adding it to the table if new.
+     *
+     * @param value The string, may be null.
+     * @return The code, or -1 for null.
+     */
+    private int code(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Integer existing = stringCodes.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        int code = strings.size();
+        strings.add(value);
+        stringCodes.put(value, code);
+        return code;
+    }
+
+    /**
+     * Buffered little-endian writer that tracks the absolute position for alignment.
+     */
+    private static class Writer {
+
+        private final OutputStream out;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private long position;
+
+        Writer(OutputStream out) {
+            this.out = out;
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+            position += Integer.BYTES;
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+            position += Long.BYTES;
+        }
+
+        void putInts(IntArrayList values) throws IOException {
+            for (int i = 0, n = values.size(); i < n; i++) {
+                putInt(values.get(i));
+            }
+            align();
+        }
+
+        void putLongs(LongArrayList values) throws IOException {
+            for (int i = 0, n = values.size(); i < n; i++) {
+                putLong(values.get(i));
+            }
+        }
+
+        void putBytes(byte[] bytes) throws IOException {
+            drain();
+            out.write(bytes);
+            position += bytes.length;
+        }
+
+        void align() throws IOException {
+            while (position % Long.BYTES != 0) {
+                ensure(1);
+                buffer.put((byte) 0);
+                position++;
+            }
+        }
+
+        void flush() throws IOException {
+            drain();
+            out.flush();
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                drain();
+            }
+        }
+
+        private void drain() throws IOException {
+            out.write(buffer.array(), 0, buffer.position());
+            buffer.clear();
+        }
+    }
+}
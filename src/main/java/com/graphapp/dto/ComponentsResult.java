@@ -0,0 +1,122 @@
+package com.graphapp.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a connected components computation over the in-memory graph: the number of
+ * components, the largest ones, and the time taken. Components are identified by the
+ * ID of a representative member node.
+ */
+public class ComponentsResult {
+
+    private final String type;
+    private final int nodeCount;
+    private final int componentCount;
+    private final int singletonCount;
+    private final List<ComponentSize> components = new ArrayList<>();
+    private final double totalMillis;
+
+    /**
+     * Constructor with the summary fields.
+     *
+     * @param type The kind of components.
+     * @param nodeCount The number of nodes.
+     * @param componentCount The number of components.
+     * @param singletonCount The number of components with a single node.
+     * @param totalNanos The time taken to compute the components, in nanoseconds.
+     */
+    public ComponentsResult(String type, int nodeCount, int componentCount, int singletonCount, long totalNanos) {
+        this.type = type;
+        this.nodeCount = nodeCount;
+        this.componentCount = componentCount;
+        this.singletonCount = singletonCount;
+        this.totalMillis = totalNanos / 1_000L / 1_000.0;
+    }
+
+    /**
+     * Record a component; components are added largest first.
+     *
+     * @param componentId The ID of the component's representative node.
+     * @param size The number of nodes in the component.
+     */
+    public void addComponent(long componentId, int size) {
+        components.add(new ComponentSize(componentId, size));
+    }
+
+    /**
+     * Get the kind of components.
+     *
+     * @return The type.
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Get the number of nodes.
+     *
+     * @return The node count.
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Get the number of components.
+     *
+     * @return The component count.
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Get the number of components with a single node.
+     *
+     * @return The singleton count.
+     */
+    public int getSingletonCount() {
+        return singletonCount;
+    }
+
+    /**
+     * Get the largest components, largest first.
+     *
+     * @return The list of components.
+     */
+    public List<ComponentSize> getComponents() {
+        return components;
+    }
+
+    /**
+     * Get the time taken to compute the components, in milliseconds.
+     *
+     * @return The total time.
+     */
+    public double getTotalMillis() {
+        return totalMillis;
+    }
+
+    /**
+     * Size of a single component.
+     */
+    public static class ComponentSize {
+
+        private final long componentId;
+        private final int size;
+
+        ComponentSize(long componentId, int size) {
+            this.componentId = componentId;
+            this.size = size;
+        }
+
+        public long getComponentId() {
+            return componentId;
+        }
+
+        public int getSize() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.graphapp.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * A page of results from a keyset (cursor) paginated query.
+ * The cursor is an opaque token; clients pass the {@code next} value
+ * back as the {@code after} parameter to fetch the following page.
+ *
+ * @param <T> The type of the items in the page.
+ */
+public class CursorPage<T> {
+
+    private final List<T> items;
+    private final String next;
+
+    /**
+     * Constructor with all fields.
+     *
+     * @param items The items in the page.
+     * @param next The cursor for the next page, or null if this is the last page.
+     */
+    public CursorPage(List<T> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    /**
+     * Get the items in the page.
+     *
+     * @return The list of items.
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Get the cursor for the next page.
+     *
+     * @return The cursor, or null if this is the last page.
+     */
+    public String getNext() {
+        return next;
+    }
+
+    /**
+     * Encode an ID into an opaque cursor token.
+     *
+     * @param scope The scope of the cursor (e.g. "node"), so tokens cannot be mixed between listings.
+     * @param id The ID of the last item on the page.
+     * @return The cursor token.
+     */
+    public static String encodeCursor(String scope, long id) {
+        String raw = scope + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode an opaque cursor token back into an ID.
+     *
+     * @param scope The expected scope of the cursor.
+     * @param cursor The cursor token.
+     * @return The ID encoded in the cursor.
+     * @throws IllegalArgumentException if the cursor is malformed or belongs to another scope.
+     */
+    public static long decodeCursor(String scope, String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String prefix = scope + ":";
+            if (!raw.startsWith(prefix)) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return Long.parseLong(raw.substring(prefix.length()));
+        } catch (IllegalArgumentException e) {
+            // Covers both Base64 decoding errors and NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
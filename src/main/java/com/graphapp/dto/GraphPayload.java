@@ -0,0 +1,86 @@
+package com.graphapp.dto;
+
+import com.graphapp.model.graph.GraphNode;
+import com.graphapp.model.graph.Relationship;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Normalized graph response: every node appears exactly once in {@code nodes},
+ * and relationships reference their endpoints by ID.
+ */
+public class GraphPayload {
+
+    private final List<NodeDto> nodes;
+    private final List<RelationshipDto> relationships;
+
+    /**
+     * Constructor with all fields.
+     *
+     * @param nodes The list of nodes.
+     * @param relationships The list of relationships.
+     */
+    public GraphPayload(List<NodeDto> nodes, List<RelationshipDto> relationships) {
+        this.nodes = nodes;
+        this.relationships = relationships;
+    }
+
+    /**
+     * Build a normalized payload from node and relationship entities.
+     * Endpoints of the relationships that are not already among the given nodes
+     * are added to the node list, so clients can always resolve {@code sourceId}/{@code targetId}.
+     *
+     * @param nodes The node entities.
+     * @param relationships The relationship entities.
+     * @return The normalized payload.
+     */
+    public static GraphPayload of(Collection<GraphNode> nodes, Collection<Relationship> relationships) {
+        Map<Long, NodeDto> nodesById = new LinkedHashMap<>();
+        for (GraphNode node : nodes) {
+            nodesById.putIfAbsent(node.getId(), NodeDto.from(node));
+        }
+
+        List<RelationshipDto> relationshipDtos = new ArrayList<>(relationships.size());
+        for (Relationship relationship : relationships) {
+            addEndpoint(nodesById, relationship.getSource());
+            addEndpoint(nodesById, relationship.getTarget());
+            relationshipDtos.add(RelationshipDto.from(relationship));
+        }
+
+        return new GraphPayload(new ArrayList<>(nodesById.values()), relationshipDtos);
+    }
+
+    /**
+     * Add a relationship endpoint to the node map if it is not already present.
+     *
+     * @param nodesById The nodes collected so far, keyed by ID.
+     * @param node The endpoint node, may be null.
+     */
+    private static void addEndpoint(Map<Long, NodeDto> nodesById, GraphNode node) {
+        if (node != null && node.getId() != null && !nodesById.containsKey(node.getId())) {
+            nodesById.put(node.getId(), NodeDto.from(node));
+        }
+    }
+
+    /**
+     * Get the list of nodes.
+     *
+     * @return The list of nodes.
+     */
+    public List<NodeDto> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Get the list of relationships.
+     *
+     * @return The list of relationships.
+     */
+    public List<RelationshipDto> getRelationships() {
+        return relationships;
+    }
+}
@@ -0,0 +1,141 @@
+package com.graphapp.dto;
+
+import com.graphapp.model.graph.GraphNode;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flat representation of a graph node for API responses.
+ */
+public class NodeDto {
+
+    private Long id;
+    private String label;
+    private String type;
+    private List<String> labels;
+    private Map<String, Object> properties;
+
+    /**
+     * Default constructor.
+     */
+    public NodeDto() {
+    }
+
+    /**
+     * Constructor with all fields.
+     *
+     * @param id The ID of the node.
+     * @param label The label of the node.
+     * @param type The type of the node.
+     * @param labels The list of labels.
+     * @param properties The map of properties.
+     */
+    public NodeDto(Long id, String label, String type, List<String> labels, Map<String, Object> properties) {
+        this.id = id;
+        this.label = label;
+        this.type = type;
+        this.labels = labels;
+        this.properties = properties;
+    }
+
+    /**
+     * Create a DTO from a node entity.
+     *
+     * @param node The node entity.
+     * @return The DTO.
+     */
+    public static NodeDto from(GraphNode node) {
+        return new NodeDto(node.getId(), node.getLabel(), node.getType(), node.getLabels(), node.getProperties());
+    }
+
+    /**
+     * Get the ID of the node.
+     *
+     * @return The ID.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Set the ID of the node.
+     *
+     * @param id The ID.
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Get the label of the node.
+     *
+     * @return The label.
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Set the label of the node.
+     *
+     * @param label The label.
+     */
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Get the type of the node.
+     *
+     * @return The type.
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Set the type of the node.
+     *
+     * @param type The type.
+     */
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    /**
+     * Get the list of labels.
+     *
+     * @return The list of labels.
+     */
+    public List<String> getLabels() {
+        return labels;
+    }
+
+    /**
+     * Set the list of labels.
+     *
+     * @param labels The list of labels.
+     */
+    public void setLabels(List<String> labels) {
+        this.labels = labels;
+    }
+
+    /**
+     * Get the map of properties.
+     *
+     * @return The map of properties.
+     */
+    public Map<String, Object> getProperties() {
+        return properties;
+    }
+
+    /**
+     * Set the map of properties.
+     *
+     * @param properties The map of properties.
+     */
+    public void setProperties(Map<String, Object> properties) {
+        this.properties = properties;
+    }
+}
@@ -0,0 +1,173 @@
+package com.graphapp.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a project for list responses.
+ * The user is referenced by ID and username rather than embedded, and the row is selected
+ * directly into this class, so listing projects builds no managed entities.
+ */
+public class ProjectSummary {
+
+    private Long id;
+    private String name;
+    private String description;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Long userId;
+    private String username;
+
+    /**
+     * Default constructor.
+     */
+    public ProjectSummary() {
+    }
+
+    /**
+     * Constructor with all fields, used by the projection query.
+     *
+     * @param id The ID of the project.
+     * @param name The name of the project.
+     * @param description The description of the project.
+     * @param createdAt The creation time of the project.
+     * @param updatedAt The last update time of the project.
+     * @param userId The ID of the project's user.
+     * @param username The username of the project's user, or null if it has none.
+     */
+    public ProjectSummary(Long id, String name, String description, LocalDateTime createdAt,
+                          LocalDateTime updatedAt, Long userId, String username) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.userId = userId;
+        this.username = username;
+    }
+
+    /**
+     * Get the ID of the project.
+     *
+     * @return The ID of the project.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Set the ID of the project.
+     *
+     * @param id The ID of the project.
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Get the name of the project.
+     *
+     * @return The name of the project.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Set the name of the project.
+     *
+     * @param name The name of the project.
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get the description of the project.
+     *
+     * @return The description of the project.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Set the description of the project.
+     *
+     * @param description The description of the project.
+     */
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Get the creation time of the project.
+     *
+     * @return The creation time of the project.
+     */
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Set the creation time of the project.
+     *
+     * @param createdAt The creation time of the project.
+     */
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Get the last update time of the project.
+     *
+     * @return The last update time of the project.
+     */
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Set the last update time of the project.
+     *
+     * @param updatedAt The last update time of the project.
+     */
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Get the ID of the project's user.
+     *
+     * @return The ID of the project's user.
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Set the ID of the project's user.
+     *
+     * @param userId The ID of the project's user.
+     */
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Get the username of the project's user.
+     *
+     * @return The username of the project's user.
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Set the username of the project's user.
+     *
+     * @param username The username of the project's user.
+     */
+    public void setUsername(String username) {
+        this.username = username;
+    }
+}
@@ -0,0 +1,146 @@
+package com.graphapp.dto;
+
+import com.graphapp.model.graph.Relationship;
+
+import java.util.Map;
+
+/**
+ * Flat representation of a graph relationship for API responses.
+ * The source and target nodes are referenced by ID rather than embedded.
+ */
+public class RelationshipDto {
+
+    private Long id;
+    private String type;
+    private Long sourceId;
+    private Long targetId;
+    private Map<String, Object> properties;
+
+    /**
+     * Default constructor.
+     */
+    public RelationshipDto() {
+    }
+
+    /**
+     * Constructor with all fields.
+     *
+     * @param id The ID of the relationship.
+     * @param type The type of the relationship.
+     * @param sourceId The ID of the source node.
+     * @param targetId The ID of the target node.
+     * @param properties The map of properties.
+     */
+    public RelationshipDto(Long id, String type, Long sourceId, Long targetId, Map<String, Object> properties) {
+        this.id = id;
+        this.type = type;
+        this.sourceId = sourceId;
+        this.targetId = targetId;
+        this.properties = properties;
+    }
+
+    /**
+     * Create a DTO from a relationship entity.
+     *
+     * @param relationship The relationship entity.
+     * @return The DTO.
+     */
+    public static RelationshipDto from(Relationship relationship) {
+        return new RelationshipDto(
+                relationship.getId(),
+                relationship.getType(),
+                relationship.getSource() != null ? relationship.getSource().getId() : null,
+                relationship.getTarget() != null ? relationship.getTarget().getId() : null,
+                relationship.getProperties());
+    }
+
+    /**
+     * Get the ID of the relationship.
+     *
+     * @return The ID.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Set the ID of the relationship.
+     *
+     * @param id The ID.
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Get the type of the relationship.
+     *
+     * @return The type.
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Set the type of the relationship.
+     *
+     * @param type The type.
+     */
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    /**
+     * Get the ID of the source node.
+     *
+     * @return The source node ID.
+     */
+    public Long getSourceId() {
+        return sourceId;
+    }
+
+    /**
+     * Set the ID of the source node.
+     *
+     * @param sourceId The source node ID.
+     */
+    public void setSourceId(Long sourceId) {
+        this.sourceId = sourceId;
+    }
+
+    /**
+     * Get the ID of the target node.
+     *
+     * @return The target node ID.
+     */
+    public Long getTargetId() {
+        return targetId;
+    }
+
+    /**
+     * Set the ID of the target node.
+     *
+     * @param targetId The target node ID.
+     */
+    public void setTargetId(Long targetId) {
+        this.targetId = targetId;
+    }
+
+    /**
+     * Get the map of properties.
+     *
+     * @return The map of properties.
+     */
+    public Map<String, Object> getProperties() {
+        return properties;
+    }
+
+    /**
+     * Set the map of properties.
+     *
+     * @param properties The map of properties.
+     */
+    public void setProperties(Map<String, Object> properties) {
+        this.properties = properties;
+    }
+}
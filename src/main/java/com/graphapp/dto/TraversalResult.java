@@ -0,0 +1,65 @@
+package com.graphapp.dto;
+
+/**
+ * Result of a traversal over the in-memory graph, with nodes and relationships referenced by ID.
+ * For a path, both lists are in path order and relationship {@code i} connects nodes {@code i}
+ * and {@code i + 1}. For a neighborhood, nodes are in breadth-first order.
+ */
+public class TraversalResult {
+
+    private final long[] nodeIds;
+    private final long[] relationshipIds;
+    private final int depth;
+    private final boolean truncated;
+
+    /**
+     * Constructor with all fields.
+     *
+     * @param nodeIds The IDs of the nodes.
+     * @param relationshipIds The IDs of the relationships.
+     * @param depth The length of the path, or the depth the neighborhood was expanded to.
+     * @param truncated True if the result was cut off at the maximum number of nodes.
+     */
+    public TraversalResult(long[] nodeIds, long[] relationshipIds, int depth, boolean truncated) {
+        this.nodeIds = nodeIds;
+        this.relationshipIds = relationshipIds;
+        this.depth = depth;
+        this.truncated = truncated;
+    }
+
+    /**
+     * Get the IDs of the nodes.
+     *
+     * @return The node IDs.
+     */
+    public long[] getNodeIds() {
+        return nodeIds;
+    }
+
+    /**
+     * Get the IDs of the relationships.
+     *
+     * @return The relationship IDs.
+     */
+    public long[] getRelationshipIds() {
+        return relationshipIds;
+    }
+
+    /**
+     * Get the length of the path, or the depth the neighborhood was expanded to.
+     *
+     * @return The depth.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Check whether the result was cut off at the maximum number of nodes.
+     *
+     * @return True if truncated.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+}
@@ -0,0 +1,150 @@
+package com.graphapp.dto;
+
+/**
+ * Read-only projection of a user for list responses.
+ * Carries the number of the user's projects instead of the projects themselves, and the row is
+ * selected directly into this class, so listing users builds no managed entities.
+ */
+public class UserSummary {
+
+    private Long id;
+    private String username;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private Long projectCount;
+
+    /**
+     * Default constructor.
+     */
+    public UserSummary() {
+    }
+
+    /**
+     * Constructor with all fields, used by the projection query.
+     *
+     * @param id The ID of the user.
+     * @param username The username of the user.
+     * @param email The email of the user.
+     * @param firstName The first name of the user.
+     * @param lastName The last name of the user.
+     * @param projectCount The number of projects of the user.
+     */
+    public UserSummary(Long id, String username, String email, String firstName, String lastName,
+                       Long projectCount) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.projectCount = projectCount;
+    }
+
+    /**
+     * Get the ID of the user.
+     *
+     * @return The ID of the user.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Set the ID of the user.
+     *
+     * @param id The ID of the user.
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Get the username of the user.
+     *
+     * @return The username of the user.
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Set the username of the user.
+     *
+     * @param username The username of the user.
+     */
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    /**
+     * Get the email of the user.
+     *
+     * @return The email of the user.
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Set the email of the user.
+     *
+     * @param email The email of the user.
+     */
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    /**
+     * Get the first name of the user.
+     *
+     * @return The first name of the user.
+     */
+    public String getFirstName() {
+        return firstName;
+    }
+
+    /**
+     * Set the first name of the user.
+     *
+     * @param firstName The first name of the user.
+     */
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    /**
+     * Get the last name of the user.
+     *
+     * @return The last name of the user.
+     */
+    public String getLastName() {
+        return lastName;
+    }
+
+    /**
+     * Set the last name of the user.
+     *
+     * @param lastName The last name of the user.
+     */
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    /**
+     * Get the number of projects of the user.
+     *
+     * @return The number of projects of the user.
+     */
+    public Long getProjectCount() {
+        return projectCount;
+    }
+
+    /**
+     * Set the number of projects of the user.
+     *
+     * @param projectCount The number of projects of the user.
+     */
+    public void setProjectCount(Long projectCount) {
+        this.projectCount = projectCount;
+    }
+}
@@ -0,0 +1,260 @@
+package com.graphapp.event;
+
+import com.graphapp.model.graph.GraphNode;
+import com.graphapp.model.graph.Relationship;
+
+/**
+ * Change made to the graph by a committed write through the service layer.
+ * <p>
+ * Events are published inside the writing transaction and delivered to
+ * {@code @TransactionalEventListener}s once it commits, so in-memory structures derived from
+ * the graph never see a write that was rolled back. Bulk loads publish a creation event for each
+ * node and relationship of a batch once the batch has committed. Each event carries the state the listeners
+ * need to apply the change without querying Neo4j: for updates, the previous type, label and
+ * endpoints as well as the new ones. Deleting a node also deletes its relationships; one
+ * relationship event is published for each of them before the node event.
+ */
+public class GraphMutationEvent {
+
+    /**
+     * Kind of change.
+     */
+    public enum Kind {
+        NODE_CREATED,
+        NODE_UPDATED,
+        NODE_DELETED,
+        RELATIONSHIP_CREATED,
+        RELATIONSHIP_UPDATED,
+        RELATIONSHIP_DELETED
+    }
+
+    private final Kind kind;
+    private final long id;
+    private final String type;
+    private final String previousType;
+    private final String label;
+    private final String previousLabel;
+    private final Long sourceId;
+    private final Long targetId;
+    private final Long previousSourceId;
+    private final Long previousTargetId;
+
+    private GraphMutationEvent(Kind kind, long id, String type, String previousType, String label, String previousLabel,
+                               Long sourceId, Long targetId, Long previousSourceId, Long previousTargetId) {
+        this.kind = kind;
+        this.id = id;
+        this.type = type;
+        this.previousType = previousType;
+        this.label = label;
+        this.previousLabel = previousLabel;
+        this.sourceId = sourceId;
+        this.targetId = targetId;
+        this.previousSourceId = previousSourceId;
+        this.previousTargetId = previousTargetId;
+    }
+
+    /**
+     * Create the event for a created node.
+     *
+     * @param node The saved node.
+     * @return The event.
+     */
+    public static GraphMutationEvent nodeCreated(GraphNode node) {
+        return nodeCreated(node.getId(), node.getType(), node.getLabel());
+    }
+
+    /**
+     * Create the event for a created node.
+     *
+     * @param id The ID of the node.
+     * @param type The type of the node.
+     * @param label The label of the node.
+     * @return The event.
+     */
+    public static GraphMutationEvent nodeCreated(long id, String type, String label) {
+        return new GraphMutationEvent(Kind.NODE_CREATED, id, type, null, label, null, null, null, null, null);
+    }
+
+    /**
+     * Create the event for an updated node.
+     *
+     * @param previousType The type of the node before the update.
+     * @param previousLabel The label of the node before the update.
+     * @param node The saved node.
+     * @return The event.
+     */
+    public static GraphMutationEvent nodeUpdated(String previousType, String previousLabel, GraphNode node) {
+        return new GraphMutationEvent(Kind.NODE_UPDATED, node.getId(), node.getType(), previousType,
+                node.getLabel(), previousLabel, null, null, null, null);
+    }
+
+    /**
+     * Create the event for a deleted node.
+     *
+     * @param node The node as it was before deletion.
+     * @return The event.
+     */
+    public static GraphMutationEvent nodeDeleted(GraphNode node) {
+        return new GraphMutationEvent(Kind.NODE_DELETED, node.getId(), null, node.getType(),
+                null, node.getLabel(), null, null, null, null);
+    }
+
+    /**
+     * Create the event for a created relationship.
+     *
+     * @param relationship The saved relationship, with its source and target.
+     * @return The event.
+     */
+    public static GraphMutationEvent relationshipCreated(Relationship relationship) {
+        return relationshipCreated(relationship.getId(), relationship.getType(),
+                relationship.getSource().getId(), relationship.getTarget().getId());
+    }
+
+    /**
+     * Create the event for a created relationship.
+     *
+     * @param id The ID of the relationship.
+     * @param type The type of the relationship.
+     * @param sourceId The ID of the source node.
+     * @param targetId The ID of the target node.
+     * @return The event.
+     */
+    public static GraphMutationEvent relationshipCreated(long id, String type, Long sourceId, Long targetId) {
+        return new GraphMutationEvent(Kind.RELATIONSHIP_CREATED, id, type, null,
+                null, null, sourceId, targetId, null, null);
+    }
+
+    /**
+     * Create the event for an updated relationship.
+     *
+     * @param previousType The type of the relationship before the update.
+     * @param previousSourceId The ID of the source node before the update.
+     * @param previousTargetId The ID of the target node before the update.
+     * @param relationship The saved relationship, with its source and target.
+     * @return The event.
+     */
+    public static GraphMutationEvent relationshipUpdated(String previousType, Long previousSourceId,
+                                                         Long previousTargetId, Relationship relationship) {
+        return new GraphMutationEvent(Kind.RELATIONSHIP_UPDATED, relationship.getId(), relationship.getType(),
+                previousType, null, null, relationship.getSource().getId(), relationship.getTarget().getId(),
+                previousSourceId, previousTargetId);
+    }
+
+    /**
+     * Create the event for a deleted relationship.
+     *
+     * @param id The ID of the relationship.
+     * @param type The type of the relationship.
+     * @param sourceId The ID of the source node.
+     * @param targetId The ID of the target node.
+     * @return The event.
+     */
+    public static GraphMutationEvent relationshipDeleted(long id, String type, Long sourceId, Long targetId) {
+        return new GraphMutationEvent(Kind.RELATIONSHIP_DELETED, id, null, type,
+                null, null, null, null, sourceId, targetId);
+    }
+
+    /**
+     * Get the kind of change.
+     *
+     * @return The kind.
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Check whether the change is to a node rather than a relationship.
+     *
+     * @return True for node events.
+     */
+    public boolean isNodeEvent() {
+        return kind == Kind.NODE_CREATED || kind == Kind.NODE_UPDATED || kind == Kind.NODE_DELETED;
+    }
+
+    /**
+     * Get the ID of the node or relationship.
+     *
+     * @return The ID.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Get the type after the change, or null for deletions.
+     *
+     * @return The type.
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Get the type before the change, or null for creations.
+     *
+     * @return The previous type.
+     */
+    public String getPreviousType() {
+        return previousType;
+    }
+
+    /**
+     * Get the label of the node after the change, or null for deletions and relationships.
+     *
+     * @return The label.
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Get the label of the node before the change, or null for creations and relationships.
+     *
+     * @return The previous label.
+     */
+    public String getPreviousLabel() {
+        return previousLabel;
+    }
+
+    /**
+     * Get the ID of the relationship's source node after the change, or null for deletions and nodes.
+     *
+     * @return The source node ID.
+     */
+    public Long getSourceId() {
+        return sourceId;
+    }
+
+    /**
+     * Get the ID of the relationship's target node after the change, or null for deletions and nodes.
+     *
+     * @return The target node ID.
+     */
+    public Long getTargetId() {
+        return targetId;
+    }
+
+    /**
+     * Get the ID of the relationship's source node before the change, or null for creations and nodes.
+     *
+     * @return The previous source node ID.
+     */
+    public Long getPreviousSourceId() {
+        return previousSourceId;
+    }
+
+    /**
+     * Get the ID of the relationship's target node before the change, or null for creations and nodes.
+     *
+     * @return The previous target node ID.
+     */
+    public Long getPreviousTargetId() {
+        return previousTargetId;
+    }
+
+    @Override
+    public String toString() {
+        return "GraphMutationEvent{kind=" + kind + ", id=" + id + "}";
+    }
+}
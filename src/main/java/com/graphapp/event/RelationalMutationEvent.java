@@ -0,0 +1,224 @@
+package com.graphapp.event;
+
+import com.graphapp.model.relational.Project;
+import com.graphapp.model.relational.User;
+
+/**
+ * Change made to users or projects by a committed write through the service layer.
+ * <p>
+ * Like {@link GraphMutationEvent}s, these are published inside the writing transaction and
+ * delivered to {@code @TransactionalEventListener}s once it commits. With group commit, a
+ * batch that is rolled back discards its events, and each operation publishes again when it
+ * is re-run on its own. Each event carries the owner of the project before and after the
+ * change, created and updated projects carry the saved entity, and user events carry the
+ * username and email before and after the change, so listeners can apply it without querying
+ * the database. Deleting a user also deletes its projects; no project events
+ * are published for them.
+ */
+public class RelationalMutationEvent {
+
+    /**
+     * Kind of change.
+     */
+    public enum Kind {
+        USER_CREATED,
+        USER_UPDATED,
+        USER_DELETED,
+        PROJECT_CREATED,
+        PROJECT_UPDATED,
+        PROJECT_DELETED
+    }
+
+    private final Kind kind;
+    private final long id;
+    private final Long userId;
+    private final Long previousUserId;
+    private final Project project;
+    private final String username;
+    private final String email;
+    private final String previousUsername;
+    private final String previousEmail;
+
+    private RelationalMutationEvent(Kind kind, long id, Long userId, Long previousUserId, Project project) {
+        this(kind, id, userId, previousUserId, project, null, null, null, null);
+    }
+
+    private RelationalMutationEvent(Kind kind, long id, Long userId, Long previousUserId, Project project,
+                                    String username, String email, String previousUsername, String previousEmail) {
+        this.kind = kind;
+        this.id = id;
+        this.userId = userId;
+        this.previousUserId = previousUserId;
+        this.project = project;
+        this.username = username;
+        this.email = email;
+        this.previousUsername = previousUsername;
+        this.previousEmail = previousEmail;
+    }
+
+    /**
+     * Create the event for a created user.
+     *
+     * @param user The saved user.
+     * @return The event.
+     */
+    public static RelationalMutationEvent userCreated(User user) {
+        return new RelationalMutationEvent(Kind.USER_CREATED, user.getId(), null, null, null,
+                user.getUsername(), user.getEmail(), null, null);
+    }
+
+    /**
+     * Create the event for an updated user.
+     *
+     * @param previousUsername The username before the update.
+     * @param previousEmail The email before the update.
+     * @param user The saved user.
+     * @return The event.
+     */
+    public static RelationalMutationEvent userUpdated(String previousUsername, String previousEmail, User user) {
+        return new RelationalMutationEvent(Kind.USER_UPDATED, user.getId(), null, null, null,
+                user.getUsername(), user.getEmail(), previousUsername, previousEmail);
+    }
+
+    /**
+     * Create the event for a deleted user.
+     *
+     * @param user The user, as loaded before the deletion.
+     * @return The event.
+     */
+    public static RelationalMutationEvent userDeleted(User user) {
+        return new RelationalMutationEvent(Kind.USER_DELETED, user.getId(), null, null, null,
+                null, null, user.getUsername(), user.getEmail());
+    }
+
+    /**
+     * Create the event for a created project.
+     *
+     * @param project The saved project.
+     * @return The event.
+     */
+    public static RelationalMutationEvent projectCreated(Project project) {
+        return new RelationalMutationEvent(Kind.PROJECT_CREATED, project.getId(), userIdOf(project), null, project);
+    }
+
+    /**
+     * Create the event for an updated project.
+     *
+     * @param previousUserId The ID of the project's user before the update, or null if it had none.
+     * @param project The saved project.
+     * @return The event.
+     */
+    public static RelationalMutationEvent projectUpdated(Long previousUserId, Project project) {
+        return new RelationalMutationEvent(Kind.PROJECT_UPDATED, project.getId(), userIdOf(project), previousUserId, project);
+    }
+
+    /**
+     * Create the event for a deleted project.
+     *
+     * @param id The ID of the project.
+     * @param previousUserId The ID of the project's user, or null if it had none.
+     * @return The event.
+     */
+    public static RelationalMutationEvent projectDeleted(long id, Long previousUserId) {
+        return new RelationalMutationEvent(Kind.PROJECT_DELETED, id, null, previousUserId, null);
+    }
+
+    /**
+     * Get the kind of change.
+     *
+     * @return The kind.
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Get the ID of the user or project.
+     *
+     * @return The ID.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Get the ID of the project's user after the change, or null for deletions, users and
+     * projects without a user.
+     *
+     * @return The user ID.
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Get the ID of the project's user before the change, or null for creations, users and
+     * projects without a user.
+     *
+     * @return The previous user ID.
+     */
+    public Long getPreviousUserId() {
+        return previousUserId;
+    }
+
+    /**
+     * Get the saved project, for project creations and updates, or null otherwise.
+     * The project is shared with the writer and must not be modified.
+     *
+     * @return The project.
+     */
+    public Project getProject() {
+        return project;
+    }
+
+    /**
+     * Get the user's username after the change, for user creations and updates, or null otherwise.
+     *
+     * @return The username.
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Get the user's email after the change, for user creations and updates, or null otherwise.
+     *
+     * @return The email.
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Get the user's username before the change, for user updates and deletions, or null otherwise.
+     *
+     * @return The previous username.
+     */
+    public String getPreviousUsername() {
+        return previousUsername;
+    }
+
+    /**
+     * Get the user's email before the change, for user updates and deletions, or null otherwise.
+     *
+     * @return The previous email.
+     */
+    public String getPreviousEmail() {
+        return previousEmail;
+    }
+
+    /**
+     * Get the ID of a project's user.
+     *
+     * @param project The project.
+     * @return The user ID, or null if the project has no user.
+     */
+    private static Long userIdOf(Project project) {
+        return project.getUser() != null ? project.getUser().getId() : null;
+    }
+
+    @Override
+    public String toString() {
+        return "RelationalMutationEvent{kind=" + kind + ", id=" + id + "}";
+    }
+}
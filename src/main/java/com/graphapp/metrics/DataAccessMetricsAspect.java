@@ -0,0 +1,246 @@
+package com.graphapp.metrics;
+
+import com.graphapp.dto.CursorPage;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers around every repository and service method.
+ * <p>
+ * Each call of a Spring Data repository method, and of a public method of a {@code @Service} in
+ * the service package, is recorded in the {@code repository.invocations} or
+ * {@code service.invocations} timer, tagged with the store it reads ({@code neo4j} or
+ * {@code sqlite}), the repository or service, the method, the outcome ({@code success} or
+ * {@code error}) and the exception class; the error count of a method is the count of its
+ * {@code outcome=error} series. Calls that return a collection, page, cursor page or optional also
+ * record the number of rows in the {@code repository.rows} or {@code service.rows} distribution
+ * summary. Percentiles are configured per meter name with the
+ * {@code management.metrics.distribution.*} properties.
+ * <p>
+ * The aspect runs outside the transaction advice, so service timings include the commit. Meters
+ * are looked up once per method and reused, so a call costs two clock reads and a recording. Calls
+ * a service makes to its own methods are not intercepted, and only the setup of a returned stream
+ * is timed.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DataAccessMetricsAspect {
+
+    private static final String REPOSITORY_PACKAGE = "com.graphapp.repository.";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<MethodKey, MethodMeters> meters = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for DataAccessMetricsAspect.
+     *
+     * @param meterRegistry The registry the timers are published to.
+     */
+    @Autowired
+    public DataAccessMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Time a repository method.
+     *
+     * @param joinPoint The call.
+     * @return The result of the call.
+     * @throws Throwable if the call fails.
+     */
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record(joinPoint, "repository");
+    }
+
+    /**
+     * Time a service method.
+     *
+     * @param joinPoint The call.
+     * @return The result of the call.
+     * @throws Throwable if the call fails.
+     */
+    @Around("within(com.graphapp.service..*) && @within(org.springframework.stereotype.Service) && execution(public * *(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record(joinPoint, "service");
+    }
+
+    /**
+     * Run a call and record its duration, outcome and row count.
+     *
+     * @param joinPoint The call.
+     * @param layer The layer of the called type, used as the meter name prefix and tag name.
+     * @return The result of the call.
+     * @throws Throwable if the call fails.
+     */
+    private Object record(ProceedingJoinPoint joinPoint, String layer) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        // The proxy, as the target of a repository is the implementation shared by all repositories
+        Class<?> calledClass = joinPoint.getThis().getClass();
+        MethodMeters methodMeters = meters.computeIfAbsent(new MethodKey(calledClass, method),
+                key -> new MethodMeters(layer, calledType(calledClass), method.getName()));
+
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            methodMeters.error(e).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        methodMeters.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        long rows = rows(result);
+        if (rows >= 0) {
+            methodMeters.rows.record(rows);
+        }
+        return result;
+    }
+
+    /**
+     * Get the type a repository or service is tagged with: the repository interface for the
+     * proxies Spring Data creates, and the class otherwise.
+     *
+     * @param calledClass The class of the called object.
+     * @return The repository interface or service class.
+     */
+    private static Class<?> calledType(Class<?> calledClass) {
+        for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(calledClass)) {
+            if (type.getName().startsWith(REPOSITORY_PACKAGE) && Repository.class.isAssignableFrom(type)) {
+                return type;
+            }
+        }
+        return ClassUtils.getUserClass(calledClass);
+    }
+
+    /**
+     * Get the store a repository or service reads, from the package of the repository or the
+     * name prefix of the service.
+     *
+     * @param type The repository interface or service class.
+     * @return {@code neo4j}, {@code sqlite} or {@code none}.
+     */
+    private static String store(Class<?> type) {
+        if (type.getName().startsWith(REPOSITORY_PACKAGE + "graph.") || type.getSimpleName().startsWith("Graph")) {
+            return "neo4j";
+        }
+        if (type.getName().startsWith(REPOSITORY_PACKAGE + "relational.") || type.getSimpleName().startsWith("Relational")) {
+            return "sqlite";
+        }
+        return "none";
+    }
+
+    /**
+     * Count the rows of a result.
+     *
+     * @param result The result of a call.
+     * @return The number of rows, or -1 if the result is not a collection, page, cursor page or optional.
+     */
+    private static long rows(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof CursorPage) {
+            return ((CursorPage<?>) result).getItems().size();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        if (result instanceof Object[]) {
+            return ((Object[]) result).length;
+        }
+        return -1;
+    }
+
+    /**
+     * Meters of one method.
+     */
+    private final class MethodMeters {
+
+        private final String layer;
+        private final Tags tags;
+        private final Timer success;
+        private final DistributionSummary rows;
+        private final Map<Class<?>, Timer> errors = new ConcurrentHashMap<>();
+
+        MethodMeters(String layer, Class<?> type, String method) {
+            this.layer = layer;
+            this.tags = Tags.of("store", store(type), layer, type.getSimpleName(), "method", method);
+            this.success = timer("success", "none");
+            this.rows = DistributionSummary.builder(layer + ".rows")
+                    .description("Rows returned by " + layer + " methods")
+                    .baseUnit("rows")
+                    .tags(tags)
+                    .register(meterRegistry);
+        }
+
+        Timer error(Throwable e) {
+            return errors.computeIfAbsent(e.getClass(), type -> timer("error", type.getSimpleName()));
+        }
+
+        private Timer timer(String outcome, String exception) {
+            return Timer.builder(layer + ".invocations")
+                    .description("Duration of " + layer + " method calls")
+                    .tags(tags)
+                    .tag("outcome", outcome)
+                    .tag("exception", exception)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Method of a called class. Spring Data repositories share their implementing classes, so the
+     * method alone does not identify the repository.
+     */
+    private static final class MethodKey {
+
+        private final Class<?> calledClass;
+        private final Method method;
+
+        MethodKey(Class<?> calledClass, Method method) {
+            this.calledClass = calledClass;
+            this.method = method;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MethodKey)) {
+                return false;
+            }
+            MethodKey other = (MethodKey) o;
+            return calledClass == other.calledClass && method.equals(other.method);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(calledClass, method);
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.graphapp.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClass;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Actuator endpoint at {@code /actuator/prometheus} serving every meter of the registry in the
+ * Prometheus text exposition format.
+ * <p>
+ * Names follow the Prometheus conventions: dots become underscores, timers are in seconds, other
+ * meters carry their base unit as a suffix and counters end in {@code _total}. Timers and
+ * distribution summaries are written as summaries, with a {@code quantile} series for each
+ * configured percentile, and their maximum as a separate gauge. Percentiles are computed over a
+ * sliding window, as Prometheus expects of summaries.
+ * <p>
+ * The endpoint is only registered while the Prometheus registry is not on the classpath, which
+ * brings its own endpoint with the same ID.
+ */
+@Component
+@WebEndpoint(id = "prometheus")
+@ConditionalOnMissingClass("io.micrometer.prometheus.PrometheusMeterRegistry")
+public class PrometheusTextEndpoint {
+
+    private static final String CONTENT_TYPE = "text/plain;version=0.0.4;charset=utf-8";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructor for PrometheusTextEndpoint.
+     *
+     * @param meterRegistry The registry whose meters are served.
+     */
+    @Autowired
+    public PrometheusTextEndpoint(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Write the current value of every meter.
+     *
+     * @return The meters in the Prometheus text format.
+     */
+    @ReadOperation(produces = CONTENT_TYPE)
+    public String scrape() {
+        Map<String, Family> families = new TreeMap<>();
+        for (Meter meter : meterRegistry.getMeters()) {
+            if (meter.getId().syntheticAssociation() != null) {
+                // Percentile gauges derived from a timer or summary, which are written as its quantiles
+                continue;
+            }
+            meter.use(
+                    gauge -> gauge(families, meter, suffixed(meter), gauge.value()),
+                    counter -> counter(families, meter, counter.count()),
+                    timer -> timer(families, timer),
+                    summary -> summary(families, summary),
+                    longTaskTimer -> longTaskTimer(families, longTaskTimer),
+                    timeGauge -> gauge(families, meter, name(meter) + "_seconds", timeGauge.value(TimeUnit.SECONDS)),
+                    functionCounter -> counter(families, meter, functionCounter.count()),
+                    functionTimer -> functionTimer(families, functionTimer),
+                    other -> other(families, other));
+        }
+
+        StringBuilder out = new StringBuilder();
+        families.forEach((name, family) -> {
+            if (family.help != null) {
+                out.append("# HELP ").append(name).append(' ').append(escapeHelp(family.help)).append('\n');
+            }
+            out.append("# TYPE ").append(name).append(' ').append(family.type).append('\n');
+            family.samples.forEach(sample -> out.append(sample).append('\n'));
+        });
+        return out.toString();
+    }
+
+    /**
+     * Add a gauge sample.
+     *
+     * @param families The families written so far.
+     * @param meter The meter.
+     * @param name The metric name.
+     * @param value The value.
+     */
+    private void gauge(Map<String, Family> families, Meter meter, String name, double value) {
+        family(families, name, "gauge", meter).add(name, meter, null, value);
+    }
+
+    /**
+     * Add a counter sample.
+     *
+     * @param families The families written so far.
+     * @param meter The meter.
+     * @param count The count.
+     */
+    private void counter(Map<String, Family> families, Meter meter, double count) {
+        String name = suffixed(meter);
+        family(families, name, "counter", meter).add(name + "_total", meter, null, count);
+    }
+
+    /**
+     * Add the quantiles, count and sum of a timer, and its maximum as a gauge.
+     *
+     * @param families The families written so far.
+     * @param timer The timer.
+     */
+    private void timer(Map<String, Family> families, Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        String name = name(timer) + "_seconds";
+        Family family = family(families, name, "summary", timer);
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            family.add(name, timer, Double.toString(percentile.percentile()), percentile.value(TimeUnit.SECONDS));
+        }
+        family.add(name + "_count", timer, null, snapshot.count());
+        family.add(name + "_sum", timer, null, snapshot.total(TimeUnit.SECONDS));
+        gauge(families, timer, name + "_max", snapshot.max(TimeUnit.SECONDS));
+    }
+
+    /**
+     * Add the quantiles, count and sum of a distribution summary, and its maximum as a gauge.
+     *
+     * @param families The families written so far.
+     * @param summary The distribution summary.
+     */
+    private void summary(Map<String, Family> families, DistributionSummary summary) {
+        HistogramSnapshot snapshot = summary.takeSnapshot();
+        String name = suffixed(summary);
+        Family family = family(families, name, "summary", summary);
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            family.add(name, summary, Double.toString(percentile.percentile()), percentile.value());
+        }
+        family.add(name + "_count", summary, null, snapshot.count());
+        family.add(name + "_sum", summary, null, snapshot.total());
+        gauge(families, summary, name + "_max", snapshot.max());
+    }
+
+    /**
+     * Add the active tasks, total duration and maximum of a long task timer as gauges.
+     *
+     * @param families The families written so far.
+     * @param timer The long task timer.
+     */
+    private void longTaskTimer(Map<String, Family> families, LongTaskTimer timer) {
+        String name = name(timer) + "_seconds";
+        gauge(families, timer, name + "_active_count", timer.activeTasks());
+        gauge(families, timer, name + "_duration_sum", timer.duration(TimeUnit.SECONDS));
+        gauge(families, timer, name + "_max", timer.max(TimeUnit.SECONDS));
+    }
+
+    /**
+     * Add the count and sum of a function timer.
+     *
+     * @param families The families written so far.
+     * @param timer The function timer.
+     */
+    private void functionTimer(Map<String, Family> families, FunctionTimer timer) {
+        String name = name(timer) + "_seconds";
+        Family family = family(families, name, "summary", timer);
+        family.add(name + "_count", timer, null, timer.count());
+        family.add(name + "_sum", timer, null, timer.totalTime(TimeUnit.SECONDS));
+    }
+
+    /**
+     * Add each measurement of a custom meter as a gauge named after its statistic.
+     *
+     * @param families The families written so far.
+     * @param meter The meter.
+     */
+    private void other(Map<String, Family> families, Meter meter) {
+        for (Measurement measurement : meter.measure()) {
+            String name = name(meter) + "_" + measurement.getStatistic().getTagValueRepresentation();
+            gauge(families, meter, name, measurement.getValue());
+        }
+    }
+
+    /**
+     * Get the family of a metric name, creating it for the first meter written to it.
+     *
+     * @param families The families written so far.
+     * @param name The metric name.
+     * @param type The Prometheus type.
+     * @param meter The meter, whose description becomes the help text.
+     * @return The family.
+     */
+    private static Family family(Map<String, Family> families, String name, String type, Meter meter) {
+        return families.computeIfAbsent(name, key -> new Family(type, meter.getId().getDescription()));
+    }
+
+    /**
+     * Convert a meter name to a Prometheus metric name.
+     *
+     * @param meter The meter.
+     * @return The name.
+     */
+    private static String name(Meter meter) {
+        return sanitize(meter.getId().getName());
+    }
+
+    /**
+     * Convert a meter name to a Prometheus metric name ending in its base unit.
+     *
+     * @param meter The meter.
+     * @return The name.
+     */
+    private static String suffixed(Meter meter) {
+        String name = name(meter);
+        String unit = meter.getId().getBaseUnit();
+        if (unit == null || unit.isEmpty()) {
+            return name;
+        }
+        String suffix = "_" + sanitize(unit);
+        return name.endsWith(suffix) ? name : name + suffix;
+    }
+
+    /**
+     * Replace the characters not allowed in Prometheus metric and label names.
+     *
+     * @param name The name.
+     * @return The sanitized name.
+     */
+    private static String sanitize(String name) {
+        String sanitized = name.replaceAll("[^a-zA-Z0-9_:]", "_");
+        return Character.isDigit(sanitized.charAt(0)) ? "_" + sanitized : sanitized;
+    }
+
+    /**
+     * Format a sample value.
+     *
+     * @param value The value.
+     * @return The value in the exposition format.
+     */
+    private static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        return Double.toString(value);
+    }
+
+    /**
+     * Escape a help text.
+     *
+     * @param help The text.
+     * @return The escaped text.
+     */
+    private static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    /**
+     * Escape a label value.
+     *
+     * @param value The value.
+     * @return The escaped value.
+     */
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Samples of one metric name.
+     */
+    private static final class Family {
+
+        private final String type;
+        private final String help;
+        private final List<String> samples = new ArrayList<>();
+
+        Family(String type, String help) {
+            this.type = type;
+            this.help = help;
+        }
+
+        /**
+         * Add a sample with the tags of a meter.
+         *
+         * @param name The metric name.
+         * @param meter The meter.
+         * @param quantile The quantile label, or null.
+         * @param value The value.
+         */
+        void add(String name, Meter meter, String quantile, double value) {
+            StringBuilder sample = new StringBuilder(name);
+            List<Tag> tags = meter.getId().getTags();
+            if (!tags.isEmpty() || quantile != null) {
+                sample.append('{');
+                String separator = "";
+                for (Tag tag : tags) {
+                    sample.append(separator).append(sanitize(tag.getKey()))
+                            .append("=\"").append(escapeLabel(tag.getValue())).append('"');
+                    separator = ",";
+                }
+                if (quantile != null) {
+                    sample.append(separator).append("quantile=\"").append(quantile).append('"');
+                }
+                sample.append('}');
+            }
+            samples.add(sample.append(' ').append(format(value)).toString());
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.graphapp.model.relational;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -8,9 +10,12 @@ import java.util.Objects;
 
 /**
  * Represents a Project in the relational database.
+ * Projects are kept in the second-level cache by ID; their users are resolved through the user cache.
  */
 @Entity
 @Table(name = "projects")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "relational.projects")
 public class Project {
     
     @Id
@@ -1,5 +1,10 @@
 package com.graphapp.model.relational;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import javax.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -7,15 +12,20 @@ import java.util.Objects;
 
 /**
  * Represents a User in the relational database.
+ * Users are kept in the second-level cache, by ID and by username, along with the IDs of their projects.
  */
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "relational.users")
+@NaturalIdCache(region = "relational.users.usernames")
 public class User {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    @NaturalId(mutable = true)
     @Column(name = "username", nullable = false, unique = true)
     private String username;
     
@@ -29,6 +39,7 @@ public class User {
     private String lastName;
     
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "relational.users.projects")
     private List<Project> projects;
     
     /**
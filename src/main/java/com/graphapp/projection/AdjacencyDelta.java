@@ -0,0 +1,452 @@
+package com.graphapp.projection;
+
+import com.graphapp.event.GraphMutationEvent;
+import com.graphapp.util.IntArrayList;
+import com.graphapp.util.LongArrayList;
+import com.graphapp.util.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Changes applied on top of an immutable {@link CsrGraph}, readable together with it.
+ * <p>
+ * Created nodes get indexes after the base nodes. Created relationships are appended to
+ * parallel arrays and referenced from small per-node buffers in both directions; deleted
+ * nodes and relationships are tombstoned in bitsets, whether they come from the base or
+ * from the buffers. An update of a relationship is a deletion followed by a creation.
+ * Applying an event that is already reflected (a creation of a present relationship, a
+ * deletion of an absent one) has no effect, so events may be replayed onto a base that was
+ * loaded while they were committed. {@link #compact()} merges base and changes into a new graph.
+ * <p>
+ * Not thread-safe; {@link AdjacencyIndex} guards access.
+ */
+final class AdjacencyDelta {
+
+    private final CsrGraph base;
+    private final int baseNodes;
+    private final int baseTypes;
+
+    private final LongArrayList addedNodeIds = new LongArrayList();
+    private final LongIntHashMap addedNodeIndexes = new LongIntHashMap();
+    private final BitSet deletedNodes = new BitSet();
+    private final BitSet deletedBaseEdges = new BitSet();
+
+    // Appended relationships; positions index all four lists
+    private final LongArrayList addedEdgeIds = new LongArrayList();
+    private final IntArrayList addedEdgeTypes = new IntArrayList();
+    private final IntArrayList addedEdgeSources = new IntArrayList();
+    private final IntArrayList addedEdgeTargets = new IntArrayList();
+    private final BitSet deletedAddedEdges = new BitSet();
+    private final Map<Integer, IntArrayList> outBuffers = new HashMap<>();
+    private final Map<Integer, IntArrayList> inBuffers = new HashMap<>();
+
+    // Types not in the base, coded after the base types
+    private final List<String> addedTypes = new ArrayList<>();
+    private final Map<String, Integer> addedTypeCodes = new HashMap<>();
+
+    private int deletedBaseEdgeCount;
+    private int deletedNodeCount;
+
+    /**
+     * Constructor with the graph the changes apply to.
+     *
+     * @param base The base graph.
+     */
+    AdjacencyDelta(CsrGraph base) {
+        this.base = base;
+        this.baseNodes = base.nodeCount();
+        this.baseTypes = base.types().size();
+    }
+
+    /**
+     * Get the graph the changes apply to.
+     *
+     * @return The base graph.
+     */
+    CsrGraph base() {
+        return base;
+    }
+
+    /**
+     * Check whether no change has been applied.
+     *
+     * @return True if reading the delta is the same as reading the base.
+     */
+    boolean isEmpty() {
+        return addedNodeIds.size() == 0 && addedEdgeIds.size() == 0 && deletedNodes.isEmpty()
+                && deletedBaseEdgeCount == 0;
+    }
+
+    /**
+     * Get the number of relationships held in the append buffers, including tombstoned ones.
+     *
+     * @return The buffered relationship count.
+     */
+    int bufferedRelationships() {
+        return addedEdgeIds.size();
+    }
+
+    /**
+     * Get the number of tombstoned nodes and relationships.
+     *
+     * @return The tombstone count.
+     */
+    int tombstones() {
+        return deletedNodes.cardinality() + deletedBaseEdgeCount + deletedAddedEdges.cardinality();
+    }
+
+    /**
+     * Get the number of entries a compaction would merge into the base.
+     *
+     * @return The added node, buffered relationship and tombstone counts combined.
+     */
+    int changes() {
+        return addedNodeIds.size() + bufferedRelationships() + tombstones();
+    }
+
+    /**
+     * Apply a committed change.
+     *
+     * @param event The change.
+     */
+    void apply(GraphMutationEvent event) {
+        switch (event.getKind()) {
+            case NODE_CREATED:
+                addNode(event.getId());
+                break;
+            case NODE_DELETED:
+                deleteNode(event.getId());
+                break;
+            case RELATIONSHIP_CREATED:
+                addRelationship(event.getId(), event.getType(), event.getSourceId(), event.getTargetId());
+                break;
+            case RELATIONSHIP_UPDATED:
+                deleteRelationship(event.getId(), event.getPreviousSourceId());
+                addRelationship(event.getId(), event.getType(), event.getSourceId(), event.getTargetId());
+                break;
+            case RELATIONSHIP_DELETED:
+                deleteRelationship(event.getId(), event.getPreviousSourceId());
+                break;
+            default:
+                // Property changes do not affect adjacency
+                break;
+        }
+    }
+
+    /**
+     * Get the index of a live node.
+     *
+     * @param nodeId The Neo4j ID of the node.
+     * @return The index, or -1 if the node is absent or deleted.
+     */
+    int indexOf(long nodeId) {
+        int node = anyIndexOf(nodeId);
+        return node >= 0 && !deletedNodes.get(node) ? node : -1;
+    }
+
+    /**
+     * Get the Neo4j ID of a node.
+     *
+     * @param node The index of the node.
+     * @return The ID.
+     */
+    long nodeId(int node) {
+        return node < baseNodes ? base.nodeId(node) : addedNodeIds.get(node - baseNodes);
+    }
+
+    /**
+     * Get the code of a relationship type, across base and added types.
+     *
+     * @param type The type.
+     * @return The code, or {@link CsrGraph#MISSING_TYPE} if no relationship has had the type.
+     */
+    int typeCode(String type) {
+        int code = base.typeCode(type);
+        if (code != CsrGraph.MISSING_TYPE) {
+            return code;
+        }
+        Integer added = addedTypeCodes.get(type);
+        return added != null ? added : CsrGraph.MISSING_TYPE;
+    }
+
+    /**
+     * Get the IDs of the live neighbors of a node, one entry per matching live relationship.
+     *
+     * @param node The index of the node.
+     * @param direction The direction in which to follow relationships.
+     * @param type The type code to follow, or {@link CsrGraph#ANY_TYPE}.
+     * @return The neighbor IDs, base relationships first.
+     */
+    LongArrayList neighborIds(int node, Direction direction, int type) {
+        LongArrayList result = new LongArrayList();
+        if (node < baseNodes) {
+            if (direction != Direction.INCOMING) {
+                for (int edge = base.outStart(node), end = base.outEnd(node); edge < end; edge++) {
+                    int target = base.target(edge);
+                    if (!deletedBaseEdges.get(edge) && !deletedNodes.get(target)
+                            && (type == CsrGraph.ANY_TYPE || base.edgeType(edge) == type)) {
+                        result.add(base.nodeId(target));
+                    }
+                }
+            }
+            if (direction != Direction.OUTGOING) {
+                for (int slot = base.inStart(node), end = base.inEnd(node); slot < end; slot++) {
+                    int edge = base.inEdge(slot);
+                    int source = base.inSource(slot);
+                    if (!deletedBaseEdges.get(edge) && !deletedNodes.get(source)
+                            && (type == CsrGraph.ANY_TYPE || base.edgeType(edge) == type)) {
+                        result.add(base.nodeId(source));
+                    }
+                }
+            }
+        }
+        if (direction != Direction.INCOMING) {
+            addBuffered(outBuffers.get(node), addedEdgeTargets, type, result);
+        }
+        if (direction != Direction.OUTGOING) {
+            addBuffered(inBuffers.get(node), addedEdgeSources, type, result);
+        }
+        return result;
+    }
+
+    /**
+     * Merge the base and the changes into a new graph. Tombstoned nodes and relationships are
+     * dropped, the remaining nodes are renumbered in order, and type codes are preserved.
+     *
+     * @return The compacted graph.
+     */
+    CsrGraph compact() {
+        int totalNodes = baseNodes + addedNodeIds.size();
+        int liveEdges = base.edgeCount() - deletedBaseEdgeCount + addedEdgeIds.size() - deletedAddedEdges.cardinality();
+        CsrGraph.Builder builder = new CsrGraph.Builder(Math.max(1, totalNodes - deletedNodeCount), Math.max(1, liveEdges));
+        for (String type : base.types()) {
+            builder.code(type);
+        }
+        for (String type : addedTypes) {
+            builder.code(type);
+        }
+
+        int[] remap = new int[totalNodes];
+        int next = 0;
+        for (int node = 0; node < totalNodes; node++) {
+            if (deletedNodes.get(node)) {
+                remap[node] = -1;
+            } else {
+                builder.addNode(nodeId(node));
+                remap[node] = next++;
+            }
+        }
+
+        for (int source = 0; source < baseNodes; source++) {
+            if (remap[source] < 0) {
+                continue;
+            }
+            for (int edge = base.outStart(source), end = base.outEnd(source); edge < end; edge++) {
+                int target = remap[base.target(edge)];
+                if (target >= 0 && !deletedBaseEdges.get(edge)) {
+                    builder.addRelationship(base.edgeId(edge), base.edgeType(edge), remap[source], target);
+                }
+            }
+        }
+        for (int position = 0; position < addedEdgeIds.size(); position++) {
+            int source = remap[addedEdgeSources.get(position)];
+            int target = remap[addedEdgeTargets.get(position)];
+            if (source >= 0 && target >= 0 && !deletedAddedEdges.get(position)) {
+                builder.addRelationship(addedEdgeIds.get(position), addedEdgeTypes.get(position), source, target);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Add the live neighbors reached through a node's buffered relationships.
+     *
+     * @param buffer The positions of the node's buffered relationships in one direction, may be null.
+     * @param endpoints The other endpoints of the buffered relationships, by position.
+     * @param type The type code to follow, or {@link CsrGraph#ANY_TYPE}.
+     * @param result The list the neighbor IDs are added to.
+     */
+    private void addBuffered(IntArrayList buffer, IntArrayList endpoints, int type, LongArrayList result) {
+        if (buffer == null) {
+            return;
+        }
+        for (int i = 0; i < buffer.size(); i++) {
+            int position = buffer.get(i);
+            int neighbor = endpoints.get(position);
+            if (!deletedAddedEdges.get(position) && !deletedNodes.get(neighbor)
+                    && (type == CsrGraph.ANY_TYPE || addedEdgeTypes.get(position) == type)) {
+                result.add(nodeId(neighbor));
+            }
+        }
+    }
+
+    /**
+     * Get the index of a node, whether live or deleted.
+     *
+     * @param nodeId The Neo4j ID of the node.
+     * @return The index, or -1 if the node is absent.
+     */
+    private int anyIndexOf(long nodeId) {
+        int node = base.indexOf(nodeId);
+        if (node >= 0) {
+            return node;
+        }
+        node = addedNodeIndexes.get(nodeId);
+        return node != LongIntHashMap.MISSING ? node : -1;
+    }
+
+    /**
+     * Add a node, or revive a deleted one whose ID was reused.
+     *
+     * @param nodeId The Neo4j ID of the node.
+     */
+    private void addNode(long nodeId) {
+        int node = anyIndexOf(nodeId);
+        if (node >= 0) {
+            // Re-created under a reused ID
+            if (deletedNodes.get(node)) {
+                deletedNodes.clear(node);
+                deletedNodeCount--;
+            }
+            return;
+        }
+        addedNodeIndexes.put(nodeId, baseNodes + addedNodeIds.size());
+        addedNodeIds.add(nodeId);
+    }
+
+    /**
+     * Tombstone a node.
+     *
+     * @param nodeId The Neo4j ID of the node.
+     */
+    private void deleteNode(long nodeId) {
+        int node = indexOf(nodeId);
+        if (node >= 0) {
+            deletedNodes.set(node);
+            deletedNodeCount++;
+        }
+    }
+
+    /**
+     * Append a relationship to the buffers of its endpoints, unless it is already present.
+     *
+     * @param id The Neo4j ID of the relationship.
+     * @param type The type of the relationship, may be null.
+     * @param sourceId The ID of the source node.
+     * @param targetId The ID of the target node.
+     */
+    private void addRelationship(long id, String type, Long sourceId, Long targetId) {
+        if (sourceId == null || targetId == null) {
+            return;
+        }
+        int source = indexOf(sourceId);
+        int target = indexOf(targetId);
+        // Relationships to nodes outside the projection are not tracked
+        if (source < 0 || target < 0 || findLiveBaseEdge(id, source) >= 0 || findLiveAddedEdge(id, source) >= 0) {
+            return;
+        }
+        int position = addedEdgeIds.size();
+        addedEdgeIds.add(id);
+        addedEdgeTypes.add(addTypeCode(type));
+        addedEdgeSources.add(source);
+        addedEdgeTargets.add(target);
+        outBuffers.computeIfAbsent(source, key -> new IntArrayList(4)).add(position);
+        inBuffers.computeIfAbsent(target, key -> new IntArrayList(4)).add(position);
+    }
+
+    /**
+     * Tombstone a relationship, if present.
+     *
+     * @param id The Neo4j ID of the relationship.
+     * @param sourceId The ID of its source node, or null if unknown.
+     */
+    private void deleteRelationship(long id, Long sourceId) {
+        int source = sourceId != null ? anyIndexOf(sourceId) : -1;
+        if (sourceId != null && source < 0) {
+            return;
+        }
+        int edge = findLiveBaseEdge(id, source);
+        if (edge >= 0) {
+            deletedBaseEdges.set(edge);
+            deletedBaseEdgeCount++;
+            return;
+        }
+        int position = findLiveAddedEdge(id, source);
+        if (position >= 0) {
+            deletedAddedEdges.set(position);
+        }
+    }
+
+    /**
+     * Find a live base relationship by ID among the outgoing relationships of its source,
+     * or among all relationships if the source is unknown.
+     *
+     * @param id The Neo4j ID of the relationship.
+     * @param source The index of the source node, or -1 if unknown.
+     * @return The edge position, or -1 if not found.
+     */
+    private int findLiveBaseEdge(long id, int source) {
+        if (source >= baseNodes) {
+            return -1;
+        }
+        int from = source >= 0 ? base.outStart(source) : 0;
+        int to = source >= 0 ? base.outEnd(source) : base.edgeCount();
+        for (int edge = from; edge < to; edge++) {
+            if (base.edgeId(edge) == id && !deletedBaseEdges.get(edge)) {
+                return edge;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find a live buffered relationship by ID in the buffer of its source,
+     * or among all buffered relationships if the source is unknown.
+     *
+     * @param id The Neo4j ID of the relationship.
+     * @param source The index of the source node, or -1 if unknown.
+     * @return The buffer position, or -1 if not found.
+     */
+    private int findLiveAddedEdge(long id, int source) {
+        if (source >= 0) {
+            IntArrayList buffer = outBuffers.get(source);
+            for (int i = 0; buffer != null && i < buffer.size(); i++) {
+                int position = buffer.get(i);
+                if (addedEdgeIds.get(position) == id && !deletedAddedEdges.get(position)) {
+                    return position;
+                }
+            }
+            return -1;
+        }
+        for (int position = 0; position < addedEdgeIds.size(); position++) {
+            if (addedEdgeIds.get(position) == id && !deletedAddedEdges.get(position)) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the code of a relationship type, adding it after the base types if new.
+     *
+     * @param type The type, may be null.
+     * @return The code, or {@link CsrGraph#MISSING_TYPE} for null.
+     */
+    private int addTypeCode(String type) {
+        if (type == null) {
+            return CsrGraph.MISSING_TYPE;
+        }
+        int code = typeCode(type);
+        if (code != CsrGraph.MISSING_TYPE) {
+            return code;
+        }
+        code = baseTypes + addedTypes.size();
+        addedTypes.add(type);
+        addedTypeCodes.put(type, code);
+        return code;
+    }
+}
@@ -0,0 +1,275 @@
+package com.graphapp.projection;
+
+import com.graphapp.event.GraphMutationEvent;
+import com.graphapp.util.LongArrayList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Adjacency index that keeps the {@link GraphProjection} current as writes commit.
+ * <p>
+ * Committed {@link GraphMutationEvent}s are applied to an {@link AdjacencyDelta} over the
+ * current projection snapshot within the committing thread, so neighbor lookups through this
+ * index see a write as soon as its transaction has committed. In the background, the delta is
+ * compacted into a new snapshot which is installed into the projection, which brings the
+ * traversal and analytics queries that read snapshots up to date as well.
+ * <p>
+ * A compaction rebuilds the whole snapshot, and installing one discards the traversal
+ * workspaces and analytics results sized for the previous one, so the delta is only compacted
+ * once its changes reach a minimum count and a share of the snapshot's nodes and relationships,
+ * or once its oldest change reaches a maximum age. Until then, snapshot readers see the graph as
+ * of the last compaction.
+ * <p>
+ * Events are also kept in a log until a compacted snapshot includes them. When the projection
+ * is replaced by a reload, the delta is rebuilt over the new snapshot by replaying the log;
+ * replaying is idempotent, so writes that the reload already saw are not applied twice.
+ */
+@Component
+public class AdjacencyIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdjacencyIndex.class);
+
+    private final GraphProjection graphProjection;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final List<GraphMutationEvent> log = new ArrayList<>();
+    private AdjacencyDelta delta;
+    private long appliedEvents;
+    private long pendingSinceNanos;
+
+    private final int minChanges;
+    private final double changeRatio;
+    private final long maxAgeNanos;
+
+    private volatile long compactions;
+    private volatile long lastCompactionMillis;
+
+    /**
+     * Constructor for AdjacencyIndex.
+     *
+     * @param graphProjection The in-memory graph projection.
+     * @param minChanges The number of changes below which the delta is not compacted before its maximum age.
+     * @param changeRatio The share of the snapshot's nodes and relationships the changes must reach as well.
+     * @param maxAgeMillis The age of the oldest change after which the delta is compacted regardless of its size.
+     */
+    @Autowired
+    public AdjacencyIndex(GraphProjection graphProjection,
+                          @Value("${graph.projection.compaction-min-changes:10000}") int minChanges,
+                          @Value("${graph.projection.compaction-ratio:0.01}") double changeRatio,
+                          @Value("${graph.projection.compaction-max-age-ms:60000}") long maxAgeMillis) {
+        this.graphProjection = graphProjection;
+        this.minChanges = Math.max(1, minChanges);
+        this.changeRatio = changeRatio;
+        this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMillis);
+    }
+
+    /**
+     * Apply a committed change to the delta of the current snapshot.
+     *
+     * @param event The change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGraphMutation(GraphMutationEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (log.isEmpty()) {
+                pendingSinceNanos = System.nanoTime();
+            }
+            log.add(event);
+            appliedEvents++;
+            AdjacencyDelta current = currentDelta();
+            if (current != null) {
+                current.apply(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get the IDs of the nodes directly connected to a node, including committed changes
+     * that have not been compacted yet.
+     *
+     * @param nodeId The ID of the node.
+     * @param direction The direction in which to follow relationships.
+     * @param type The relationship type to follow, or null for all types.
+     * @return The distinct neighbor IDs, in adjacency order.
+     * @throws RuntimeException if the node is not in the projection.
+     */
+    public List<Long> getNeighborIds(long nodeId, Direction direction, String type) {
+        return read(current -> {
+            int node = current.indexOf(nodeId);
+            if (node < 0) {
+                throw new RuntimeException("Node not found with id: " + nodeId);
+            }
+            int typeCode = type != null ? current.typeCode(type) : CsrGraph.ANY_TYPE;
+            if (typeCode == CsrGraph.MISSING_TYPE) {
+                return new ArrayList<>();
+            }
+
+            LongArrayList neighbors = current.neighborIds(node, direction, typeCode);
+            Set<Long> neighborIds = new LinkedHashSet<>();
+            for (int i = 0; i < neighbors.size(); i++) {
+                neighborIds.add(neighbors.get(i));
+            }
+            return new ArrayList<>(neighborIds);
+        });
+    }
+
+    /**
+     * Get a summary of the changes not yet compacted into the projection.
+     *
+     * @return A map with the pending event, change, buffered relationship and tombstone counts,
+     *         the age of the oldest pending event, and the number and duration of compactions.
+     */
+    public Map<String, Object> getSummary() {
+        Map<String, Object> summary = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            summary.put("appliedEvents", appliedEvents);
+            summary.put("pendingEvents", log.size());
+            summary.put("pendingMillis", log.isEmpty() ? 0 : (System.nanoTime() - pendingSinceNanos) / 1_000_000);
+            summary.put("changes", delta != null ? delta.changes() : 0);
+            summary.put("bufferedRelationships", delta != null ? delta.bufferedRelationships() : 0);
+            summary.put("tombstones", delta != null ? delta.tombstones() : 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+        summary.put("compactions", compactions);
+        summary.put("lastCompactionMillis", lastCompactionMillis);
+        return summary;
+    }
+
+    /**
+     * Merge the pending changes into a new snapshot and install it into the projection, once
+     * they reach the size or age threshold.
+     * <p>
+     * The merge runs outside the lock on a private replay of the log, so writes and reads
+     * through the index continue meanwhile; the changes committed during the merge are then
+     * replayed onto the new snapshot. Holding the projection's monitor keeps a reload from
+     * running concurrently.
+     */
+    @Scheduled(fixedDelayString = "${graph.projection.compaction-interval-ms:1000}")
+    public void compact() {
+        synchronized (graphProjection) {
+            List<GraphMutationEvent> pending;
+            CsrGraph base;
+            lock.writeLock().lock();
+            try {
+                AdjacencyDelta current = currentDelta();
+                if (current == null || current.isEmpty()) {
+                    // Nothing loaded, or nothing changed: a later load or the snapshot already reflects the log
+                    log.clear();
+                    return;
+                }
+                if (!due(current)) {
+                    return;
+                }
+                pending = new ArrayList<>(log);
+                base = current.base();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            long start = System.nanoTime();
+            AdjacencyDelta replay = new AdjacencyDelta(base);
+            for (GraphMutationEvent event : pending) {
+                replay.apply(event);
+            }
+            CsrGraph compacted = replay.compact();
+
+            lock.writeLock().lock();
+            try {
+                graphProjection.install(compacted);
+                log.subList(0, pending.size()).clear();
+                if (!log.isEmpty()) {
+                    // Committed during the merge, so younger than this
+                    pendingSinceNanos = System.nanoTime();
+                }
+                delta = new AdjacencyDelta(compacted);
+                for (GraphMutationEvent event : log) {
+                    delta.apply(event);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            lastCompactionMillis = (System.nanoTime() - start) / 1_000_000;
+            compactions++;
+            logger.debug("Compacted {} graph changes into the projection in {} ms", pending.size(), lastCompactionMillis);
+        }
+    }
+
+    /**
+     * Check whether a delta is large or old enough to compact. Must be called with the write lock held.
+     *
+     * @param current The delta of the current snapshot.
+     * @return True if its changes reach both the minimum count and the share of the snapshot,
+     *         or its oldest change has reached the maximum age.
+     */
+    private boolean due(AdjacencyDelta current) {
+        CsrGraph base = current.base();
+        long threshold = Math.max(minChanges, (long) (changeRatio * ((long) base.nodeCount() + base.edgeCount())));
+        return current.changes() >= threshold || System.nanoTime() - pendingSinceNanos >= maxAgeNanos;
+    }
+
+    /**
+     * Run a lookup against the delta of the current snapshot, loading the projection if needed.
+     *
+     * @param reader The lookup.
+     * @param <T> The type of the result.
+     * @return The result.
+     */
+    private <T> T read(Function<AdjacencyDelta, T> reader) {
+        CsrGraph graph = graphProjection.getGraph();
+        lock.readLock().lock();
+        try {
+            if (delta != null && delta.base() == graph) {
+                return reader.apply(delta);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            return reader.apply(currentDelta());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get the delta of the current snapshot, rebuilding it from the log if the snapshot was
+     * replaced by a reload. Must be called with the write lock held.
+     *
+     * @return The delta, or null if the projection has not been loaded.
+     */
+    private AdjacencyDelta currentDelta() {
+        CsrGraph graph = graphProjection.getLoadedGraph();
+        if (graph == null) {
+            return null;
+        }
+        if (delta == null || delta.base() != graph) {
+            delta = new AdjacencyDelta(graph);
+            for (GraphMutationEvent event : log) {
+                delta.apply(event);
+            }
+        }
+        return delta;
+    }
+}
@@ -0,0 +1,447 @@
+package com.graphapp.projection;
+
+import com.graphapp.util.IntArrayList;
+import com.graphapp.util.LongArrayList;
+import com.graphapp.util.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable in-memory adjacency structure of the graph in compressed-sparse-row form.
+ * <p>
+ * Nodes are addressed by dense indexes in [0, {@link #nodeCount()}), mapped from Neo4j IDs.
+ * Relationships are stored once, sorted by source node, so the outgoing relationships of node
+ * {@code u} occupy the edge positions [{@link #outStart(int) outStart(u)}, {@link #outEnd(int) outEnd(u)}).
+ * A second CSR over target nodes references those positions for the incoming direction.
+ * Relationship types are dictionary-encoded. Apart from the ID map, the structure costs
+ * 24 bytes per relationship and 16 bytes per node, all in primitive arrays.
+ * <p>
+ * Instances are built with a {@link Builder} and are safe to read from any number of threads.
+ */
+public final class CsrGraph {
+
+    /**
+     * Type filter that matches relationships of every type.
+     */
+    public static final int ANY_TYPE = -1;
+
+    /**
+     * Code returned by {@link #typeCode(String)} for a type that does not occur in the graph,
+     * and stored for relationships without a type.
+     */
+    public static final int MISSING_TYPE = -2;
+
+    private final long[] nodeIds;
+    private final LongIntHashMap nodeIndexes;
+    private final String[] types;
+    private final Map<String, Integer> typeCodes;
+
+    // Outgoing CSR; edge positions index outTargets, edgeIds and edgeTypes
+    private final int[] outOffsets;
+    private final int[] outTargets;
+    private final long[] edgeIds;
+    private final int[] edgeTypes;
+
+    // Incoming CSR; inEdges holds the edge position of each incoming relationship
+    private final int[] inOffsets;
+    private final int[] inSources;
+    private final int[] inEdges;
+
+    private CsrGraph(long[] nodeIds, LongIntHashMap nodeIndexes, String[] types, Map<String, Integer> typeCodes,
+                     int[] outOffsets, int[] outTargets, long[] edgeIds, int[] edgeTypes,
+                     int[] inOffsets, int[] inSources, int[] inEdges) {
+        this.nodeIds = nodeIds;
+        this.nodeIndexes = nodeIndexes;
+        this.types = types;
+        this.typeCodes = typeCodes;
+        this.outOffsets = outOffsets;
+        this.outTargets = outTargets;
+        this.edgeIds = edgeIds;
+        this.edgeTypes = edgeTypes;
+        this.inOffsets = inOffsets;
+        this.inSources = inSources;
+        this.inEdges = inEdges;
+    }
+
+    /**
+     * Get the number of nodes.
+     *
+     * @return The node count.
+     */
+    public int nodeCount() {
+        return nodeIds.length;
+    }
+
+    /**
+     * Get the number of relationships.
+     *
+     * @return The relationship count.
+     */
+    public int edgeCount() {
+        return edgeIds.length;
+    }
+
+    /**
+     * Get the dense index of a node.
+     *
+     * @param nodeId The Neo4j ID of the node.
+     * @return The index, or {@link LongIntHashMap#MISSING} if the node is not in the graph.
+     */
+    public int indexOf(long nodeId) {
+        return nodeIndexes.get(nodeId);
+    }
+
+    /**
+     * Get the Neo4j ID of a node.
+     *
+     * @param node The index of the node.
+     * @return The ID.
+     */
+    public long nodeId(int node) {
+        return nodeIds[node];
+    }
+
+    /**
+     * Get the code of a relationship type.
+     *
+     * @param type The relationship type.
+     * @return The code, or {@link #MISSING_TYPE} if no relationship has the type.
+     */
+    public int typeCode(String type) {
+        Integer code = typeCodes.get(type);
+        return code != null ? code : MISSING_TYPE;
+    }
+
+    /**
+     * Get the relationship type for a code.
+     *
+     * @param code The code.
+     * @return The type, or null for {@link #MISSING_TYPE}.
+     */
+    public String type(int code) {
+        return code >= 0 ? types[code] : null;
+    }
+
+    /**
+     * Get the distinct relationship types, indexed by code.
+     *
+     * @return The list of types.
+     */
+    public List<String> types() {
+        return Collections.unmodifiableList(Arrays.asList(types));
+    }
+
+    /**
+     * Get the first edge position of a node's outgoing relationships.
+     *
+     * @param node The index of the node.
+     * @return The start position (inclusive).
+     */
+    public int outStart(int node) {
+        return outOffsets[node];
+    }
+
+    /**
+     * Get the end of a node's outgoing relationships.
+     *
+     * @param node The index of the node.
+     * @return The end position (exclusive).
+     */
+    public int outEnd(int node) {
+        return outOffsets[node + 1];
+    }
+
+    /**
+     * Get the target node of a relationship.
+     *
+     * @param edge The edge position.
+     * @return The index of the target node.
+     */
+    public int target(int edge) {
+        return outTargets[edge];
+    }
+
+    /**
+     * Get the Neo4j ID of a relationship.
+     *
+     * @param edge The edge position.
+     * @return The ID.
+     */
+    public long edgeId(int edge) {
+        return edgeIds[edge];
+    }
+
+    /**
+     * Get the type code of a relationship.
+     *
+     * @param edge The edge position.
+     * @return The type code, or {@link #MISSING_TYPE} if the relationship has no type.
+     */
+    public int edgeType(int edge) {
+        return edgeTypes[edge];
+    }
+
+    /**
+     * Get the first slot of a node's incoming relationships.
+     *
+     * @param node The index of the node.
+     * @return The start slot (inclusive).
+     */
+    public int inStart(int node) {
+        return inOffsets[node];
+    }
+
+    /**
+     * Get the end of a node's incoming relationships.
+     *
+     * @param node The index of the node.
+     * @return The end slot (exclusive).
+     */
+    public int inEnd(int node) {
+        return inOffsets[node + 1];
+    }
+
+    /**
+     * Get the source node of an incoming relationship.
+     *
+     * @param slot The incoming slot.
+     * @return The index of the source node.
+     */
+    public int inSource(int slot) {
+        return inSources[slot];
+    }
+
+    /**
+     * Get the edge position of an incoming relationship.
+     *
+     * @param slot The incoming slot.
+     * @return The edge position.
+     */
+    public int inEdge(int slot) {
+        return inEdges[slot];
+    }
+
+    /**
+     * Get the number of outgoing relationships of a node.
+     *
+     * @param node The index of the node.
+     * @return The out-degree.
+     */
+    public int outDegree(int node) {
+        return outOffsets[node + 1] - outOffsets[node];
+    }
+
+    /**
+     * Get the number of incoming relationships of a node.
+     *
+     * @param node The index of the node.
+     * @return The in-degree.
+     */
+    public int inDegree(int node) {
+        return inOffsets[node + 1] - inOffsets[node];
+    }
+
+    /**
+     * Get the neighbors of a node, one entry per matching relationship.
+     * A neighbor reached through several relationships appears several times.
+     *
+     * @param node The index of the node.
+     * @param direction The direction in which to follow relationships.
+     * @param type The type code to follow, or {@link #ANY_TYPE}.
+     * @return The indexes of the neighbors.
+     */
+    public int[] neighbors(int node, Direction direction, int type) {
+        IntArrayList result = new IntArrayList(Math.max(1, outDegree(node) + inDegree(node)));
+        if (direction != Direction.INCOMING) {
+            for (int edge = outOffsets[node], end = outOffsets[node + 1]; edge < end; edge++) {
+                if (type == ANY_TYPE || edgeTypes[edge] == type) {
+                    result.add(outTargets[edge]);
+                }
+            }
+        }
+        if (direction != Direction.OUTGOING) {
+            for (int slot = inOffsets[node], end = inOffsets[node + 1]; slot < end; slot++) {
+                if (type == ANY_TYPE || edgeTypes[inEdges[slot]] == type) {
+                    result.add(inSources[slot]);
+                }
+            }
+        }
+        return result.toArray();
+    }
+
+    /**
+     * Estimate the heap used by the arrays of this graph, including the ID map.
+     *
+     * @return The estimated size in bytes.
+     */
+    public long estimatedBytes() {
+        long nodes = nodeIds.length;
+        long edges = edgeIds.length;
+        // The ID map keeps its load factor at or below 0.5: at least 2 slots of 12 bytes per node
+        return nodes * Long.BYTES + nodes * 2 * (Long.BYTES + Integer.BYTES)
+                + 2 * (nodes + 1) * Integer.BYTES
+                + edges * (Long.BYTES + 4 * Integer.BYTES);
+    }
+
+    /**
+     * Builder that accumulates nodes and relationships and sorts them into CSR form.
+     * Not thread-safe.
+     */
+    public static class Builder {
+
+        private final LongIntHashMap nodeIndexes;
+        private final LongArrayList nodeIds;
+        private final LongArrayList relationshipIds;
+        private final IntArrayList relationshipTypes;
+        private final IntArrayList relationshipSources;
+        private final IntArrayList relationshipTargets;
+        private final Map<String, Integer> typeCodes = new HashMap<>();
+        private final List<String> types = new ArrayList<>();
+
+        /**
+         * Constructor with expected sizes.
+         *
+         * @param expectedNodes The expected number of nodes.
+         * @param expectedEdges The expected number of relationships.
+         */
+        public Builder(int expectedNodes, int expectedEdges) {
+            this.nodeIndexes = new LongIntHashMap(expectedNodes);
+            this.nodeIds = new LongArrayList(expectedNodes);
+            this.relationshipIds = new LongArrayList(expectedEdges);
+            this.relationshipTypes = new IntArrayList(expectedEdges);
+            this.relationshipSources = new IntArrayList(expectedEdges);
+            this.relationshipTargets = new IntArrayList(expectedEdges);
+        }
+
+        /**
+         * Default constructor.
+         */
+        public Builder() {
+            this(1024, 1024);
+        }
+
+        /**
+         * Add a node. Adding the same ID again has no effect.
+         *
+         * @param id The Neo4j ID of the node.
+         */
+        public void addNode(long id) {
+            if (!nodeIndexes.containsKey(id)) {
+                nodeIndexes.put(id, nodeIds.size());
+                nodeIds.add(id);
+            }
+        }
+
+        /**
+         * Add a relationship between two previously added nodes.
+         *
+         * @param id The Neo4j ID of the relationship.
+         * @param type The type of the relationship, may be null.
+         * @param sourceId The ID of the source node.
+         * @param targetId The ID of the target node.
+         * @return True if the relationship was added, false if an endpoint is unknown.
+         */
+        public boolean addRelationship(long id, String type, long sourceId, long targetId) {
+            int source = nodeIndexes.get(sourceId);
+            int target = nodeIndexes.get(targetId);
+            if (source == LongIntHashMap.MISSING || target == LongIntHashMap.MISSING) {
+                return false;
+            }
+            relationshipIds.add(id);
+            relationshipTypes.add(code(type));
+            relationshipSources.add(source);
+            relationshipTargets.add(target);
+            return true;
+        }
+
+        /**
+         * Add a relationship between nodes given by their builder indexes, with an encoded type.
+         * Used to copy relationships from an existing graph whose types were registered first,
+         * in code order, so their codes are unchanged.
+         *
+         * @param id The Neo4j ID of the relationship.
+         * @param typeCode The type code, as returned by {@link #code(String)}.
+         * @param source The index of the source node.
+         * @param target The index of the target node.
+         */
+        void addRelationship(long id, int typeCode, int source, int target) {
+            relationshipIds.add(id);
+            relationshipTypes.add(typeCode);
+            relationshipSources.add(source);
+            relationshipTargets.add(target);
+        }
+
+        /**
+         * Sort the accumulated relationships into CSR arrays.
+         * Relationships of a node keep the order in which they were added.
+         *
+         * @return The graph.
+         */
+        public CsrGraph build() {
+            int n = nodeIds.size();
+            int m = relationshipIds.size();
+
+            int[] outOffsets = new int[n + 1];
+            int[] inOffsets = new int[n + 1];
+            for (int i = 0; i < m; i++) {
+                outOffsets[relationshipSources.get(i) + 1]++;
+                inOffsets[relationshipTargets.get(i) + 1]++;
+            }
+            for (int u = 0; u < n; u++) {
+                outOffsets[u + 1] += outOffsets[u];
+                inOffsets[u + 1] += inOffsets[u];
+            }
+
+            int[] outTargets = new int[m];
+            long[] edgeIds = new long[m];
+            int[] edgeTypes = new int[m];
+            int[] cursor = new int[n];
+            System.arraycopy(outOffsets, 0, cursor, 0, n);
+            for (int i = 0; i < m; i++) {
+                int edge = cursor[relationshipSources.get(i)]++;
+                outTargets[edge] = relationshipTargets.get(i);
+                edgeIds[edge] = relationshipIds.get(i);
+                edgeTypes[edge] = relationshipTypes.get(i);
+            }
+
+            int[] inSources = new int[m];
+            int[] inEdges = new int[m];
+            System.arraycopy(inOffsets, 0, cursor, 0, n);
+            for (int u = 0; u < n; u++) {
+                for (int edge = outOffsets[u], end = outOffsets[u + 1]; edge < end; edge++) {
+                    int slot = cursor[outTargets[edge]]++;
+                    inSources[slot] = u;
+                    inEdges[slot] = edge;
+                }
+            }
+
+            return new CsrGraph(nodeIds.toArray(), nodeIndexes, types.toArray(new String[0]), new HashMap<>(typeCodes),
+                    outOffsets, outTargets, edgeIds, edgeTypes, inOffsets, inSources, inEdges);
+        }
+
+        /**
+         * Get the dictionary code of a relationship type, adding it if new.
+         *
+         * @param type The type, may be null.
+         * @return The code, or {@link #MISSING_TYPE} for null.
+         */
+        int code(String type) {
+            if (type == null) {
+                return MISSING_TYPE;
+            }
+            Integer existing = typeCodes.get(type);
+            if (existing != null) {
+                return existing;
+            }
+            int code = types.size();
+            types.add(type);
+            typeCodes.put(type, code);
+            return code;
+        }
+    }
+}
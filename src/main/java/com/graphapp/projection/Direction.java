@@ -0,0 +1,22 @@
+package com.graphapp.projection;
+
+/**
+ * Direction in which relationships are followed from a node.
+ */
+public enum Direction {
+
+    /**
+     * Follow relationships from their source to their target.
+     */
+    OUTGOING,
+
+    /**
+     * Follow relationships from their target to their source.
+     */
+    INCOMING,
+
+    /**
+     * Follow relationships either way.
+     */
+    BOTH
+}
@@ -0,0 +1,186 @@
+package com.graphapp.projection;
+
+import org.neo4j.driver.AccessMode;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
+import org.neo4j.driver.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-process projection of the Neo4j graph into a {@link CsrGraph}.
+ * <p>
+ * The graph is loaded with two streaming queries that fetch only IDs and relationship types,
+ * so neighborhood questions can be answered with array scans instead of Bolt round-trips and
+ * entity mapping. The projection is a snapshot: it is loaded at startup (if enabled) or on first
+ * use, and replaced atomically by {@link #refresh()}; readers keep the snapshot they obtained.
+ * Between reloads, {@link AdjacencyIndex} keeps it current by installing compacted snapshots
+ * that include the writes committed since.
+ */
+@Service
+public class GraphProjection {
+
+    private static final Logger logger = LoggerFactory.getLogger(GraphProjection.class);
+
+    private static final String NODE_IDS_QUERY = "MATCH (n:GraphNode) RETURN ID(n) AS id";
+    private static final String RELATIONSHIP_COLUMNS_QUERY =
+            "MATCH (a:GraphNode)-[r]->(b:GraphNode) RETURN ID(r) AS id, coalesce(r.type, type(r)) AS type, "
+                    + "ID(a) AS sourceId, ID(b) AS targetId";
+    // Answered from the count store; used only to size the builder
+    private static final String NODE_COUNT_QUERY = "MATCH (n:GraphNode) RETURN count(n) AS count";
+    private static final String RELATIONSHIP_COUNT_QUERY = "MATCH ()-[r]->() RETURN count(r) AS count";
+
+    private final Driver driver;
+    private final boolean loadOnStartup;
+
+    private volatile CsrGraph graph;
+    private volatile Instant loadedAt;
+    private volatile long loadMillis;
+
+    /**
+     * Constructor for GraphProjection.
+     *
+     * @param driver The Neo4j driver.
+     * @param loadOnStartup Whether the projection is loaded when the application is ready rather than on first use.
+     */
+    @Autowired
+    public GraphProjection(Driver driver, @Value("${graph.projection.load-on-startup:true}") boolean loadOnStartup) {
+        this.driver = driver;
+        this.loadOnStartup = loadOnStartup;
+    }
+
+    /**
+     * Load the projection once the application is ready, if enabled.
+     * Failures are logged and the projection is loaded on first use instead.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!loadOnStartup) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            logger.warn("Graph projection not loaded at startup, will load on first use: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Get the current projection, loading it if it has not been loaded yet.
+     *
+     * @return The graph.
+     * @throws RuntimeException if loading from Neo4j fails.
+     */
+    public CsrGraph getGraph() {
+        CsrGraph current = graph;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            return graph != null ? graph : refresh();
+        }
+    }
+
+    /**
+     * Get the current projection without loading it.
+     *
+     * @return The graph, or null if it has not been loaded.
+     */
+    public CsrGraph getLoadedGraph() {
+        return graph;
+    }
+
+    /**
+     * Replace the current projection with one derived from it, such as a compaction of
+     * the changes committed since it was loaded.
+     *
+     * @param derived The new graph.
+     */
+    synchronized void install(CsrGraph derived) {
+        graph = derived;
+    }
+
+    /**
+     * Reload the projection from Neo4j and replace the current one.
+     *
+     * @return The new graph.
+     * @throws RuntimeException if loading from Neo4j fails.
+     */
+    public synchronized CsrGraph refresh() {
+        long start = System.nanoTime();
+        CsrGraph loaded = load();
+        loadMillis = (System.nanoTime() - start) / 1_000_000;
+        loadedAt = Instant.now();
+        graph = loaded;
+        logger.info("Graph projection loaded: {} nodes, {} relationships, ~{} KB in {} ms",
+                loaded.nodeCount(), loaded.edgeCount(), loaded.estimatedBytes() / 1024, loadMillis);
+        return loaded;
+    }
+
+    /**
+     * Get a summary of the current projection.
+     *
+     * @return A map with the node and relationship counts, estimated size and load timing,
+     *         or only {@code loaded=false} if the projection has not been loaded.
+     */
+    public Map<String, Object> getSummary() {
+        CsrGraph current = graph;
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("loaded", current != null);
+        if (current != null) {
+            summary.put("nodes", current.nodeCount());
+            summary.put("relationships", current.edgeCount());
+            summary.put("relationshipTypes", current.types());
+            summary.put("estimatedBytes", current.estimatedBytes());
+            summary.put("loadedAt", loadedAt);
+            summary.put("loadMillis", loadMillis);
+        }
+        return summary;
+    }
+
+    /**
+     * Stream node IDs and relationship columns from Neo4j into a new graph.
+     *
+     * @return The graph.
+     */
+    private CsrGraph load() {
+        try (Session session = driver.session(SessionConfig.builder()
+                .withDefaultAccessMode(AccessMode.READ)
+                .build());
+             Transaction tx = session.beginTransaction()) {
+            CsrGraph.Builder builder = new CsrGraph.Builder(
+                    tx.run(NODE_COUNT_QUERY).single().get("count").asInt(),
+                    tx.run(RELATIONSHIP_COUNT_QUERY).single().get("count").asInt());
+
+            Result nodes = tx.run(NODE_IDS_QUERY);
+            while (nodes.hasNext()) {
+                builder.addNode(nodes.next().get("id").asLong());
+            }
+
+            Result relationships = tx.run(RELATIONSHIP_COLUMNS_QUERY);
+            while (relationships.hasNext()) {
+                Record record = relationships.next();
+                builder.addRelationship(
+                        record.get("id").asLong(),
+                        record.get("type").asString(null),
+                        record.get("sourceId").asLong(),
+                        record.get("targetId").asLong());
+            }
+
+            tx.commit();
+            return builder.build();
+        }
+    }
+}
@@ -0,0 +1,505 @@
+package com.graphapp.projection;
+
+import com.graphapp.dto.TraversalResult;
+import com.graphapp.util.IntArrayList;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Shortest-path and k-hop neighborhood queries over the in-memory {@link GraphProjection}.
+ * <p>
+ * Shortest paths use a level-synchronous bidirectional breadth-first search that always expands
+ * the smaller frontier, so a path of length {@code d} touches roughly two balls of radius
+ * {@code d / 2} rather than one of radius {@code d}. Visited sets are bitsets and parents are
+ * int arrays, held in workspaces that are pooled and reused across queries; a workspace is reset
+ * by clearing only the entries it touched, so the hot path neither allocates nor scans the
+ * whole graph. Only the result arrays are allocated per query.
+ */
+@Component
+public class GraphTraversal {
+
+    private static final int NO_PARENT = -1;
+
+    private final GraphProjection graphProjection;
+    private final int maxDepth;
+    private final int maxResults;
+    private final Queue<Workspace> workspaces = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Constructor for GraphTraversal.
+     *
+     * @param graphProjection The in-memory graph projection.
+     * @param maxDepth The largest path length or neighborhood depth a caller may request.
+     * @param maxResults The maximum number of nodes returned by a neighborhood query.
+     */
+    @Autowired
+    public GraphTraversal(GraphProjection graphProjection,
+                          @Value("${graph.traversal.max-depth:8}") int maxDepth,
+                          @Value("${graph.query.max-results:10000}") int maxResults) {
+        this.graphProjection = graphProjection;
+        this.maxDepth = maxDepth;
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Find a shortest path between two nodes.
+     *
+     * @param fromId The ID of the start node.
+     * @param toId The ID of the end node.
+     * @param depth The maximum path length.
+     * @param direction The direction in which relationships may be followed from start to end.
+     * @param types The relationship types that may be followed, or null or empty for all types.
+     * @return The path, or an empty Optional if there is none within the given length.
+     * @throws IllegalArgumentException if the depth is out of range.
+     * @throws RuntimeException if either node is not in the projection.
+     */
+    public Optional<TraversalResult> findShortestPath(long fromId, long toId, int depth, Direction direction,
+                                                      List<String> types) {
+        checkDepth(depth);
+        CsrGraph graph = graphProjection.getGraph();
+        int source = indexOf(graph, fromId);
+        int target = indexOf(graph, toId);
+        if (source == target) {
+            return Optional.of(new TraversalResult(new long[] {fromId}, new long[0], 0, false));
+        }
+        boolean[] typeMask = typeMask(graph, types);
+
+        Workspace workspace = acquire(graph);
+        try {
+            workspace.visitForward(source, NO_PARENT);
+            workspace.forwardFrontier.add(source);
+            workspace.visitBackward(target, NO_PARENT);
+            workspace.backwardFrontier.add(target);
+
+            int forwardDepth = 0;
+            int backwardDepth = 0;
+            int meeting = NO_PARENT;
+            while (meeting == NO_PARENT && forwardDepth + backwardDepth < depth
+                    && workspace.forwardFrontier.size() > 0 && workspace.backwardFrontier.size() > 0) {
+                if (workspace.forwardFrontier.size() <= workspace.backwardFrontier.size()) {
+                    meeting = expand(graph, workspace.forwardFrontier, workspace.next, direction, typeMask,
+                            workspace.forwardVisited, workspace.forwardParent, workspace.forwardTouched,
+                            workspace.backwardVisited);
+                    workspace.swapForward();
+                    forwardDepth++;
+                } else {
+                    meeting = expand(graph, workspace.backwardFrontier, workspace.next, reverse(direction), typeMask,
+                            workspace.backwardVisited, workspace.backwardParent, workspace.backwardTouched,
+                            workspace.forwardVisited);
+                    workspace.swapBackward();
+                    backwardDepth++;
+                }
+            }
+            if (meeting == NO_PARENT) {
+                return Optional.empty();
+            }
+            return Optional.of(buildPath(graph, workspace, source, target, meeting, direction, typeMask));
+        } finally {
+            release(workspace);
+        }
+    }
+
+    /**
+     * Get the nodes within a number of hops of a node, and the relationships traversed to reach them.
+     * The result is cut off at the configured maximum number of nodes.
+     *
+     * @param nodeId The ID of the center node.
+     * @param depth The number of hops.
+     * @param direction The direction in which relationships are followed.
+     * @param types The relationship types that may be followed, or null or empty for all types.
+     * @return The neighborhood, with nodes in breadth-first order starting with the center.
+     * @throws IllegalArgumentException if the depth is out of range.
+     * @throws RuntimeException if the node is not in the projection.
+     */
+    public TraversalResult getNeighborhood(long nodeId, int depth, Direction direction, List<String> types) {
+        checkDepth(depth);
+        CsrGraph graph = graphProjection.getGraph();
+        int center = indexOf(graph, nodeId);
+        boolean[] typeMask = typeMask(graph, types);
+
+        Workspace workspace = acquire(graph);
+        try {
+            workspace.visitForward(center, NO_PARENT);
+            workspace.forwardFrontier.add(center);
+            IntArrayList nodes = workspace.forwardTouched;
+            IntArrayList edges = workspace.touchedEdges;
+
+            int level = 0;
+            boolean truncated = false;
+            while (level < depth && workspace.forwardFrontier.size() > 0 && !truncated) {
+                IntArrayList frontier = workspace.forwardFrontier;
+                workspace.next.clear();
+                for (int i = 0, n = frontier.size(); i < n && !truncated; i++) {
+                    int u = frontier.get(i);
+                    if (direction != Direction.INCOMING) {
+                        for (int edge = graph.outStart(u), end = graph.outEnd(u); edge < end; edge++) {
+                            if (allowed(typeMask, graph.edgeType(edge))) {
+                                truncated |= !reach(workspace, u, graph.target(edge), edge);
+                            }
+                        }
+                    }
+                    if (direction != Direction.OUTGOING) {
+                        for (int slot = graph.inStart(u), end = graph.inEnd(u); slot < end; slot++) {
+                            int edge = graph.inEdge(slot);
+                            if (allowed(typeMask, graph.edgeType(edge))) {
+                                truncated |= !reach(workspace, u, graph.inSource(slot), edge);
+                            }
+                        }
+                    }
+                }
+                workspace.swapForward();
+                level++;
+            }
+
+            long[] nodeIds = new long[nodes.size()];
+            for (int i = 0; i < nodeIds.length; i++) {
+                nodeIds[i] = graph.nodeId(nodes.get(i));
+            }
+            long[] relationshipIds = new long[edges.size()];
+            for (int i = 0; i < relationshipIds.length; i++) {
+                relationshipIds[i] = graph.edgeId(edges.get(i));
+            }
+            return new TraversalResult(nodeIds, relationshipIds, level, truncated);
+        } finally {
+            release(workspace);
+        }
+    }
+
+    /**
+     * Record a relationship reached from an expanded neighborhood node, and its far end if new.
+     *
+     * @param workspace The workspace.
+     * @param from The index of the expanded node.
+     * @param to The index of the node at the far end.
+     * @param edge The edge position of the relationship.
+     * @return False if the far end is new but the node limit has been reached.
+     */
+    private boolean reach(Workspace workspace, int from, int to, int edge) {
+        if (!workspace.forwardVisited.get(to)) {
+            if (workspace.forwardTouched.size() >= maxResults) {
+                return false;
+            }
+            workspace.visitForward(to, from);
+            workspace.next.add(to);
+        }
+        if (!workspace.edgeVisited.get(edge)) {
+            workspace.edgeVisited.set(edge);
+            workspace.touchedEdges.add(edge);
+        }
+        return true;
+    }
+
+    /**
+     * Expand one level of one side of the bidirectional search.
+     *
+     * @param graph The graph.
+     * @param frontier The nodes of the current level.
+     * @param next The list to collect the nodes of the next level in.
+     * @param direction The direction in which this side follows relationships.
+     * @param typeMask The allowed type codes, or null for all types.
+     * @param visited The nodes visited by this side.
+     * @param parent The parent of each node visited by this side.
+     * @param touched The nodes visited by this side, in visiting order.
+     * @param opposite The nodes visited by the other side.
+     * @return The first node reached that the other side has visited, or {@link #NO_PARENT} if none.
+     */
+    private int expand(CsrGraph graph, IntArrayList frontier, IntArrayList next, Direction direction,
+                       boolean[] typeMask, BitSet visited, int[] parent, IntArrayList touched, BitSet opposite) {
+        next.clear();
+        for (int i = 0, n = frontier.size(); i < n; i++) {
+            int u = frontier.get(i);
+            if (direction != Direction.INCOMING) {
+                for (int edge = graph.outStart(u), end = graph.outEnd(u); edge < end; edge++) {
+                    int v = graph.target(edge);
+                    if (!visited.get(v) && allowed(typeMask, graph.edgeType(edge))) {
+                        visited.set(v);
+                        parent[v] = u;
+                        touched.add(v);
+                        next.add(v);
+                        if (opposite.get(v)) {
+                            return v;
+                        }
+                    }
+                }
+            }
+            if (direction != Direction.OUTGOING) {
+                for (int slot = graph.inStart(u), end = graph.inEnd(u); slot < end; slot++) {
+                    int v = graph.inSource(slot);
+                    if (!visited.get(v) && allowed(typeMask, graph.edgeType(graph.inEdge(slot)))) {
+                        visited.set(v);
+                        parent[v] = u;
+                        touched.add(v);
+                        next.add(v);
+                        if (opposite.get(v)) {
+                            return v;
+                        }
+                    }
+                }
+            }
+        }
+        return NO_PARENT;
+    }
+
+    /**
+     * Assemble the path through the meeting node from the parents recorded by both sides.
+     *
+     * @param graph The graph.
+     * @param workspace The workspace holding the parents.
+     * @param source The index of the start node.
+     * @param target The index of the end node.
+     * @param meeting The index of the node where the two searches met.
+     * @param direction The direction in which relationships are followed from start to end.
+     * @param typeMask The allowed type codes, or null for all types.
+     * @return The path.
+     */
+    private TraversalResult buildPath(CsrGraph graph, Workspace workspace, int source, int target, int meeting,
+                                      Direction direction, boolean[] typeMask) {
+        int forwardLength = 0;
+        for (int v = meeting; v != source; v = workspace.forwardParent[v]) {
+            forwardLength++;
+        }
+        int backwardLength = 0;
+        for (int v = meeting; v != target; v = workspace.backwardParent[v]) {
+            backwardLength++;
+        }
+
+        int[] path = new int[forwardLength + backwardLength + 1];
+        int v = meeting;
+        for (int i = forwardLength; i >= 0; i--) {
+            path[i] = v;
+            v = i > 0 ? workspace.forwardParent[v] : v;
+        }
+        v = meeting;
+        for (int i = forwardLength; i < path.length; i++) {
+            path[i] = v;
+            v = i < path.length - 1 ? workspace.backwardParent[v] : v;
+        }
+
+        long[] nodeIds = new long[path.length];
+        long[] relationshipIds = new long[path.length - 1];
+        for (int i = 0; i < path.length; i++) {
+            nodeIds[i] = graph.nodeId(path[i]);
+            if (i > 0) {
+                relationshipIds[i - 1] = graph.edgeId(findEdge(graph, path[i - 1], path[i], direction, typeMask));
+            }
+        }
+        return new TraversalResult(nodeIds, relationshipIds, relationshipIds.length, false);
+    }
+
+    /**
+     * Find a relationship that the search could have followed from one node to another.
+     *
+     * @param graph The graph.
+     * @param from The index of the node the step starts at.
+     * @param to The index of the node the step ends at.
+     * @param direction The direction in which relationships are followed.
+     * @param typeMask The allowed type codes, or null for all types.
+     * @return The edge position.
+     */
+    private int findEdge(CsrGraph graph, int from, int to, Direction direction, boolean[] typeMask) {
+        if (direction != Direction.INCOMING) {
+            for (int edge = graph.outStart(from), end = graph.outEnd(from); edge < end; edge++) {
+                if (graph.target(edge) == to && allowed(typeMask, graph.edgeType(edge))) {
+                    return edge;
+                }
+            }
+        }
+        if (direction != Direction.OUTGOING) {
+            for (int slot = graph.inStart(from), end = graph.inEnd(from); slot < end; slot++) {
+                if (graph.inSource(slot) == to && allowed(typeMask, graph.edgeType(graph.inEdge(slot)))) {
+                    return graph.inEdge(slot);
+                }
+            }
+        }
+        throw new IllegalStateException("No relationship between node indexes " + from + " and " + to);
+    }
+
+    /**
+     * Get the dense index of a node.
+     *
+     * @param graph The graph.
+     * @param nodeId The ID of the node.
+     * @return The index.
+     * @throws RuntimeException if the node is not in the graph.
+     */
+    private int indexOf(CsrGraph graph, long nodeId) {
+        int index = graph.indexOf(nodeId);
+        if (index < 0) {
+            throw new RuntimeException("Node not found with id: " + nodeId);
+        }
+        return index;
+    }
+
+    /**
+     * Validate a requested depth.
+     *
+     * @param depth The depth.
+     * @throws IllegalArgumentException if the depth is negative or above the configured maximum.
+     */
+    private void checkDepth(int depth) {
+        if (depth < 0 || depth > maxDepth) {
+            throw new IllegalArgumentException("Depth must be between 0 and " + maxDepth + ": " + depth);
+        }
+    }
+
+    /**
+     * Build the mask of allowed relationship type codes.
+     *
+     * @param graph The graph.
+     * @param types The type names, or null or empty for all types.
+     * @return The mask indexed by type code, or null if all types are allowed.
+     */
+    private boolean[] typeMask(CsrGraph graph, List<String> types) {
+        if (types == null || types.isEmpty()) {
+            return null;
+        }
+        boolean[] mask = new boolean[graph.types().size()];
+        for (String type : types) {
+            int code = graph.typeCode(type.trim());
+            if (code >= 0) {
+                mask[code] = true;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Check whether a relationship type may be followed.
+     *
+     * @param typeMask The allowed type codes, or null for all types.
+     * @param type The type code of the relationship.
+     * @return True if the relationship may be followed.
+     */
+    private static boolean allowed(boolean[] typeMask, int type) {
+        return typeMask == null || (type >= 0 && typeMask[type]);
+    }
+
+    /**
+     * Get the opposite of a direction.
+     *
+     * @param direction The direction.
+     * @return The reversed direction.
+     */
+    private static Direction reverse(Direction direction) {
+        switch (direction) {
+            case OUTGOING:
+                return Direction.INCOMING;
+            case INCOMING:
+                return Direction.OUTGOING;
+            default:
+                return Direction.BOTH;
+        }
+    }
+
+    /**
+     * Take a pooled workspace sized for the graph, or create one.
+     *
+     * @param graph The graph.
+     * @return The workspace.
+     */
+    private Workspace acquire(CsrGraph graph) {
+        Workspace workspace;
+        while ((workspace = workspaces.poll()) != null) {
+            // Workspaces sized for a previous snapshot are dropped
+            if (workspace.fits(graph)) {
+                return workspace;
+            }
+        }
+        return new Workspace(graph.nodeCount(), graph.edgeCount());
+    }
+
+    /**
+     * Reset a workspace and return it to the pool.
+     *
+     * @param workspace The workspace.
+     */
+    private void release(Workspace workspace) {
+        workspace.reset();
+        workspaces.offer(workspace);
+    }
+
+    /**
+     * Reusable per-query state: visited bitsets, parent arrays and frontiers.
+     * Only the entries recorded in the touched lists are non-default, so a reset costs
+     * time proportional to the size of the previous query rather than of the graph.
+     */
+    private static class Workspace {
+
+        private final int nodeCount;
+        private final int edgeCount;
+        private final BitSet forwardVisited;
+        private final BitSet backwardVisited;
+        private final BitSet edgeVisited;
+        private final int[] forwardParent;
+        private final int[] backwardParent;
+        private final IntArrayList forwardTouched = new IntArrayList(1024);
+        private final IntArrayList backwardTouched = new IntArrayList(1024);
+        private final IntArrayList touchedEdges = new IntArrayList(1024);
+        private IntArrayList forwardFrontier = new IntArrayList(1024);
+        private IntArrayList backwardFrontier = new IntArrayList(1024);
+        private IntArrayList next = new IntArrayList(1024);
+
+        Workspace(int nodeCount, int edgeCount) {
+            this.nodeCount = nodeCount;
+            this.edgeCount = edgeCount;
+            this.forwardVisited = new BitSet(nodeCount);
+            this.backwardVisited = new BitSet(nodeCount);
+            this.edgeVisited = new BitSet(edgeCount);
+            this.forwardParent = new int[nodeCount];
+            this.backwardParent = new int[nodeCount];
+        }
+
+        boolean fits(CsrGraph graph) {
+            return nodeCount == graph.nodeCount() && edgeCount == graph.edgeCount();
+        }
+
+        void visitForward(int node, int parent) {
+            forwardVisited.set(node);
+            forwardParent[node] = parent;
+            forwardTouched.add(node);
+        }
+
+        void visitBackward(int node, int parent) {
+            backwardVisited.set(node);
+            backwardParent[node] = parent;
+            backwardTouched.add(node);
+        }
+
+        void swapForward() {
+            IntArrayList frontier = forwardFrontier;
+            forwardFrontier = next;
+            next = frontier;
+        }
+
+        void swapBackward() {
+            IntArrayList frontier = backwardFrontier;
+            backwardFrontier = next;
+            next = frontier;
+        }
+
+        void reset() {
+            for (int i = 0, n = forwardTouched.size(); i < n; i++) {
+                forwardVisited.clear(forwardTouched.get(i));
+            }
+            for (int i = 0, n = backwardTouched.size(); i < n; i++) {
+                backwardVisited.clear(backwardTouched.get(i));
+            }
+            for (int i = 0, n = touchedEdges.size(); i < n; i++) {
+                edgeVisited.clear(touchedEdges.get(i));
+            }
+            forwardTouched.clear();
+            backwardTouched.clear();
+            touchedEdges.clear();
+            forwardFrontier.clear();
+            backwardFrontier.clear();
+            next.clear();
+        }
+    }
+}
@@ -96,4 +96,28 @@ public interface NodeRepository extends Neo4jRepository<GraphNode, Long> {
     @Query("MATCH (n)-[r:$relationshipType]-(m) WHERE ID(m) = $nodeId RETURN DISTINCT n")
     List<GraphNode> findConnectedNodesByRelationshipType(@Param("nodeId") Long nodeId, 
                                                   @Param("relationshipType") String relationshipType);
+    
+    /**
+     * Find a page of nodes ordered by ID, starting after the given ID.
+     * 
+     * @param after The ID after which the page starts (exclusive).
+     * @param limit The maximum number of nodes to return.
+     * @return The list of nodes.
+     */
+    @Query("MATCH (n:GraphNode) WHERE ID(n) > $after RETURN n ORDER BY ID(n) ASC LIMIT $limit")
+    List<GraphNode> findPageAfter(@Param("after") long after, @Param("limit") int limit);
+    
+    /**
+     * Search nodes through a full-text index, most relevant first.
+     * 
+     * @param indexName The name of the full-text index.
+     * @param query The Lucene query.
+     * @param limit The maximum number of nodes to return.
+     * @return The list of nodes ordered by relevance score.
+     */
+    @Query("CALL db.index.fulltext.queryNodes($indexName, $query) YIELD node, score " +
+           "RETURN node ORDER BY score DESC LIMIT $limit")
+    List<GraphNode> searchNodesFullText(@Param("indexName") String indexName,
+                                        @Param("query") String query,
+                                        @Param("limit") int limit);
 }
\ No newline at end of file
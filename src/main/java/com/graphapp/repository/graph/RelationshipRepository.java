@@ -7,6 +7,7 @@ import org.springframework.data.neo4j.repository.query.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -58,6 +59,17 @@ public interface RelationshipRepository extends Neo4jRepository<Relationship, Lo
     @Query("MATCH (a)-[r]->(b) WHERE ID(a) = $nodeId OR ID(b) = $nodeId RETURN r")
     List<Relationship> findByNodeId(@Param("nodeId") Long nodeId);
     
+    /**
+     * Get the ID, type and endpoint IDs of every relationship of a node, without mapping entities.
+     * 
+     * @param nodeId The ID of the node.
+     * @return The list of maps with id, type, sourceId and targetId.
+     */
+    @Query("MATCH (n)-[r]-() WHERE ID(n) = $nodeId " +
+           "RETURN DISTINCT ID(r) AS id, coalesce(r.type, type(r)) AS type, " +
+           "ID(startNode(r)) AS sourceId, ID(endNode(r)) AS targetId")
+    List<Map<String, Object>> findColumnsByNodeId(@Param("nodeId") Long nodeId);
+    
     /**
      * Search relationships by type or properties.
      * 
@@ -67,6 +79,19 @@ public interface RelationshipRepository extends Neo4jRepository<Relationship, Lo
     @Query("MATCH (a)-[r]->(b) WHERE r.type CONTAINS $query RETURN r, a, b")
     List<Relationship> searchRelationships(@Param("query") String query);
     
+    /**
+     * Search relationships of some types by type.
+     * 
+     * @param query The search query.
+     * @param types The relationship types to scan.
+     * @param limit The maximum number of relationships to return.
+     * @return The list of relationships.
+     */
+    @Query("MATCH (a)-[r]->(b) WHERE type(r) IN $types AND r.type CONTAINS $query RETURN r, a, b LIMIT $limit")
+    List<Relationship> searchRelationshipsOfTypes(@Param("query") String query,
+                                                  @Param("types") Collection<String> types,
+                                                  @Param("limit") int limit);
+    
     /**
      * Find relationships with a specific property value.
      * 
@@ -93,4 +118,30 @@ public interface RelationshipRepository extends Neo4jRepository<Relationship, Lo
      */
     @Query("MATCH (a)-[r]->(b) RETURN r, a, b")
     List<Relationship> findAllWithNodes();
+    
+    /**
+     * Find a page of relationships with their source and target nodes ordered by ID,
+     * starting after the given ID.
+     * 
+     * @param after The ID after which the page starts (exclusive).
+     * @param limit The maximum number of relationships to return.
+     * @return The list of relationships.
+     */
+    @Query("MATCH (a)-[r]->(b) WHERE ID(r) > $after RETURN r, a, b ORDER BY ID(r) ASC LIMIT $limit")
+    List<Relationship> findPageAfter(@Param("after") long after, @Param("limit") int limit);
+    
+    /**
+     * Search relationships through a full-text index, most relevant first.
+     * 
+     * @param indexName The name of the full-text index.
+     * @param query The Lucene query.
+     * @param limit The maximum number of relationships to return.
+     * @return The list of relationships ordered by relevance score.
+     */
+    @Query("CALL db.index.fulltext.queryRelationships($indexName, $query) YIELD relationship, score " +
+           "WITH relationship AS r, score MATCH (a)-[r]->(b) " +
+           "RETURN r, a, b ORDER BY score DESC LIMIT $limit")
+    List<Relationship> searchRelationshipsFullText(@Param("indexName") String indexName,
+                                                   @Param("query") String query,
+                                                   @Param("limit") int limit);
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.graphapp.repository.relational;
 
+import com.graphapp.dto.ProjectSummary;
 import com.graphapp.model.relational.Project;
 import com.graphapp.model.relational.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -83,13 +85,49 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
     List<Project> searchProjects(@Param("query") String query);
     
     /**
-     * Find recent projects up to the given limit.
+     * Search projects by name or description, returning at most one page.
+     * Used for queries too short for the full-text index.
      * 
+     * @param query The search query.
+     * @param pageable The page to return.
+     * @return The list of projects.
+     */
+    @Query("SELECT p FROM Project p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(p.description) LIKE LOWER(CONCAT('%', :query, '%'))")
+    List<Project> searchProjects(@Param("query") String query, Pageable pageable);
+    
+    /**
+     * Search projects through the projects_fts full-text index, most relevant first.
+     * 
+     * @param match The FTS5 match expression.
      * @param limit The maximum number of projects to return.
      * @return The list of projects.
      */
-    @Query("SELECT p FROM Project p ORDER BY p.updatedAt DESC")
-    List<Project> findRecentProjects(@Param("limit") int limit);
+    @Query(value = "SELECT p.* FROM projects p JOIN projects_fts f ON f.rowid = p.id " +
+                   "WHERE projects_fts MATCH :match ORDER BY bm25(projects_fts) LIMIT :limit", nativeQuery = true)
+    List<Project> searchProjectsFullText(@Param("match") String match, @Param("limit") int limit);
+    
+    /**
+     * Find the most recently updated projects, with their users, most recent first.
+     * Ordered to match the ix_projects_updated_at index, so only the page is read.
+     * 
+     * @param pageable The page to return.
+     * @return The list of projects.
+     */
+    @Query("SELECT p FROM Project p LEFT JOIN FETCH p.user ORDER BY p.updatedAt DESC, p.id DESC")
+    List<Project> findRecentProjects(Pageable pageable);
+    
+    /**
+     * Find a page of project summaries ordered by ID, with their users' IDs and usernames.
+     * Selects only the summary columns in one statement, without loading entities.
+     * 
+     * @param afterId The ID after which the page starts.
+     * @param pageable The page size.
+     * @return The list of project summaries.
+     */
+    @Query("SELECT new com.graphapp.dto.ProjectSummary(p.id, p.name, p.description, p.createdAt, p.updatedAt, " +
+           "u.id, u.username) FROM Project p LEFT JOIN p.user u WHERE p.id > :afterId ORDER BY p.id")
+    List<ProjectSummary> findSummariesAfter(@Param("afterId") long afterId, Pageable pageable);
     
     /**
      * Find projects by user and created after the given date.
@@ -102,10 +140,18 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
     List<Project> findByUserIdAndCreatedAtAfter(@Param("userId") Long userId, @Param("date") LocalDateTime date);
     
     /**
-     * Count projects by user.
+     * Count projects by user, skipping projects without a user.
      * 
-     * @return The map of user ID to project count.
+     * @return The rows of user ID and project count.
      */
-    @Query("SELECT p.user.id, COUNT(p) FROM Project p GROUP BY p.user.id")
+    @Query("SELECT p.user.id, COUNT(p) FROM Project p WHERE p.user IS NOT NULL GROUP BY p.user.id")
     List<Object[]> countProjectsByUser();
+    
+    /**
+     * Count the distinct users that have projects.
+     * 
+     * @return The number of users with at least one project.
+     */
+    @Query("SELECT COUNT(DISTINCT p.user.id) FROM Project p")
+    long countDistinctUsers();
 }
\ No newline at end of file
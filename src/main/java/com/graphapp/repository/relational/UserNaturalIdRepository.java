@@ -0,0 +1,20 @@
+package com.graphapp.repository.relational;
+
+import com.graphapp.model.relational.User;
+
+import java.util.Optional;
+
+/**
+ * Lookups of User entities by their natural ID, the username.
+ * Unlike derived queries, these are resolved through the second-level natural-id cache.
+ */
+public interface UserNaturalIdRepository {
+    
+    /**
+     * Find a user by username.
+     * 
+     * @param username The username.
+     * @return An Optional containing the user if found.
+     */
+    Optional<User> findByUsername(String username);
+}
@@ -0,0 +1,24 @@
+package com.graphapp.repository.relational;
+
+import com.graphapp.model.relational.User;
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Optional;
+
+/**
+ * Implementation of {@link UserNaturalIdRepository} over the Hibernate session.
+ */
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
+    }
+}
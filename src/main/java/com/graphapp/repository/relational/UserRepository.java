@@ -1,34 +1,36 @@
 package com.graphapp.repository.relational;
 
+import com.graphapp.dto.UserSummary;
 import com.graphapp.model.relational.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository for User entities in the relational database.
+ * Lookups by username come from {@link UserNaturalIdRepository}.
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-    
-    /**
-     * Find a user by username.
-     * 
-     * @param username The username.
-     * @return An Optional containing the user if found.
-     */
-    Optional<User> findByUsername(String username);
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
     
     /**
      * Find a user by email.
+     * The result is kept in the query cache until the users table is next written.
      * 
      * @param email The email.
      * @return An Optional containing the user if found.
      */
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHE_REGION, value = "relational.users.emails")
+    })
     Optional<User> findByEmail(String email);
     
     /**
@@ -84,6 +86,44 @@ public interface UserRepository extends JpaRepository<User, Long> {
            "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :query, '%'))")
     List<User> searchUsers(@Param("query") String query);
     
+    /**
+     * Search users by username, email, first name, or last name, returning at most one page.
+     * Used for queries too short for the full-text index.
+     * 
+     * @param query The search query.
+     * @param pageable The page to return.
+     * @return The list of users.
+     */
+    @Query("SELECT u FROM User u WHERE LOWER(u.username) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(u.email) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :query, '%'))")
+    List<User> searchUsers(@Param("query") String query, Pageable pageable);
+    
+    /**
+     * Search users through the users_fts full-text index, most relevant first.
+     * 
+     * @param match The FTS5 match expression.
+     * @param limit The maximum number of users to return.
+     * @return The list of users.
+     */
+    @Query(value = "SELECT u.* FROM users u JOIN users_fts f ON f.rowid = u.id " +
+                   "WHERE users_fts MATCH :match ORDER BY bm25(users_fts) LIMIT :limit", nativeQuery = true)
+    List<User> searchUsersFullText(@Param("match") String match, @Param("limit") int limit);
+    
+    /**
+     * Find a page of user summaries ordered by ID, with the number of projects of each user.
+     * Selects only the summary columns in one statement, without loading entities.
+     * 
+     * @param afterId The ID after which the page starts.
+     * @param pageable The page size.
+     * @return The list of user summaries.
+     */
+    @Query("SELECT new com.graphapp.dto.UserSummary(u.id, u.username, u.email, u.firstName, u.lastName, COUNT(p.id)) " +
+           "FROM User u LEFT JOIN u.projects p WHERE u.id > :afterId " +
+           "GROUP BY u.id, u.username, u.email, u.firstName, u.lastName ORDER BY u.id")
+    List<UserSummary> findSummariesAfter(@Param("afterId") long afterId, Pageable pageable);
+    
     /**
      * Find users that have projects.
      * 
@@ -0,0 +1,424 @@
+package com.graphapp.search;
+
+import com.graphapp.event.GraphMutationEvent;
+import com.graphapp.model.graph.GraphNode;
+import com.graphapp.model.graph.Relationship;
+import com.graphapp.repository.graph.NodeRepository;
+import com.graphapp.repository.graph.RelationshipRepository;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Search engine for graph data backed by Neo4j full-text indexes.
+ * <p>
+ * At startup it creates (or recreates, if their definition changed) one full-text index
+ * over node {@code label}, {@code type} and the configured dynamic properties, and one over the
+ * {@code type} of every relationship type present in the database. Full-text indexes only index
+ * string properties, so the {@code labels} list is not searchable.
+ * Queries go through {@code db.index.fulltext.queryNodes/queryRelationships}, ordered by
+ * relevance score and limited. If the indexes cannot be created, searches fall back to the
+ * repository {@code CONTAINS} scans.
+ * <p>
+ * A full-text index covers only the relationship types it was created for. Committed writes of
+ * other relationship types are noted, and on a fixed delay a new index over all known types is
+ * created under the alternate name while the current one keeps serving; once the new index is
+ * online it replaces the current one. Relationship searches query the online index for the types
+ * it covers and scan only the types it does not. Neither startup nor the update waits for an
+ * index to be populated, and a new index is not attempted again after a number of failed builds.
+ */
+@Component
+public class GraphSearchEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(GraphSearchEngine.class);
+
+    // Prefix used for the entries of the dynamic properties map when stored on Neo4j entities
+    private static final String PROPERTIES_PREFIX = "properties.";
+
+    // Characters with a special meaning in the Lucene query syntax
+    private static final String LUCENE_SPECIAL_CHARACTERS = "+-&|!(){}[]^\"~*?:\\/";
+
+    // Suffix of the name a relationship index is built under while the current one serves
+    private static final String ALTERNATE_SUFFIX = "Next";
+
+    private static final List<String> RELATIONSHIP_PROPERTIES = Collections.singletonList("type");
+
+    private final Driver driver;
+    private final NodeRepository nodeRepository;
+    private final RelationshipRepository relationshipRepository;
+    private final String nodeIndexName;
+    private final String relationshipIndexName;
+    private final List<String> nodeProperties;
+    private final int limit;
+    private final int maxFailedBuilds;
+    private final Set<String> relationshipTypes = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean nodeIndexAvailable;
+    private volatile RelationshipIndex relationshipIndex;
+
+    // Guarded by this
+    private RelationshipIndex buildingIndex;
+    private int failedBuilds;
+
+    /**
+     * Constructor for GraphSearchEngine.
+     *
+     * @param driver The Neo4j driver.
+     * @param nodeRepository The node repository.
+     * @param relationshipRepository The relationship repository.
+     * @param nodeIndexName The name of the node full-text index.
+     * @param relationshipIndexName The name of the relationship full-text index.
+     * @param dynamicProperties The keys of the dynamic node properties to index.
+     * @param limit The maximum number of results returned per entity kind.
+     * @param maxFailedBuilds The number of failed relationship index builds after which no new one is attempted.
+     */
+    @Autowired
+    public GraphSearchEngine(Driver driver, NodeRepository nodeRepository, RelationshipRepository relationshipRepository,
+                             @Value("${graph.search.node-index:graphNodeSearch}") String nodeIndexName,
+                             @Value("${graph.search.relationship-index:graphRelationshipSearch}") String relationshipIndexName,
+                             @Value("${graph.search.node-properties:}") List<String> dynamicProperties,
+                             @Value("${graph.search.limit:100}") int limit,
+                             @Value("${graph.search.max-failed-index-builds:3}") int maxFailedBuilds) {
+        this.driver = driver;
+        this.nodeRepository = nodeRepository;
+        this.relationshipRepository = relationshipRepository;
+        this.nodeIndexName = nodeIndexName;
+        this.relationshipIndexName = relationshipIndexName;
+        this.limit = limit;
+        this.maxFailedBuilds = maxFailedBuilds;
+
+        List<String> properties = new ArrayList<>();
+        properties.add("label");
+        properties.add("type");
+        dynamicProperties.stream()
+                .map(String::trim)
+                .filter(key -> !key.isEmpty())
+                .forEach(key -> properties.add(PROPERTIES_PREFIX + key));
+        this.nodeProperties = Collections.unmodifiableList(properties);
+    }
+
+    /**
+     * Create the full-text indexes if they are missing or out of date, without waiting for them
+     * to be populated. Runs once the application is ready; failures are logged and searches fall
+     * back to scans.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        try (Session session = driver.session()) {
+            ensureIndex(session, nodeIndexName, Collections.singletonList("GraphNode"), nodeProperties, false);
+            nodeIndexAvailable = true;
+
+            relationshipTypes.addAll(session.run("CALL db.relationshipTypes() YIELD relationshipType "
+                    + "RETURN relationshipType").list(record -> record.get(0).asString()));
+            adoptRelationshipIndex(session);
+            updateRelationshipIndex(session);
+        } catch (RuntimeException e) {
+            logger.warn("Full-text indexes unavailable, graph search will scan: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Note the relationship type of a committed write.
+     *
+     * @param event The change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGraphMutation(GraphMutationEvent event) {
+        if (event.isNodeEvent() || event.getKind() == GraphMutationEvent.Kind.RELATIONSHIP_DELETED) {
+            return;
+        }
+        if (event.getType() != null) {
+            relationshipTypes.add(event.getType());
+        }
+    }
+
+    /**
+     * Check on the relationship index being built, or start building one if relationship types
+     * have been written that the current index does not cover. Failures are logged and retried
+     * on the next update.
+     */
+    @Scheduled(fixedDelayString = "${graph.search.index-update-interval-ms:10000}",
+            initialDelayString = "${graph.search.index-update-interval-ms:10000}")
+    public void scheduledUpdateRelationshipIndex() {
+        try (Session session = driver.session()) {
+            updateRelationshipIndex(session);
+        } catch (RuntimeException e) {
+            logger.warn("Relationship full-text index not updated, will retry on the next update: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Search nodes by label, type and the indexed dynamic properties.
+     *
+     * @param query The raw search text.
+     * @return The matching nodes, most relevant first.
+     */
+    public List<GraphNode> searchNodes(String query) {
+        if (!nodeIndexAvailable) {
+            return nodeRepository.searchNodes(query);
+        }
+        String luceneQuery = toLuceneQuery(query);
+        if (luceneQuery.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return nodeRepository.searchNodesFullText(nodeIndexName, luceneQuery, limit);
+    }
+
+    /**
+     * Search relationships by type: through the index for the types it covers, followed by a
+     * scan of the types it does not cover yet.
+     *
+     * @param query The raw search text.
+     * @return The matching relationships with their source and target nodes, most relevant first.
+     */
+    public List<Relationship> searchRelationships(String query) {
+        RelationshipIndex index = relationshipIndex;
+        if (index == null) {
+            return relationshipRepository.searchRelationships(query);
+        }
+        String luceneQuery = toLuceneQuery(query);
+        if (luceneQuery.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Relationship> relationships = new ArrayList<>(
+                relationshipRepository.searchRelationshipsFullText(index.name, luceneQuery, limit));
+        List<String> uncovered = relationshipTypes.stream()
+                .filter(type -> !index.types.contains(type))
+                .collect(Collectors.toList());
+        if (!uncovered.isEmpty() && relationships.size() < limit) {
+            relationships.addAll(relationshipRepository.searchRelationshipsOfTypes(
+                    query.trim(), uncovered, limit - relationships.size()));
+        }
+        return relationships;
+    }
+
+    /**
+     * Convert raw search text into a Lucene query where every term must match as a prefix.
+     * Terms are lower-cased because wildcard terms bypass the index analyzer.
+     *
+     * @param query The raw search text.
+     * @return The Lucene query, or an empty string if the text has no terms.
+     */
+    String toLuceneQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        List<String> terms = new ArrayList<>();
+        for (String term : query.trim().toLowerCase().split("\\s+")) {
+            if (term.isEmpty()) {
+                continue;
+            }
+            StringBuilder escaped = new StringBuilder(term.length() + 2);
+            for (char c : term.toCharArray()) {
+                if (LUCENE_SPECIAL_CHARACTERS.indexOf(c) >= 0) {
+                    escaped.append('\\');
+                }
+                escaped.append(c);
+            }
+            terms.add(escaped.append('*').toString());
+        }
+        return String.join(" AND ", terms);
+    }
+
+    /**
+     * Take over a relationship index left online by a previous run under either name, and drop
+     * any other, which was still being built when that run stopped.
+     *
+     * @param session The Neo4j session.
+     */
+    private synchronized void adoptRelationshipIndex(Session session) {
+        for (Record index : fulltextIndexes(session)) {
+            String name = index.get("name").asString();
+            if (!name.equals(relationshipIndexName) && !name.equals(relationshipIndexName + ALTERNATE_SUFFIX)) {
+                continue;
+            }
+            if (relationshipIndex == null && "ONLINE".equals(index.get("state").asString())
+                    && asSet(index.get("properties")).equals(new HashSet<>(RELATIONSHIP_PROPERTIES))) {
+                relationshipIndex = new RelationshipIndex(name, asSet(index.get("labelsOrTypes")));
+            } else {
+                dropIndex(session, name);
+            }
+        }
+    }
+
+    /**
+     * Install the relationship index being built once it is online, or start building one over
+     * every known relationship type if the current index does not cover them all.
+     *
+     * @param session The Neo4j session.
+     */
+    private synchronized void updateRelationshipIndex(Session session) {
+        if (buildingIndex != null) {
+            String state = indexState(session, buildingIndex.name);
+            if ("ONLINE".equals(state)) {
+                RelationshipIndex previous = relationshipIndex;
+                relationshipIndex = buildingIndex;
+                buildingIndex = null;
+                failedBuilds = 0;
+                if (previous != null) {
+                    dropIndex(session, previous.name);
+                }
+                logger.info("Relationship full-text index {} online on {}", relationshipIndex.name, relationshipIndex.types);
+            } else if (state == null || "FAILED".equals(state)) {
+                failedBuilds++;
+                logger.warn("Relationship full-text index {} failed to build ({} of {} attempts)",
+                        buildingIndex.name, failedBuilds, maxFailedBuilds);
+                dropIndex(session, buildingIndex.name);
+                buildingIndex = null;
+            } else {
+                return;
+            }
+        }
+
+        Set<String> types = new HashSet<>(relationshipTypes);
+        RelationshipIndex current = relationshipIndex;
+        if (types.isEmpty() || (current != null && current.types.containsAll(types)) || failedBuilds >= maxFailedBuilds) {
+            return;
+        }
+        String name = current != null && current.name.equals(relationshipIndexName)
+                ? relationshipIndexName + ALTERNATE_SUFFIX
+                : relationshipIndexName;
+        try {
+            dropIndex(session, name);
+            createIndex(session, name, new ArrayList<>(types), RELATIONSHIP_PROPERTIES, true);
+        } catch (RuntimeException e) {
+            failedBuilds++;
+            throw e;
+        }
+        buildingIndex = new RelationshipIndex(name, types);
+    }
+
+    /**
+     * Create a full-text index, dropping it first if an index with the same name
+     * exists over different labels/types or properties.
+     *
+     * @param session The Neo4j session.
+     * @param name The index name.
+     * @param labelsOrTypes The node labels or relationship types to index.
+     * @param properties The properties to index.
+     * @param relationships True for a relationship index, false for a node index.
+     */
+    private void ensureIndex(Session session, String name, List<String> labelsOrTypes, List<String> properties,
+                             boolean relationships) {
+        List<Record> existing = fulltextIndexes(session).stream()
+                .filter(record -> record.get("name").asString().equals(name))
+                .collect(Collectors.toList());
+
+        if (!existing.isEmpty()) {
+            Record index = existing.get(0);
+            if (asSet(index.get("labelsOrTypes")).equals(new HashSet<>(labelsOrTypes))
+                    && asSet(index.get("properties")).equals(new HashSet<>(properties))) {
+                return;
+            }
+            logger.info("Recreating full-text index {} with updated definition", name);
+            dropIndex(session, name);
+        }
+
+        createIndex(session, name, labelsOrTypes, properties, relationships);
+    }
+
+    /**
+     * Create a full-text index. The index is populated in the background.
+     *
+     * @param session The Neo4j session.
+     * @param name The index name.
+     * @param labelsOrTypes The node labels or relationship types to index.
+     * @param properties The properties to index.
+     * @param relationships True for a relationship index, false for a node index.
+     */
+    private void createIndex(Session session, String name, List<String> labelsOrTypes, List<String> properties,
+                             boolean relationships) {
+        String entities = labelsOrTypes.stream().map(this::quote).collect(Collectors.joining("|"));
+        String pattern = relationships ? "()-[e:" + entities + "]-()" : "(e:" + entities + ")";
+        String indexed = properties.stream().map(property -> "e." + quote(property)).collect(Collectors.joining(", "));
+        session.run("CREATE FULLTEXT INDEX " + quote(name) + " IF NOT EXISTS FOR " + pattern
+                + " ON EACH [" + indexed + "]").consume();
+        logger.info("Created full-text index {} on {}", name, labelsOrTypes);
+    }
+
+    /**
+     * Drop an index if it exists.
+     *
+     * @param session The Neo4j session.
+     * @param name The index name.
+     */
+    private void dropIndex(Session session, String name) {
+        session.run("DROP INDEX " + quote(name) + " IF EXISTS").consume();
+    }
+
+    /**
+     * List the full-text indexes of the database.
+     *
+     * @param session The Neo4j session.
+     * @return The name, state, labels or types and properties of each index.
+     */
+    private List<Record> fulltextIndexes(Session session) {
+        return session.run("SHOW FULLTEXT INDEXES YIELD name, state, labelsOrTypes, properties").list();
+    }
+
+    /**
+     * Get the state of a full-text index.
+     *
+     * @param session The Neo4j session.
+     * @param name The index name.
+     * @return The state, such as POPULATING, ONLINE or FAILED, or null if there is no such index.
+     */
+    private String indexState(Session session, String name) {
+        return fulltextIndexes(session).stream()
+                .filter(record -> record.get("name").asString().equals(name))
+                .map(record -> record.get("state").asString())
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Convert a list value into a set of strings.
+     *
+     * @param value The list value.
+     * @return The set of strings.
+     */
+    private Set<String> asSet(org.neo4j.driver.Value value) {
+        return value.isNull() ? Collections.emptySet() : new HashSet<>(value.asList(org.neo4j.driver.Value::asString));
+    }
+
+    /**
+     * Quote a schema name or property key as a Cypher identifier.
+     *
+     * @param identifier The identifier.
+     * @return The backtick-quoted identifier.
+     */
+    private String quote(String identifier) {
+        return "`" + identifier.replace("`", "``") + "`";
+    }
+
+    /**
+     * Name of a relationship index and the relationship types it covers.
+     */
+    private static final class RelationshipIndex {
+
+        private final String name;
+        private final Set<String> types;
+
+        RelationshipIndex(String name, Set<String> types) {
+            this.name = name;
+            this.types = Collections.unmodifiableSet(new HashSet<>(types));
+        }
+    }
+}
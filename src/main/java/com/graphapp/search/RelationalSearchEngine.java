@@ -0,0 +1,213 @@
+package com.graphapp.search;
+
+import com.graphapp.config.DatabaseConfig;
+import com.graphapp.model.relational.Project;
+import com.graphapp.model.relational.User;
+import com.graphapp.repository.relational.ProjectRepository;
+import com.graphapp.repository.relational.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Search engine for users and projects backed by SQLite FTS5 indexes.
+ * <p>
+ * At startup it creates an external-content FTS5 table with the trigram tokenizer for each
+ * searchable table, plus insert/update/delete triggers that keep it in sync, and rebuilds the
+ * index from the content table when it is first created. The trigram tokenizer gives the same
+ * case-insensitive substring semantics as the {@code LIKE '%query%'} scans it replaces, but
+ * resolves matches from the index and ranks them by bm25. Queries shorter than three characters
+ * cannot be answered by trigrams and fall back to a limited {@code LIKE} scan, as do all queries
+ * if the indexes could not be created.
+ */
+@Component
+public class RelationalSearchEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(RelationalSearchEngine.class);
+
+    // Shortest query the trigram tokenizer can match
+    private static final int MIN_TRIGRAM_QUERY_LENGTH = 3;
+
+    private static final FtsTable USERS_FTS =
+            new FtsTable("users", "users_fts", "username", "email", "first_name", "last_name");
+    private static final FtsTable PROJECTS_FTS =
+            new FtsTable("projects", "projects_fts", "name", "description");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final ProjectRepository projectRepository;
+    private final int limit;
+
+    private volatile boolean indexesAvailable;
+
+    /**
+     * Constructor for RelationalSearchEngine.
+     *
+     * @param jdbcTemplate The JDBC template used to create the indexes.
+     * @param transactionManager The JPA transaction manager, so the indexes are created on the writer connection.
+     * @param userRepository The user repository.
+     * @param projectRepository The project repository.
+     * @param limit The maximum number of results returned per search.
+     */
+    @Autowired
+    public RelationalSearchEngine(JdbcTemplate jdbcTemplate,
+                                  @Qualifier(DatabaseConfig.TRANSACTION_MANAGER) PlatformTransactionManager transactionManager,
+                                  UserRepository userRepository, ProjectRepository projectRepository,
+                                  @Value("${relational.search.limit:100}") int limit) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userRepository = userRepository;
+        this.projectRepository = projectRepository;
+        this.limit = limit;
+    }
+
+    /**
+     * Create the FTS5 indexes and their triggers if they are missing.
+     * Runs once the application is ready, after the schema has been created.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        try {
+            ensureIndex(USERS_FTS);
+            ensureIndex(PROJECTS_FTS);
+            indexesAvailable = true;
+        } catch (RuntimeException e) {
+            logger.warn("FTS5 indexes unavailable, relational search will scan: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Search users by username, email, first name, or last name.
+     *
+     * @param query The raw search text.
+     * @return The matching users, most relevant first.
+     */
+    public List<User> searchUsers(String query) {
+        String text = query == null ? "" : query.trim();
+        if (text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (!indexesAvailable || text.length() < MIN_TRIGRAM_QUERY_LENGTH) {
+            return userRepository.searchUsers(text, PageRequest.of(0, limit));
+        }
+        return userRepository.searchUsersFullText(toMatchExpression(text), limit);
+    }
+
+    /**
+     * Search projects by name or description.
+     *
+     * @param query The raw search text.
+     * @return The matching projects, most relevant first.
+     */
+    public List<Project> searchProjects(String query) {
+        String text = query == null ? "" : query.trim();
+        if (text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (!indexesAvailable || text.length() < MIN_TRIGRAM_QUERY_LENGTH) {
+            return projectRepository.searchProjects(text, PageRequest.of(0, limit));
+        }
+        return projectRepository.searchProjectsFullText(toMatchExpression(text), limit);
+    }
+
+    /**
+     * Convert raw search text into an FTS5 match expression.
+     * The text is quoted as a single string so FTS5 operators in it are matched literally,
+     * which with the trigram tokenizer means a substring match in any indexed column.
+     *
+     * @param text The search text.
+     * @return The match expression.
+     */
+    private String toMatchExpression(String text) {
+        return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Create an FTS5 table and its sync triggers, rebuilding the index if the table is new.
+     * Runs in one read-write transaction, so the statements go to the writer connection and a
+     * partially created index is rolled back.
+     *
+     * @param fts The FTS table definition.
+     */
+    private void ensureIndex(FtsTable fts) {
+        transactionTemplate.executeWithoutResult(status -> createIndex(fts));
+    }
+
+    /**
+     * Run the statements of {@link #ensureIndex} within its transaction.
+     *
+     * @param fts The FTS table definition.
+     */
+    private void createIndex(FtsTable fts) {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM sqlite_master WHERE type = 'table' AND name = ?", Integer.class, fts.name);
+
+        for (String statement : fts.ddl()) {
+            jdbcTemplate.execute(statement);
+        }
+
+        if (existing == null || existing == 0) {
+            jdbcTemplate.execute("INSERT INTO " + fts.name + "(" + fts.name + ") VALUES ('rebuild')");
+            logger.info("Created and populated FTS5 index {} on {}", fts.name, fts.content);
+        }
+    }
+
+    /**
+     * Definition of an external-content FTS5 table over a subset of a table's columns.
+     */
+    private static class FtsTable {
+
+        private final String content;
+        private final String name;
+        private final List<String> columns;
+
+        FtsTable(String content, String name, String... columns) {
+            this.content = content;
+            this.name = name;
+            this.columns = Arrays.asList(columns);
+        }
+
+        /**
+         * Get the idempotent DDL for the FTS table and the triggers that keep it in sync.
+         *
+         * @return The DDL statements.
+         */
+        List<String> ddl() {
+            String columnList = String.join(", ", columns);
+            String newValues = prefixed("new.");
+            String oldValues = prefixed("old.");
+            String insert = "INSERT INTO " + name + "(rowid, " + columnList + ") VALUES (new.id, " + newValues + ");";
+            String delete = "INSERT INTO " + name + "(" + name + ", rowid, " + columnList + ") "
+                    + "VALUES ('delete', old.id, " + oldValues + ");";
+
+            return Arrays.asList(
+                    "CREATE VIRTUAL TABLE IF NOT EXISTS " + name + " USING fts5(" + columnList
+                            + ", content='" + content + "', content_rowid='id', tokenize='trigram')",
+                    "CREATE TRIGGER IF NOT EXISTS " + name + "_ai AFTER INSERT ON " + content
+                            + " BEGIN " + insert + " END",
+                    "CREATE TRIGGER IF NOT EXISTS " + name + "_ad AFTER DELETE ON " + content
+                            + " BEGIN " + delete + " END",
+                    "CREATE TRIGGER IF NOT EXISTS " + name + "_au AFTER UPDATE ON " + content
+                            + " BEGIN " + delete + " " + insert + " END");
+        }
+
+        private String prefixed(String prefix) {
+            return columns.stream().map(column -> prefix + column).collect(Collectors.joining(", "));
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.graphapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.graphapp.dto.BulkWriteResult;
+import com.graphapp.dto.NodeDto;
+import com.graphapp.dto.RelationshipDto;
+import com.graphapp.event.GraphMutationEvent;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Service for bulk-loading graph data.
+ * Input is parsed incrementally and written in batches, each batch in one transaction
+ * using parameterized {@code UNWIND} statements. Once a batch commits, a {@link GraphMutationEvent}
+ * is published for each node or relationship it created, so the projection, caches and statistics
+ * see bulk loads as they see individual writes.
+ */
+@Service
+public class GraphBulkService {
+
+    private static final String CREATE_NODES_QUERY =
+            "UNWIND $rows AS row " +
+            "CREATE (n:GraphNode) " +
+            "SET n.label = row.label, n.type = row.type, n.labels = row.labels, n += row.properties " +
+            "RETURN ID(n) AS id";
+
+    // Relationship types cannot be parameterized in Cypher, so one statement is issued
+    // per distinct type in a batch, with the validated type spliced in
+    private static final String CREATE_RELATIONSHIPS_QUERY =
+            "UNWIND $rows AS row " +
+            "MATCH (a) WHERE ID(a) = row.s " +
+            "MATCH (b) WHERE ID(b) = row.t " +
+            "CREATE (a)-[r:`%s`]->(b) " +
+            "SET r += row.properties, r.type = row.type " +
+            "RETURN row.i AS index, ID(r) AS id";
+
+    private static final Pattern RELATIONSHIP_TYPE_PATTERN = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    // Prefix used for the entries of the dynamic properties map when stored on Neo4j entities
+    private static final String PROPERTIES_PREFIX = "properties.";
+
+    private static final int MAX_BATCH_SIZE = 50000;
+
+    private final Driver driver;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int defaultBatchSize;
+
+    /**
+     * Constructor for GraphBulkService.
+     *
+     * @param driver The Neo4j driver.
+     * @param objectMapper The object mapper used to parse the input.
+     * @param eventPublisher The publisher of graph mutation events.
+     * @param defaultBatchSize The number of rows written per batch when the caller does not specify one.
+     */
+    @Autowired
+    public GraphBulkService(Driver driver, ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher,
+                            @Value("${graph.bulk.batch-size:5000}") int defaultBatchSize) {
+        this.driver = driver;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.defaultBatchSize = defaultBatchSize;
+    }
+
+    /**
+     * Create nodes from a JSON array or newline-delimited JSON stream of nodes.
+     * The input is never materialized; only the current batch is held in memory.
+     * Parsing stops at the first malformed row, which is reported as an error;
+     * batches written before that point remain committed.
+     *
+     * @param input The input stream.
+     * @param batchSize The number of rows per batch, or null for the configured default.
+     * @return The report of created IDs, errors, and per-batch timing.
+     * @throws IOException if reading the input fails.
+     */
+    public BulkWriteResult createNodes(InputStream input, Integer batchSize) throws IOException {
+        int size = resolveBatchSize(batchSize);
+        BulkWriteResult result = new BulkWriteResult();
+        long start = System.nanoTime();
+
+        ObjectReader reader = objectMapper.readerFor(NodeDto.class);
+        try (Session session = driver.session();
+             MappingIterator<NodeDto> nodes = reader.readValues(input)) {
+            List<Map<String, Object>> rows = new ArrayList<>(size);
+            long index = 0;
+            try {
+                while (nodes.hasNextValue()) {
+                    rows.add(toNodeRow(nodes.nextValue()));
+                    index++;
+                    if (rows.size() == size) {
+                        writeNodeBatch(session, rows, result);
+                        rows.clear();
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                result.addError(index, "Malformed input: " + e.getOriginalMessage());
+            }
+            if (!rows.isEmpty()) {
+                writeNodeBatch(session, rows, result);
+            }
+        }
+
+        result.setTotalMillis((System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * Create relationships from a JSON array or newline-delimited JSON stream of relationships
+     * referencing their endpoints by {@code sourceId} and {@code targetId}.
+     * Endpoints are resolved inside the write statement, so each batch costs one statement
+     * per distinct relationship type and no lookups. Rows with a missing or invalid type,
+     * or whose endpoints do not exist, are reported as errors without aborting the batch.
+     *
+     * @param input The input stream.
+     * @param batchSize The number of rows per batch, or null for the configured default.
+     * @return The report of created IDs, errors, and per-batch timing.
+     * @throws IOException if reading the input fails.
+     */
+    public BulkWriteResult createRelationships(InputStream input, Integer batchSize) throws IOException {
+        int size = resolveBatchSize(batchSize);
+        BulkWriteResult result = new BulkWriteResult();
+        long start = System.nanoTime();
+
+        ObjectReader reader = objectMapper.readerFor(RelationshipDto.class);
+        try (Session session = driver.session();
+             MappingIterator<RelationshipDto> relationships = reader.readValues(input)) {
+            List<Map<String, Object>> rows = new ArrayList<>(size);
+            long index = 0;
+            try {
+                while (relationships.hasNextValue()) {
+                    RelationshipDto relationship = relationships.nextValue();
+                    String error = validateRelationship(relationship);
+                    if (error != null) {
+                        result.addError(index, error);
+                    } else {
+                        rows.add(toRelationshipRow(index, relationship));
+                    }
+                    index++;
+                    if (rows.size() == size) {
+                        writeRelationshipBatch(session, rows, result);
+                        rows.clear();
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                result.addError(index, "Malformed input: " + e.getOriginalMessage());
+            }
+            if (!rows.isEmpty()) {
+                writeRelationshipBatch(session, rows, result);
+            }
+        }
+
+        result.setTotalMillis((System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * Write one batch of node rows in a single transaction.
+     *
+     * @param session The Neo4j session.
+     * @param rows The rows to write.
+     * @param result The result to record the batch in.
+     */
+    private void writeNodeBatch(Session session, List<Map<String, Object>> rows, BulkWriteResult result) {
+        long start = System.nanoTime();
+        Map<String, Object> parameters = Collections.singletonMap("rows", rows);
+        List<Long> ids = session.writeTransaction(tx ->
+                tx.run(CREATE_NODES_QUERY, parameters).list(record -> record.get("id").asLong()));
+        // UNWIND ... CREATE returns one ID per row, in row order
+        for (int i = 0; i < ids.size(); i++) {
+            Map<String, Object> row = rows.get(i);
+            eventPublisher.publishEvent(GraphMutationEvent.nodeCreated(ids.get(i), (String) row.get("type"), (String) row.get("label")));
+        }
+        result.addBatch(ids, rows.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Write one batch of relationship rows in a single transaction.
+     * Rows that produced no relationship had a missing source or target node.
+     *
+     * @param session The Neo4j session.
+     * @param rows The rows to write.
+     * @param result The result to record the batch and errors in.
+     */
+    private void writeRelationshipBatch(Session session, List<Map<String, Object>> rows, BulkWriteResult result) {
+        long start = System.nanoTime();
+
+        Map<String, List<Map<String, Object>>> rowsByType = new LinkedHashMap<>();
+        for (Map<String, Object> row : rows) {
+            rowsByType.computeIfAbsent((String) row.get("type"), type -> new ArrayList<>()).add(row);
+        }
+
+        Map<Long, Long> createdByIndex = session.writeTransaction(tx -> {
+            Map<Long, Long> created = new HashMap<>();
+            for (Map.Entry<String, List<Map<String, Object>>> group : rowsByType.entrySet()) {
+                String query = String.format(CREATE_RELATIONSHIPS_QUERY, group.getKey());
+                for (Record record : tx.run(query, Collections.singletonMap("rows", group.getValue())).list()) {
+                    created.put(record.get("index").asLong(), record.get("id").asLong());
+                }
+            }
+            return created;
+        });
+
+        List<Long> ids = new ArrayList<>(createdByIndex.size());
+        for (Map<String, Object> row : rows) {
+            long index = (Long) row.get("i");
+            Long id = createdByIndex.get(index);
+            if (id != null) {
+                ids.add(id);
+                eventPublisher.publishEvent(GraphMutationEvent.relationshipCreated(id, (String) row.get("type"),
+                        (Long) row.get("s"), (Long) row.get("t")));
+            } else {
+                result.addError(index, "Source or target node not found");
+            }
+        }
+        result.addBatch(ids, rows.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Check that a relationship row has a valid type and both endpoint IDs.
+     *
+     * @param relationship The relationship.
+     * @return The error message, or null if the row is valid.
+     */
+    private String validateRelationship(RelationshipDto relationship) {
+        if (relationship.getSourceId() == null) {
+            return "Source node is required";
+        }
+        if (relationship.getTargetId() == null) {
+            return "Target node is required";
+        }
+        if (relationship.getType() == null || !RELATIONSHIP_TYPE_PATTERN.matcher(relationship.getType()).matches()) {
+            return "Invalid relationship type: " + relationship.getType();
+        }
+        return null;
+    }
+
+    /**
+     * Convert a relationship into a query parameter row.
+     *
+     * @param index The zero-based index of the row in the input.
+     * @param relationship The relationship.
+     * @return The row.
+     */
+    private Map<String, Object> toRelationshipRow(long index, RelationshipDto relationship) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("i", index);
+        row.put("s", relationship.getSourceId());
+        row.put("t", relationship.getTargetId());
+        row.put("type", relationship.getType());
+        row.put("properties", toPropertyMap(relationship.getProperties()));
+        return row;
+    }
+
+    /**
+     * Convert a node into a query parameter row, flattening its properties map
+     * into prefixed keys the same way the entity mapping stores them.
+     *
+     * @param node The node.
+     * @return The row.
+     */
+    private Map<String, Object> toNodeRow(NodeDto node) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("label", node.getLabel());
+        row.put("type", node.getType());
+        row.put("labels", node.getLabels());
+        row.put("properties", toPropertyMap(node.getProperties()));
+        return row;
+    }
+
+    /**
+     * Flatten a dynamic properties map into prefixed Neo4j property keys.
+     * Non-primitive values are stored as their string representation.
+     *
+     * @param properties The properties, may be null.
+     * @return The flattened properties.
+     */
+    private Map<String, Object> toPropertyMap(Map<String, Object> properties) {
+        Map<String, Object> flattened = new HashMap<>();
+        if (properties == null) {
+            return flattened;
+        }
+        for (Map.Entry<String, Object> entry : properties.entrySet()) {
+            Object value = entry.getValue();
+            if (value == null) {
+                continue;
+            }
+            if (!(value instanceof String || value instanceof Number || value instanceof Boolean)) {
+                value = value.toString();
+            }
+            flattened.put(PROPERTIES_PREFIX + entry.getKey(), value);
+        }
+        return flattened;
+    }
+
+    /**
+     * Resolve the effective batch size.
+     *
+     * @param batchSize The requested batch size, or null for the default.
+     * @return The batch size, clamped to [1, {@link #MAX_BATCH_SIZE}].
+     */
+    private int resolveBatchSize(Integer batchSize) {
+        int size = batchSize != null ? batchSize : defaultBatchSize;
+        return Math.max(1, Math.min(size, MAX_BATCH_SIZE));
+    }
+}
@@ -1,17 +1,41 @@
 package com.graphapp.service;
 
+import com.graphapp.analytics.CentralityEngine;
+import com.graphapp.cache.GraphEntityCache;
+import com.graphapp.cache.QueryResultCache;
+import com.graphapp.analytics.ComponentType;
+import com.graphapp.analytics.ComponentsEngine;
+import com.graphapp.analytics.GraphStatistics;
+import com.graphapp.dto.CentralityResult;
+import com.graphapp.dto.ComponentsResult;
+import com.graphapp.dto.CursorPage;
+import com.graphapp.dto.GraphPayload;
+import com.graphapp.dto.RelationshipDto;
+import com.graphapp.dto.TraversalResult;
+import com.graphapp.event.GraphMutationEvent;
 import com.graphapp.model.graph.GraphNode;
 import com.graphapp.model.graph.Relationship;
+import com.graphapp.projection.AdjacencyIndex;
+import com.graphapp.projection.Direction;
+import com.graphapp.projection.GraphProjection;
+import com.graphapp.projection.GraphTraversal;
 import com.graphapp.repository.graph.NodeRepository;
 import com.graphapp.repository.graph.RelationshipRepository;
+import com.graphapp.search.GraphSearchEngine;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Service for managing graph data (nodes and relationships).
@@ -19,38 +43,100 @@ import java.util.Optional;
 @Service
 public class GraphDataService {
     
+    private static final String NODE_CURSOR_SCOPE = "node";
+    private static final String RELATIONSHIP_CURSOR_SCOPE = "relationship";
+    
     private final NodeRepository nodeRepository;
     private final RelationshipRepository relationshipRepository;
+    private final GraphSearchEngine searchEngine;
+    private final GraphProjection graphProjection;
+    private final GraphTraversal graphTraversal;
+    private final CentralityEngine centralityEngine;
+    private final ComponentsEngine componentsEngine;
+    private final AdjacencyIndex adjacencyIndex;
+    private final GraphEntityCache entityCache;
+    private final QueryResultCache queryCache;
+    private final GraphStatistics graphStatistics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxResults;
     
     /**
      * Constructor for GraphDataService.
      * 
      * @param nodeRepository The node repository.
      * @param relationshipRepository The relationship repository.
+     * @param searchEngine The full-text search engine.
+     * @param graphProjection The in-memory adjacency projection of the graph.
+     * @param graphTraversal The path and neighborhood queries over the projection.
+     * @param centralityEngine The centrality computations over the projection.
+     * @param componentsEngine The connected components computations over the projection.
+     * @param adjacencyIndex The index that applies committed writes to the projection.
+     * @param entityCache The read-through cache of nodes and relationships by ID.
+     * @param queryCache The cache of type and label query results.
+     * @param graphStatistics The incrementally maintained graph statistics.
+     * @param eventPublisher The publisher of graph mutation events.
+     * @param maxResults The hard cap on the number of entities returned by a single listing call.
      */
     @Autowired
-    public GraphDataService(NodeRepository nodeRepository, RelationshipRepository relationshipRepository) {
+    public GraphDataService(NodeRepository nodeRepository, RelationshipRepository relationshipRepository,
+                            GraphSearchEngine searchEngine, GraphProjection graphProjection,
+                            GraphTraversal graphTraversal, CentralityEngine centralityEngine,
+                            ComponentsEngine componentsEngine, AdjacencyIndex adjacencyIndex,
+                            GraphEntityCache entityCache, QueryResultCache queryCache,
+                            GraphStatistics graphStatistics,
+                            ApplicationEventPublisher eventPublisher,
+                            @Value("${graph.query.max-results:10000}") int maxResults) {
         this.nodeRepository = nodeRepository;
         this.relationshipRepository = relationshipRepository;
+        this.searchEngine = searchEngine;
+        this.graphProjection = graphProjection;
+        this.graphTraversal = graphTraversal;
+        this.centralityEngine = centralityEngine;
+        this.componentsEngine = componentsEngine;
+        this.adjacencyIndex = adjacencyIndex;
+        this.entityCache = entityCache;
+        this.queryCache = queryCache;
+        this.graphStatistics = graphStatistics;
+        this.eventPublisher = eventPublisher;
+        this.maxResults = maxResults;
     }
     
     /**
-     * Get all nodes.
+     * Get all nodes, capped at the configured maximum number of results.
      * 
      * @return The list of nodes.
      */
     public List<GraphNode> getAllNodes() {
-        return nodeRepository.findAll();
+        return nodeRepository.findPageAfter(-1L, maxResults);
     }
     
     /**
-     * Get a node by ID.
+     * Get a page of nodes ordered by ID.
+     * 
+     * @param after The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of nodes to return.
+     * @return The page of nodes.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    public CursorPage<GraphNode> getNodesPage(String after, int limit) {
+        long afterId = after != null ? CursorPage.decodeCursor(NODE_CURSOR_SCOPE, after) : -1L;
+        int pageSize = clampPageSize(limit);
+        
+        List<GraphNode> nodes = nodeRepository.findPageAfter(afterId, pageSize);
+        String next = nodes.size() == pageSize
+                ? CursorPage.encodeCursor(NODE_CURSOR_SCOPE, nodes.get(nodes.size() - 1).getId())
+                : null;
+        return new CursorPage<>(nodes, next);
+    }
+    
+    /**
+     * Get a node by ID, served from the entity cache.
      * 
      * @param id The ID of the node.
      * @return An Optional containing the node if found.
      */
     public Optional<GraphNode> getNodeById(Long id) {
-        return nodeRepository.findById(id);
+        return entityCache.getNode(id);
     }
     
     /**
@@ -61,7 +147,9 @@ public class GraphDataService {
      */
     @Transactional
     public GraphNode createNode(GraphNode node) {
-        return nodeRepository.save(node);
+        GraphNode created = nodeRepository.save(node);
+        eventPublisher.publishEvent(GraphMutationEvent.nodeCreated(created));
+        return created;
     }
     
     /**
@@ -76,6 +164,8 @@ public class GraphDataService {
     public GraphNode updateNode(Long id, GraphNode nodeDetails) {
         return nodeRepository.findById(id)
                 .map(existingNode -> {
+                    String previousType = existingNode.getType();
+                    String previousLabel = existingNode.getLabel();
                     if (nodeDetails.getLabel() != null) {
                         existingNode.setLabel(nodeDetails.getLabel());
                     }
@@ -88,13 +178,15 @@ public class GraphDataService {
                     if (nodeDetails.getProperties() != null) {
                         existingNode.setProperties(nodeDetails.getProperties());
                     }
-                    return nodeRepository.save(existingNode);
+                    GraphNode updated = nodeRepository.save(existingNode);
+                    eventPublisher.publishEvent(GraphMutationEvent.nodeUpdated(previousType, previousLabel, updated));
+                    return updated;
                 })
                 .orElseThrow(() -> new RuntimeException("Node not found with id: " + id));
     }
     
     /**
-     * Delete a node.
+     * Delete a node and its relationships.
      * 
      * @param id The ID of the node to delete.
      * @throws RuntimeException if the node is not found.
@@ -103,56 +195,124 @@ public class GraphDataService {
     public void deleteNode(Long id) {
         GraphNode node = nodeRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Node not found with id: " + id));
+        // The delete detaches the node, so its relationships go with it
+        for (Map<String, Object> columns : relationshipRepository.findColumnsByNodeId(id)) {
+            eventPublisher.publishEvent(GraphMutationEvent.relationshipDeleted(
+                    ((Number) columns.get("id")).longValue(), (String) columns.get("type"),
+                    ((Number) columns.get("sourceId")).longValue(), ((Number) columns.get("targetId")).longValue()));
+        }
         nodeRepository.delete(node);
+        eventPublisher.publishEvent(GraphMutationEvent.nodeDeleted(node));
     }
     
     /**
-     * Find nodes by type.
+     * Find nodes by type, served from the query result cache.
      * 
      * @param type The type of the nodes.
      * @return The list of nodes.
      */
     public List<GraphNode> findNodesByType(String type) {
-        return nodeRepository.findByType(type);
+        return queryCache.get("nodesByType", type,
+                () -> Collections.unmodifiableList(nodeRepository.findByType(type)),
+                nodes -> Collections.singletonList(QueryResultCache.nodeType(type)));
     }
     
     /**
-     * Find nodes by label.
+     * Find nodes by label, served from the query result cache.
      * 
      * @param label The label of the nodes.
      * @return The list of nodes.
      */
     public List<GraphNode> findNodesByLabel(String label) {
-        return nodeRepository.findByLabel(label);
+        return queryCache.get("nodesByLabel", label,
+                () -> Collections.unmodifiableList(nodeRepository.findByLabel(label)),
+                nodes -> Collections.singletonList(QueryResultCache.nodeLabel(label)));
+    }
+    
+    /**
+     * Count nodes by type, served from the query result cache.
+     * 
+     * @return The map of type to count, with nodes without a type counted under "unknown".
+     */
+    public Map<String, Long> countNodesByType() {
+        return queryCache.get("nodeCountsByType", null, () -> {
+            Map<String, Long> counts = new HashMap<>();
+            for (Map<String, Object> row : nodeRepository.countByType()) {
+                Object type = row.get("type");
+                counts.merge(type != null ? type.toString() : "unknown", ((Number) row.get("count")).longValue(), Long::sum);
+            }
+            return Collections.unmodifiableMap(counts);
+        }, counts -> Collections.singletonList(QueryResultCache.ALL_NODE_TYPES));
     }
     
     /**
      * Search nodes by various criteria.
      * 
      * @param query The search query.
-     * @return The list of nodes.
+     * @return The list of nodes, most relevant first.
      */
     public List<GraphNode> searchNodes(String query) {
-        return nodeRepository.searchNodes(query);
+        return searchEngine.searchNodes(query);
     }
     
     /**
-     * Get all relationships.
+     * Get all relationships, capped at the configured maximum number of results.
      * 
      * @return The list of relationships.
      */
     public List<Relationship> getAllRelationships() {
-        return relationshipRepository.findAll();
+        return relationshipRepository.findPageAfter(-1L, maxResults);
     }
     
     /**
-     * Get a relationship by ID.
+     * Get a page of relationships ordered by ID.
+     * 
+     * @param after The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of relationships to return.
+     * @return The page of relationships.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    public CursorPage<Relationship> getRelationshipsPage(String after, int limit) {
+        long afterId = after != null ? CursorPage.decodeCursor(RELATIONSHIP_CURSOR_SCOPE, after) : -1L;
+        int pageSize = clampPageSize(limit);
+        
+        List<Relationship> relationships = relationshipRepository.findPageAfter(afterId, pageSize);
+        String next = relationships.size() == pageSize
+                ? CursorPage.encodeCursor(RELATIONSHIP_CURSOR_SCOPE, relationships.get(relationships.size() - 1).getId())
+                : null;
+        return new CursorPage<>(relationships, next);
+    }
+    
+    /**
+     * Get all relationships in normalized form, capped at the configured maximum number of results.
+     * 
+     * @return The list of relationships referencing their endpoints by ID.
+     */
+    public List<RelationshipDto> getNormalizedRelationships() {
+        return toRelationshipDtos(getAllRelationships());
+    }
+    
+    /**
+     * Get a page of relationships in normalized form, ordered by ID.
+     * 
+     * @param after The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of relationships to return.
+     * @return The page of relationships referencing their endpoints by ID.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    public CursorPage<RelationshipDto> getNormalizedRelationshipsPage(String after, int limit) {
+        CursorPage<Relationship> page = getRelationshipsPage(after, limit);
+        return new CursorPage<>(toRelationshipDtos(page.getItems()), page.getNext());
+    }
+    
+    /**
+     * Get a relationship by ID, served from the entity cache.
      * 
      * @param id The ID of the relationship.
      * @return An Optional containing the relationship if found.
      */
     public Optional<Relationship> getRelationshipById(Long id) {
-        return relationshipRepository.findById(id);
+        return entityCache.getRelationship(id);
     }
     
     /**
@@ -180,7 +340,9 @@ public class GraphDataService {
         relationship.setSource(source);
         relationship.setTarget(target);
         
-        return relationshipRepository.save(relationship);
+        Relationship created = relationshipRepository.save(relationship);
+        eventPublisher.publishEvent(GraphMutationEvent.relationshipCreated(created));
+        return created;
     }
     
     /**
@@ -195,6 +357,9 @@ public class GraphDataService {
     public Relationship updateRelationship(Long id, Relationship relationshipDetails) {
         return relationshipRepository.findById(id)
                 .map(existingRelationship -> {
+                    String previousType = existingRelationship.getType();
+                    Long previousSourceId = nodeIdOf(existingRelationship.getSource());
+                    Long previousTargetId = nodeIdOf(existingRelationship.getTarget());
                     if (relationshipDetails.getType() != null) {
                         existingRelationship.setType(relationshipDetails.getType());
                     }
@@ -215,7 +380,10 @@ public class GraphDataService {
                         existingRelationship.setProperties(relationshipDetails.getProperties());
                     }
                     
-                    return relationshipRepository.save(existingRelationship);
+                    Relationship updated = relationshipRepository.save(existingRelationship);
+                    eventPublisher.publishEvent(GraphMutationEvent.relationshipUpdated(
+                            previousType, previousSourceId, previousTargetId, updated));
+                    return updated;
                 })
                 .orElseThrow(() -> new RuntimeException("Relationship not found with id: " + id));
     }
@@ -231,16 +399,29 @@ public class GraphDataService {
         Relationship relationship = relationshipRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Relationship not found with id: " + id));
         relationshipRepository.delete(relationship);
+        eventPublisher.publishEvent(GraphMutationEvent.relationshipDeleted(id, relationship.getType(),
+                nodeIdOf(relationship.getSource()), nodeIdOf(relationship.getTarget())));
     }
     
     /**
-     * Find relationships by type.
+     * Find relationships by type, served from the query result cache.
      * 
      * @param type The type of the relationships.
      * @return The list of relationships.
      */
     public List<Relationship> findRelationshipsByType(String type) {
-        return relationshipRepository.findByType(type);
+        return queryCache.get("relationshipsByType", type,
+                () -> Collections.unmodifiableList(relationshipRepository.findByType(type)),
+                relationships -> {
+                    // The endpoints are embedded, so the result also depends on their types
+                    Set<String> tags = new HashSet<>();
+                    tags.add(QueryResultCache.relationshipType(type));
+                    for (Relationship relationship : relationships) {
+                        addNodeTypeTag(tags, relationship.getSource());
+                        addNodeTypeTag(tags, relationship.getTarget());
+                    }
+                    return tags;
+                });
     }
     
     /**
@@ -253,6 +434,157 @@ public class GraphDataService {
         return relationshipRepository.findByNodeId(nodeId);
     }
     
+    /**
+     * Get the IDs of the nodes directly connected to a node, answered from the in-memory projection
+     * including the writes committed since it was last compacted.
+     * 
+     * @param nodeId The ID of the node.
+     * @param direction The direction in which to follow relationships.
+     * @param type The relationship type to follow, or null for all types.
+     * @return The distinct neighbor IDs, in adjacency order.
+     * @throws RuntimeException if the node is not in the projection.
+     */
+    public List<Long> getNeighborIds(Long nodeId, Direction direction, String type) {
+        return adjacencyIndex.getNeighborIds(nodeId, direction, type);
+    }
+    
+    /**
+     * Find a shortest path between two nodes, answered from the in-memory projection.
+     * 
+     * @param fromId The ID of the start node.
+     * @param toId The ID of the end node.
+     * @param maxDepth The maximum path length.
+     * @param direction The direction in which relationships may be followed from start to end.
+     * @param types The relationship types that may be followed, or null for all types.
+     * @return The path as node and relationship IDs, or an empty Optional if there is none.
+     * @throws IllegalArgumentException if the maximum depth is out of range.
+     * @throws RuntimeException if either node is not in the projection.
+     */
+    public Optional<TraversalResult> findShortestPath(Long fromId, Long toId, int maxDepth, Direction direction,
+                                                      List<String> types) {
+        return graphTraversal.findShortestPath(fromId, toId, maxDepth, direction, types);
+    }
+    
+    /**
+     * Get the nodes within a number of hops of a node, answered from the in-memory projection.
+     * 
+     * @param nodeId The ID of the center node.
+     * @param depth The number of hops.
+     * @param direction The direction in which relationships are followed.
+     * @param types The relationship types that may be followed, or null for all types.
+     * @return The node and relationship IDs of the neighborhood.
+     * @throws IllegalArgumentException if the depth is out of range.
+     * @throws RuntimeException if the node is not in the projection.
+     */
+    public TraversalResult getNeighborhood(Long nodeId, int depth, Direction direction, List<String> types) {
+        return graphTraversal.getNeighborhood(nodeId, depth, direction, types);
+    }
+    
+    /**
+     * Compute PageRank over the in-memory projection.
+     * 
+     * @param damping The damping factor.
+     * @param maxIterations The maximum number of iterations.
+     * @param tolerance The convergence threshold on the L1 change of the scores.
+     * @param top The number of highest-ranked nodes to return.
+     * @param writeBack Whether to store each node's score in its {@code pagerank} property.
+     * @return The highest-ranked nodes and the iteration timings.
+     * @throws IllegalArgumentException if a parameter is out of range.
+     */
+    public CentralityResult getPageRank(double damping, int maxIterations, double tolerance, int top, boolean writeBack) {
+        return invalidateIfWritten(centralityEngine.pageRank(damping, maxIterations, tolerance, top, writeBack));
+    }
+    
+    /**
+     * Compute degree centrality over the in-memory projection.
+     * 
+     * @param direction The direction of the relationships counted.
+     * @param top The number of highest-scoring nodes to return.
+     * @param writeBack Whether to store each node's score in its {@code degree} property.
+     * @return The highest-scoring nodes.
+     */
+    public CentralityResult getDegreeCentrality(Direction direction, int top, boolean writeBack) {
+        return invalidateIfWritten(centralityEngine.degree(direction, top, writeBack));
+    }
+    
+    /**
+     * Estimate betweenness centrality over the in-memory projection from sampled sources.
+     * 
+     * @param samples The number of source nodes to sample.
+     * @param seed The random seed.
+     * @param top The number of highest-scoring nodes to return.
+     * @param writeBack Whether to store each node's score in its {@code betweenness} property.
+     * @return The highest-scoring nodes.
+     * @throws IllegalArgumentException if the number of samples is not positive.
+     */
+    public CentralityResult getBetweennessCentrality(int samples, long seed, int top, boolean writeBack) {
+        return invalidateIfWritten(centralityEngine.betweenness(samples, seed, top, writeBack));
+    }
+    
+    /**
+     * Get the connected components of the in-memory projection.
+     * 
+     * @param type The kind of components.
+     * @param top The number of largest components to list.
+     * @return The component count and the largest components.
+     */
+    public ComponentsResult getComponents(ComponentType type, int top) {
+        return componentsEngine.getComponents(type, top);
+    }
+    
+    /**
+     * Get the connected component a node belongs to in the in-memory projection.
+     * 
+     * @param nodeId The ID of the node.
+     * @param type The kind of components.
+     * @return A map with the component ID and size.
+     * @throws RuntimeException if the node is not in the projection.
+     */
+    public Map<String, Object> getComponentOf(Long nodeId, ComponentType type) {
+        return componentsEngine.getComponentOf(nodeId, type);
+    }
+    
+    /**
+     * Get the graph statistics, served from counters maintained as writes commit.
+     * 
+     * @return A map with node and relationship counts by type, degree bounds and average, and totals.
+     */
+    public Map<String, Object> getStatistics() {
+        return graphStatistics.getStatistics();
+    }
+    
+    /**
+     * Get the statistics of the entity and query result caches.
+     * 
+     * @return A map with the size, hits, misses and evictions of each cache.
+     */
+    public Map<String, Object> getCacheStatistics() {
+        Map<String, Object> statistics = entityCache.getStatistics();
+        statistics.put("queries", queryCache.getStatistics());
+        return statistics;
+    }
+    
+    /**
+     * Get a summary of the in-memory graph projection.
+     * 
+     * @return A map with the projection's size, load timing and changes pending compaction.
+     */
+    public Map<String, Object> getProjectionSummary() {
+        Map<String, Object> summary = graphProjection.getSummary();
+        summary.put("pendingChanges", adjacencyIndex.getSummary());
+        return summary;
+    }
+    
+    /**
+     * Reload the in-memory graph projection from Neo4j.
+     * 
+     * @return A map with the reloaded projection's size and load timing.
+     */
+    public Map<String, Object> refreshProjection() {
+        graphProjection.refresh();
+        return graphProjection.getSummary();
+    }
+    
     /**
      * Search relationships by type or properties.
      * 
@@ -260,7 +592,7 @@ public class GraphDataService {
      * @return The list of relationships.
      */
     public List<Relationship> searchRelationships(String query) {
-        return relationshipRepository.searchRelationships(query);
+        return searchEngine.searchRelationships(query);
     }
     
     /**
@@ -278,6 +610,18 @@ public class GraphDataService {
         return result;
     }
     
+    /**
+     * Get visualization data in normalized form, where each node appears once
+     * and relationships reference their endpoints by ID. Nodes and relationships are each capped
+     * at the configured maximum number of results, lowest IDs first; the endpoints of the returned
+     * relationships are always included. The streaming formats serve the whole graph.
+     * 
+     * @return The normalized graph payload.
+     */
+    public GraphPayload getNormalizedVisualizationData() {
+        return GraphPayload.of(getAllNodes(), getAllRelationships());
+    }
+    
     /**
      * Search for nodes and relationships based on a query.
      * 
@@ -285,12 +629,81 @@ public class GraphDataService {
      * @return A map containing matching nodes and relationships.
      */
     public Map<String, Object> searchGraph(String query) {
-        List<GraphNode> nodes = nodeRepository.searchNodes(query);
-        List<Relationship> relationships = relationshipRepository.searchRelationships(query);
+        List<GraphNode> nodes = searchEngine.searchNodes(query);
+        List<Relationship> relationships = searchEngine.searchRelationships(query);
         
         Map<String, Object> result = new HashMap<>();
         result.put("nodes", nodes);
         result.put("relationships", relationships);
         return result;
     }
-}
\ No newline at end of file
+    
+    /**
+     * Search for nodes and relationships based on a query, returning a normalized payload.
+     * Endpoints of matching relationships are included in the node list.
+     * 
+     * @param query The search query.
+     * @return The normalized graph payload.
+     */
+    public GraphPayload searchGraphNormalized(String query) {
+        return GraphPayload.of(searchEngine.searchNodes(query), searchEngine.searchRelationships(query));
+    }
+    
+    /**
+     * Map relationship entities to normalized DTOs.
+     * 
+     * @param relationships The relationship entities.
+     * @return The list of DTOs.
+     */
+    private List<RelationshipDto> toRelationshipDtos(List<Relationship> relationships) {
+        return relationships.stream()
+                .map(RelationshipDto::from)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Clamp a requested page size to the range [1, maxResults].
+     * 
+     * @param limit The requested page size.
+     * @return The effective page size.
+     */
+    private int clampPageSize(int limit) {
+        return Math.max(1, Math.min(limit, maxResults));
+    }
+    
+    /**
+     * Drop the cached nodes and query results if a centrality computation wrote its scores to nodes.
+     * 
+     * @param result The result of the computation.
+     * @return The same result.
+     */
+    private CentralityResult invalidateIfWritten(CentralityResult result) {
+        if (result.getWritten() > 0) {
+            entityCache.invalidateNodes();
+            queryCache.invalidateAll();
+        }
+        return result;
+    }
+    
+    /**
+     * Add the type tag of a relationship endpoint.
+     * 
+     * @param tags The tags.
+     * @param node The endpoint, may be null if it was not loaded.
+     */
+    private void addNodeTypeTag(Set<String> tags, GraphNode node) {
+        if (node != null && node.getType() != null) {
+            tags.add(QueryResultCache.nodeType(node.getType()));
+        }
+    }
+    
+    /**
+     * Get the ID of a relationship endpoint.
+     * 
+     * @param node The endpoint, may be null if it was not loaded.
+     * @return The ID, or null.
+     */
+    private Long nodeIdOf(GraphNode node) {
+        return node != null ? node.getId() : null;
+    }
+}
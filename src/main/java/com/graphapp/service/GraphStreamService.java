@@ -0,0 +1,222 @@
+package com.graphapp.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.graphapp.dto.ColumnarGraphEncoder;
+import org.neo4j.driver.AccessMode;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
+import org.neo4j.driver.Transaction;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.types.Node;
+import org.neo4j.driver.types.Relationship;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * Service for streaming graph data straight from a Neo4j driver cursor to a client,
+ * either as newline-delimited JSON (one node or relationship per line, written as records
+ * arrive) or in the compact columnar binary format.
+ */
+@Service
+public class GraphStreamService {
+
+    private static final String NODES_QUERY = "MATCH (n:GraphNode) RETURN n";
+    private static final String RELATIONSHIPS_QUERY =
+            "MATCH (a)-[r]->(b) RETURN r, ID(a) AS sourceId, ID(b) AS targetId";
+    private static final String NODE_COLUMNS_QUERY =
+            "MATCH (n:GraphNode) RETURN ID(n) AS id, n.type AS type, n.label AS label, n.labels AS labels";
+    private static final String RELATIONSHIP_COLUMNS_QUERY =
+            "MATCH (a)-[r]->(b) RETURN ID(r) AS id, coalesce(r.type, type(r)) AS type, "
+                    + "ID(a) AS sourceId, ID(b) AS targetId";
+
+    // Prefix used for the entries of the dynamic properties map when stored on Neo4j entities
+    private static final String PROPERTIES_PREFIX = "properties.";
+
+    // Number of lines written between explicit flushes to the client
+    private static final int FLUSH_INTERVAL = 1000;
+
+    private final Driver driver;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor for GraphStreamService.
+     *
+     * @param driver The Neo4j driver.
+     * @param objectMapper The object mapper used to create JSON generators.
+     */
+    @Autowired
+    public GraphStreamService(Driver driver, ObjectMapper objectMapper) {
+        this.driver = driver;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Write visualization data as newline-delimited JSON.
+     * All nodes are written first, followed by all relationships, so a client can render
+     * progressively and resolve relationship endpoints against nodes it has already received.
+     *
+     * @param out The output stream to write to.
+     * @throws IOException if writing to the output stream fails.
+     */
+    public void writeVisualizationData(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.setRootValueSeparator(new SerializedString("\n"));
+
+        // An explicit transaction rather than a retrying transaction function,
+        // since a retry would re-send lines that have already reached the client
+        try (Session session = driver.session(SessionConfig.builder()
+                .withDefaultAccessMode(AccessMode.READ)
+                .build());
+             Transaction tx = session.beginTransaction()) {
+            int written = 0;
+
+            Result nodes = tx.run(NODES_QUERY);
+            while (nodes.hasNext()) {
+                writeNode(generator, nodes.next().get("n").asNode());
+                written = flushPeriodically(generator, written);
+            }
+
+            Result relationships = tx.run(RELATIONSHIPS_QUERY);
+            while (relationships.hasNext()) {
+                writeRelationship(generator, relationships.next());
+                written = flushPeriodically(generator, written);
+            }
+
+            tx.commit();
+        }
+
+        generator.writeRaw('\n');
+        generator.flush();
+    }
+
+    /**
+     * Write visualization data in the compact columnar binary format.
+     * Only the columns needed for the encoding are fetched, and they are consumed
+     * in a single pass over the result stream; dynamic properties are not included.
+     *
+     * @param out The output stream to write to.
+     * @throws IOException if writing to the output stream fails.
+     */
+    public void writeColumnarVisualizationData(OutputStream out) throws IOException {
+        ColumnarGraphEncoder encoder = new ColumnarGraphEncoder();
+
+        try (Session session = driver.session(SessionConfig.builder()
+                .withDefaultAccessMode(AccessMode.READ)
+                .build());
+             Transaction tx = session.beginTransaction()) {
+            Result nodes = tx.run(NODE_COLUMNS_QUERY);
+            while (nodes.hasNext()) {
+                Record record = nodes.next();
+                Value labels = record.get("labels");
+                encoder.addNode(
+                        record.get("id").asLong(),
+                        record.get("type").asString(null),
+                        record.get("label").asString(null),
+                        labels.isNull() ? null : labels.asList(Value::asString));
+            }
+
+            Result relationships = tx.run(RELATIONSHIP_COLUMNS_QUERY);
+            while (relationships.hasNext()) {
+                Record record = relationships.next();
+                encoder.addRelationship(
+                        record.get("id").asLong(),
+                        record.get("type").asString(null),
+                        record.get("sourceId").asLong(),
+                        record.get("targetId").asLong());
+            }
+
+            tx.commit();
+        }
+
+        encoder.writeTo(out);
+    }
+
+    /**
+     * Write a single node line.
+     *
+     * @param generator The JSON generator.
+     * @param node The Neo4j node.
+     * @throws IOException if writing fails.
+     */
+    private void writeNode(JsonGenerator generator, Node node) throws IOException {
+        Map<String, Object> values = node.asMap();
+
+        generator.writeStartObject();
+        generator.writeStringField("kind", "node");
+        generator.writeNumberField("id", node.id());
+        generator.writeObjectField("label", values.get("label"));
+        generator.writeObjectField("type", values.get("type"));
+        generator.writeObjectField("labels", values.get("labels"));
+        writeProperties(generator, values);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Write a single relationship line, referencing its endpoints by ID.
+     *
+     * @param generator The JSON generator.
+     * @param record The record containing the relationship and its endpoint IDs.
+     * @throws IOException if writing fails.
+     */
+    private void writeRelationship(JsonGenerator generator, Record record) throws IOException {
+        Relationship relationship = record.get("r").asRelationship();
+        Map<String, Object> values = relationship.asMap();
+        Object type = values.get("type");
+
+        generator.writeStartObject();
+        generator.writeStringField("kind", "relationship");
+        generator.writeNumberField("id", relationship.id());
+        generator.writeObjectField("type", type != null ? type : relationship.type());
+        generator.writeNumberField("sourceId", record.get("sourceId").asLong());
+        generator.writeNumberField("targetId", record.get("targetId").asLong());
+        writeProperties(generator, values);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Write the dynamic properties of an entity, skipping the mapped fields.
+     *
+     * @param generator The JSON generator.
+     * @param values All properties stored on the Neo4j entity.
+     * @throws IOException if writing fails.
+     */
+    private void writeProperties(JsonGenerator generator, Map<String, Object> values) throws IOException {
+        generator.writeObjectFieldStart("properties");
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            String key = entry.getKey();
+            if (key.equals("label") || key.equals("type") || key.equals("labels")) {
+                continue;
+            }
+            if (key.startsWith(PROPERTIES_PREFIX)) {
+                key = key.substring(PROPERTIES_PREFIX.length());
+            }
+            generator.writeObjectField(key, entry.getValue());
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Flush the generator every {@link #FLUSH_INTERVAL} lines so the client receives data progressively.
+     *
+     * @param generator The JSON generator.
+     * @param written The number of lines written so far.
+     * @return The updated number of lines written.
+     * @throws IOException if flushing fails.
+     */
+    private int flushPeriodically(JsonGenerator generator, int written) throws IOException {
+        written++;
+        if (written % FLUSH_INTERVAL == 0) {
+            generator.flush();
+        }
+        return written;
+    }
+}
@@ -0,0 +1,306 @@
+package com.graphapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.graphapp.analytics.RelationalStatistics;
+import com.graphapp.cache.RecentProjectsCache;
+import com.graphapp.cache.UserUniquenessFilter;
+import com.graphapp.config.DatabaseConfig;
+import com.graphapp.dto.BulkImportResult;
+import com.graphapp.model.relational.Project;
+import com.graphapp.model.relational.User;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service for bulk-importing users and projects into the relational store.
+ * Input is parsed incrementally and written in chunks, each chunk as one JDBC batch over a
+ * single prepared statement in one transaction. Uniqueness is enforced by the database
+ * ({@code ON CONFLICT DO NOTHING}) rather than by per-row existence checks. As the batches
+ * bypass Hibernate, cached query results and collections are evicted after each of them.
+ */
+@Service
+public class RelationalBulkService {
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (username, email, first_name, last_name) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT DO NOTHING";
+
+    // The owner is checked in the same statement; a row with an unknown owner inserts nothing
+    private static final String INSERT_PROJECT_SQL =
+            "INSERT INTO projects (name, description, created_at, updated_at, user_id) " +
+            "SELECT ?, ?, ?, ?, ? WHERE ? IS NULL OR EXISTS (SELECT 1 FROM users WHERE id = ?)";
+
+    private static final int MAX_BATCH_SIZE = 50000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserUniquenessFilter userFilter;
+    private final RecentProjectsCache recentProjects;
+    private final RelationalStatistics relationalStatistics;
+    private final ObjectMapper objectMapper;
+    private final int defaultBatchSize;
+
+    /**
+     * Constructor for RelationalBulkService.
+     *
+     * @param jdbcTemplate The JDBC template.
+     * @param transactionManager The JPA transaction manager, so batches share the writer connection.
+     * @param entityManagerFactory The entity manager factory whose query cache the batches invalidate.
+     * @param userFilter The username and email membership filters the imported users are added to.
+     * @param recentProjects The in-memory list of recent projects, cleared by project imports.
+     * @param relationalStatistics The user and project statistics, recomputed after each import.
+     * @param objectMapper The object mapper used to parse the input.
+     * @param defaultBatchSize The number of rows written per batch when the caller does not specify one.
+     */
+    @Autowired
+    public RelationalBulkService(JdbcTemplate jdbcTemplate,
+                                 @Qualifier(DatabaseConfig.TRANSACTION_MANAGER) PlatformTransactionManager transactionManager,
+                                 EntityManagerFactory entityManagerFactory,
+                                 UserUniquenessFilter userFilter,
+                                 RecentProjectsCache recentProjects,
+                                 RelationalStatistics relationalStatistics,
+                                 ObjectMapper objectMapper,
+                                 @Value("${relational.bulk.batch-size:5000}") int defaultBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.userFilter = userFilter;
+        this.recentProjects = recentProjects;
+        this.relationalStatistics = relationalStatistics;
+        this.objectMapper = objectMapper;
+        this.defaultBatchSize = defaultBatchSize;
+    }
+
+    /**
+     * Import users from a JSON array or newline-delimited JSON stream of users.
+     * Users whose username or email already exists (in the database or earlier in the input)
+     * are skipped. Rows without a username or email are rejected. The user and project statistics
+     * are recomputed once the import ends.
+     *
+     * @param input The input stream.
+     * @param batchSize The number of rows per batch, or null for the configured default.
+     * @return The report of inserted, skipped, and rejected rows.
+     * @throws IOException if reading the input fails.
+     */
+    public BulkImportResult importUsers(InputStream input, Integer batchSize) throws IOException {
+        int size = resolveBatchSize(batchSize);
+        BulkImportResult result = new BulkImportResult();
+        long start = System.nanoTime();
+
+        ObjectReader reader = objectMapper.readerFor(User.class);
+        try (MappingIterator<User> users = reader.readValues(input)) {
+            List<User> rows = new ArrayList<>(size);
+            long index = 0;
+            try {
+                while (users.hasNextValue()) {
+                    User user = users.nextValue();
+                    if (isBlank(user.getUsername()) || isBlank(user.getEmail())) {
+                        result.addError(index, "Username and email are required");
+                    } else {
+                        rows.add(user);
+                    }
+                    index++;
+                    if (rows.size() == size) {
+                        writeUserBatch(rows, result);
+                        rows.clear();
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                result.addError(index, "Malformed input: " + e.getOriginalMessage());
+            }
+            if (!rows.isEmpty()) {
+                writeUserBatch(rows, result);
+            }
+        } finally {
+            // Batches write without events; recount once the committed batches are all in
+            relationalStatistics.scheduledReconcile();
+        }
+
+        result.setTotalMillis((System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * Import projects from a JSON array or newline-delimited JSON stream of projects.
+     * A project's owner is referenced as {@code "user": {"id": ...}}; projects whose owner
+     * does not exist are rejected, as are rows without a name. Timestamps default to now.
+     * The user and project statistics are recomputed once the import ends.
+     *
+     * @param input The input stream.
+     * @param batchSize The number of rows per batch, or null for the configured default.
+     * @return The report of inserted and rejected rows.
+     * @throws IOException if reading the input fails.
+     */
+    public BulkImportResult importProjects(InputStream input, Integer batchSize) throws IOException {
+        int size = resolveBatchSize(batchSize);
+        BulkImportResult result = new BulkImportResult();
+        long start = System.nanoTime();
+
+        ObjectReader reader = objectMapper.readerFor(Project.class);
+        try (MappingIterator<Project> projects = reader.readValues(input)) {
+            List<Project> rows = new ArrayList<>(size);
+            List<Long> indexes = new ArrayList<>(size);
+            long index = 0;
+            try {
+                while (projects.hasNextValue()) {
+                    Project project = projects.nextValue();
+                    if (isBlank(project.getName())) {
+                        result.addError(index, "Name is required");
+                    } else {
+                        rows.add(project);
+                        indexes.add(index);
+                    }
+                    index++;
+                    if (rows.size() == size) {
+                        writeProjectBatch(rows, indexes, result);
+                        rows.clear();
+                        indexes.clear();
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                result.addError(index, "Malformed input: " + e.getOriginalMessage());
+            }
+            if (!rows.isEmpty()) {
+                writeProjectBatch(rows, indexes, result);
+            }
+        } finally {
+            // Batches write without events; recount once the committed batches are all in
+            relationalStatistics.scheduledReconcile();
+        }
+
+        result.setTotalMillis((System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * Write one batch of users in a single transaction.
+     *
+     * @param rows The users to write.
+     * @param result The result to record the batch in.
+     */
+    private void writeUserBatch(List<User> rows, BulkImportResult result) {
+        long start = System.nanoTime();
+        int[] counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(INSERT_USER_SQL, rows, rows.size(),
+                (ps, user) -> {
+                    ps.setString(1, user.getUsername());
+                    ps.setString(2, user.getEmail());
+                    ps.setString(3, user.getFirstName());
+                    ps.setString(4, user.getLastName());
+                })[0]);
+        evictCachedResults();
+        // Skipped rows hold a taken username or email, so adding them too costs only false positives
+        for (User user : rows) {
+            userFilter.add(user.getUsername(), user.getEmail());
+        }
+
+        int inserted = countInserted(counts);
+        result.addBatch(rows.size(), inserted, rows.size() - inserted, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Write one batch of projects in a single transaction.
+     * Rows that inserted nothing referenced an owner that does not exist.
+     *
+     * @param rows The projects to write.
+     * @param indexes The input index of each project.
+     * @param result The result to record the batch and errors in.
+     */
+    private void writeProjectBatch(List<Project> rows, List<Long> indexes, BulkImportResult result) {
+        long start = System.nanoTime();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(INSERT_PROJECT_SQL, rows, rows.size(),
+                (ps, project) -> {
+                    Long userId = project.getUser() != null ? project.getUser().getId() : null;
+                    ps.setString(1, project.getName());
+                    ps.setString(2, project.getDescription());
+                    ps.setTimestamp(3, project.getCreatedAt() != null ? Timestamp.valueOf(project.getCreatedAt()) : now);
+                    ps.setTimestamp(4, project.getUpdatedAt() != null ? Timestamp.valueOf(project.getUpdatedAt()) : now);
+                    for (int parameter : new int[] {5, 6, 7}) {
+                        if (userId != null) {
+                            ps.setLong(parameter, userId);
+                        } else {
+                            ps.setNull(parameter, Types.BIGINT);
+                        }
+                    }
+                })[0]);
+        evictCachedResults();
+        recentProjects.invalidate();
+
+        int inserted = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                result.addError(indexes.get(i), "User not found with id: " + rows.get(i).getUser().getId());
+            } else {
+                inserted++;
+            }
+        }
+        result.addBatch(rows.size(), inserted, 0, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Drop the cached query results and collections, which cannot tell that a batch added rows
+     * to them. Cached entities stay valid, as batches only insert.
+     */
+    private void evictCachedResults() {
+        org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictQueryRegions();
+        cache.evictCollectionData();
+    }
+
+    /**
+     * Count the rows a batch inserted from its per-statement update counts.
+     *
+     * @param counts The update counts.
+     * @return The number of rows inserted.
+     */
+    private int countInserted(int[] counts) {
+        int inserted = 0;
+        for (int count : counts) {
+            if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                inserted++;
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Check whether a required text value is missing.
+     *
+     * @param value The value.
+     * @return True if the value is null or blank.
+     */
+    private boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    /**
+     * Resolve the effective batch size.
+     *
+     * @param batchSize The requested batch size, or null for the default.
+     * @return The batch size, clamped to [1, {@link #MAX_BATCH_SIZE}].
+     */
+    private int resolveBatchSize(Integer batchSize) {
+        int size = batchSize != null ? batchSize : defaultBatchSize;
+        return Math.max(1, Math.min(size, MAX_BATCH_SIZE));
+    }
+}
@@ -1,10 +1,24 @@
 package com.graphapp.service;
 
+import com.graphapp.analytics.RelationalStatistics;
+import com.graphapp.cache.CaffeineRegionFactory;
+import com.graphapp.cache.RecentProjectsCache;
+import com.graphapp.cache.UserUniquenessFilter;
+import com.graphapp.config.DatabaseConfig;
+import com.graphapp.dto.CursorPage;
+import com.graphapp.dto.ProjectSummary;
+import com.graphapp.dto.UserSummary;
+import com.graphapp.event.RelationalMutationEvent;
 import com.graphapp.model.relational.Project;
 import com.graphapp.model.relational.User;
 import com.graphapp.repository.relational.ProjectRepository;
 import com.graphapp.repository.relational.UserRepository;
+import com.graphapp.search.RelationalSearchEngine;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,23 +30,58 @@ import java.util.Optional;
 
 /**
  * Service for managing relational data (users and projects).
+ * Mutations run through the {@link RelationalWriteExecutor}, which commits them individually
+ * or, with group commit enabled, together with concurrent writes, and publish a
+ * {@link RelationalMutationEvent} for each change to users and project ownership.
  */
 @Service
 public class RelationalDataService {
     
+    private static final String USER_CURSOR_SCOPE = "user";
+    private static final String PROJECT_CURSOR_SCOPE = "project";
+    
     private final UserRepository userRepository;
     private final ProjectRepository projectRepository;
+    private final RelationalSearchEngine searchEngine;
+    private final RelationalWriteExecutor writeExecutor;
+    private final RelationalStatistics relationalStatistics;
+    private final RecentProjectsCache recentProjects;
+    private final CaffeineRegionFactory cacheRegions;
+    private final UserUniquenessFilter userFilter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxPageSize;
     
     /**
      * Constructor for RelationalDataService.
      * 
      * @param userRepository The user repository.
      * @param projectRepository The project repository.
+     * @param searchEngine The full-text search engine.
+     * @param writeExecutor The executor that runs and commits write operations.
+     * @param relationalStatistics The incrementally maintained user and project statistics.
+     * @param recentProjects The in-memory list of the most recently updated projects.
+     * @param cacheRegions The second-level cache regions of the entity manager factory.
+     * @param userFilter The membership filters that skip most username and email existence queries.
+     * @param eventPublisher The publisher of relational mutation events.
+     * @param maxPageSize The largest page returned by the summary listings.
      */
     @Autowired
-    public RelationalDataService(UserRepository userRepository, ProjectRepository projectRepository) {
+    public RelationalDataService(UserRepository userRepository, ProjectRepository projectRepository,
+                                 RelationalSearchEngine searchEngine, RelationalWriteExecutor writeExecutor,
+                                 RelationalStatistics relationalStatistics, RecentProjectsCache recentProjects,
+                                 CaffeineRegionFactory cacheRegions, UserUniquenessFilter userFilter,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${relational.query.max-page-size:1000}") int maxPageSize) {
         this.userRepository = userRepository;
         this.projectRepository = projectRepository;
+        this.searchEngine = searchEngine;
+        this.writeExecutor = writeExecutor;
+        this.relationalStatistics = relationalStatistics;
+        this.recentProjects = recentProjects;
+        this.cacheRegions = cacheRegions;
+        this.userFilter = userFilter;
+        this.eventPublisher = eventPublisher;
+        this.maxPageSize = maxPageSize;
     }
     
     /**
@@ -40,35 +89,66 @@ public class RelationalDataService {
      * 
      * @return The list of users.
      */
+    @Transactional(transactionManager = DatabaseConfig.TRANSACTION_MANAGER, readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
     
+    /**
+     * Get a page of user summaries ordered by ID, each with the number of the user's projects.
+     * 
+     * @param after The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of users to return.
+     * @return The page of user summaries.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    @Transactional(transactionManager = DatabaseConfig.TRANSACTION_MANAGER, readOnly = true)
+    public CursorPage<UserSummary> getUserSummariesPage(String after, int limit) {
+        long afterId = after != null ? CursorPage.decodeCursor(USER_CURSOR_SCOPE, after) : -1L;
+        int pageSize = clampPageSize(limit);
+        
+        List<UserSummary> users = userRepository.findSummariesAfter(afterId, PageRequest.of(0, pageSize));
+        String next = users.size() == pageSize
+                ? CursorPage.encodeCursor(USER_CURSOR_SCOPE, users.get(users.size() - 1).getId())
+                : null;
+        return new CursorPage<>(users, next);
+    }
+    
     /**
      * Get a user by ID.
      * 
      * @param id The ID of the user.
      * @return An Optional containing the user if found.
      */
+    @Transactional(transactionManager = DatabaseConfig.TRANSACTION_MANAGER, readOnly = true)
     public Optional<User> getUserById(Long id) {
         return userRepository.findById(id);
     }
     
     /**
      * Create a new user.
+     * The username and email are checked against the membership filters first, and against the
+     * database only if they may be taken; the unique indexes reject any duplicate the filters miss.
      * 
      * @param user The user to create.
      * @return The created user.
+     * @throws RuntimeException if the username or email already exists.
      */
-    @Transactional
     public User createUser(User user) {
-        if (userRepository.existsByUsername(user.getUsername())) {
-            throw new RuntimeException("Username already exists: " + user.getUsername());
-        }
-        if (userRepository.existsByEmail(user.getEmail())) {
-            throw new RuntimeException("Email already exists: " + user.getEmail());
-        }
-        return userRepository.save(user);
+        Long requestedId = user.getId();
+        return writeExecutor.execute(() -> {
+            // A re-run after a rolled-back group commit must not keep the ID of the rolled-back insert
+            user.setId(requestedId);
+            if (userFilter.usernameExists(user.getUsername())) {
+                throw new RuntimeException("Username already exists: " + user.getUsername());
+            }
+            if (userFilter.emailExists(user.getEmail())) {
+                throw new RuntimeException("Email already exists: " + user.getEmail());
+            }
+            User created = saveUser(user);
+            eventPublisher.publishEvent(RelationalMutationEvent.userCreated(created));
+            return created;
+        });
     }
     
     /**
@@ -79,13 +159,14 @@ public class RelationalDataService {
      * @return The updated user.
      * @throws RuntimeException if the user is not found.
      */
-    @Transactional
     public User updateUser(Long id, User userDetails) {
-        return userRepository.findById(id)
+        return writeExecutor.execute(() -> userRepository.findById(id)
                 .map(existingUser -> {
+                    String previousUsername = existingUser.getUsername();
+                    String previousEmail = existingUser.getEmail();
                     if (userDetails.getUsername() != null && 
                         !userDetails.getUsername().equals(existingUser.getUsername())) {
-                        if (userRepository.existsByUsername(userDetails.getUsername())) {
+                        if (userFilter.usernameExists(userDetails.getUsername())) {
                             throw new RuntimeException("Username already exists: " + userDetails.getUsername());
                         }
                         existingUser.setUsername(userDetails.getUsername());
@@ -93,7 +174,7 @@ public class RelationalDataService {
                     
                     if (userDetails.getEmail() != null && 
                         !userDetails.getEmail().equals(existingUser.getEmail())) {
-                        if (userRepository.existsByEmail(userDetails.getEmail())) {
+                        if (userFilter.emailExists(userDetails.getEmail())) {
                             throw new RuntimeException("Email already exists: " + userDetails.getEmail());
                         }
                         existingUser.setEmail(userDetails.getEmail());
@@ -107,9 +188,11 @@ public class RelationalDataService {
                         existingUser.setLastName(userDetails.getLastName());
                     }
                     
-                    return userRepository.save(existingUser);
+                    User updated = saveUser(existingUser);
+                    eventPublisher.publishEvent(RelationalMutationEvent.userUpdated(previousUsername, previousEmail, updated));
+                    return updated;
                 })
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id)));
     }
     
     /**
@@ -118,11 +201,13 @@ public class RelationalDataService {
      * @param id The ID of the user to delete.
      * @throws RuntimeException if the user is not found.
      */
-    @Transactional
     public void deleteUser(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
-        userRepository.delete(user);
+        writeExecutor.run(() -> {
+            User user = userRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+            userRepository.delete(user);
+            eventPublisher.publishEvent(RelationalMutationEvent.userDeleted(user));
+        });
     }
     
     /**
@@ -131,6 +216,7 @@ public class RelationalDataService {
      * @param username The username.
      * @return An Optional containing the user if found.
      */
+    @Transactional(transactionManager = DatabaseConfig.TRANSACTION_MANAGER, readOnly = true)
     public Optional<User> findUserByUsername(String username) {
         return userRepository.findByUsername(username);
     }
@@ -141,6 +227,7 @@ public class RelationalDataService {
      * @param email The email.
      * @return An Optional containing the user if found.
      */
+    @Transactional(transactionManager = DatabaseConfig.TRANSACTION_MANAGER, readOnly = true)
     public Optional<User> findUserByEmail(String email) {
         return userRepository.findByEmail(email);
     }
@@ -149,10 +236,11 @@ public class RelationalDataService {
      * Search users by various criteria.
      * 
      * @param query The search query.
-     * @return The list of users.
+     * @return The list of users, most relevant first.
      */
+    @Transactional(transactionManager = DatabaseConfig.TRANSACTION_MANAGER, readOnly = true)
     public List<User> searchUsers(String query) {
-        return userRepository.searchUsers(query);
+        return searchEngine.searchUsers(query);
     }
     
     /**
@@ -160,16 +248,38 @@ public class RelationalDataService {
      * 
      * @return The list of projects.
      */
+    @Transactional(transactionManager = DatabaseConfig.TRANSACTION_MANAGER, readOnly = true)
     public List<Project> getAllProjects() {
         return projectRepository.findAll();
     }
     
+    /**
+     * Get a page of project summaries ordered by ID, each with the ID and username of its user.
+     * 
+     * @param after The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of projects to return.
+     * @return The page of project summaries.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    @Transactional(transactionManager = DatabaseConfig.TRANSACTION_MANAGER, readOnly = true)
+    public CursorPage<ProjectSummary> getProjectSummariesPage(String after, int limit) {
+        long afterId = after != null ? CursorPage.decodeCursor(PROJECT_CURSOR_SCOPE, after) : -1L;
+        int pageSize = clampPageSize(limit);
+        
+        List<ProjectSummary> projects = projectRepository.findSummariesAfter(afterId, PageRequest.of(0, pageSize));
+        String next = projects.size() == pageSize
+                ? CursorPage.encodeCursor(PROJECT_CURSOR_SCOPE, projects.get(projects.size() - 1).getId())
+                : null;
+        return new CursorPage<>(projects, next);
+    }
+    
     /**
      * Get a project by ID.
      * 
      * @param id The ID of the project.
      * @return An Optional containing the project if found.
      */
+    @Transactional(transactionManager = DatabaseConfig.TRANSACTION_MANAGER, readOnly = true)
     public Optional<Project> getProjectById(Long id) {
         return projectRepository.findById(id);
     }
@@ -180,18 +290,24 @@ public class RelationalDataService {
      * @param project The project to create.
      * @return The created project.
      */
-    @Transactional
     public Project createProject(Project project) {
-        if (project.getUser() != null && project.getUser().getId() != null) {
-            User user = userRepository.findById(project.getUser().getId())
-                    .orElseThrow(() -> new RuntimeException("User not found with id: " + project.getUser().getId()));
-            project.setUser(user);
-        }
-        
-        project.setCreatedAt(LocalDateTime.now());
-        project.setUpdatedAt(LocalDateTime.now());
-        
-        return projectRepository.save(project);
+        Long requestedId = project.getId();
+        return writeExecutor.execute(() -> {
+            // A re-run after a rolled-back group commit must not keep the ID of the rolled-back insert
+            project.setId(requestedId);
+            if (project.getUser() != null && project.getUser().getId() != null) {
+                User user = userRepository.findById(project.getUser().getId())
+                        .orElseThrow(() -> new RuntimeException("User not found with id: " + project.getUser().getId()));
+                project.setUser(user);
+            }
+            
+            project.setCreatedAt(LocalDateTime.now());
+            project.setUpdatedAt(LocalDateTime.now());
+            
+            Project created = projectRepository.save(project);
+            eventPublisher.publishEvent(RelationalMutationEvent.projectCreated(created));
+            return created;
+        });
     }
     
     /**
@@ -202,10 +318,11 @@ public class RelationalDataService {
      * @return The updated project.
      * @throws RuntimeException if the project is not found.
      */
-    @Transactional
     public Project updateProject(Long id, Project projectDetails) {
-        return projectRepository.findById(id)
+        return writeExecutor.execute(() -> projectRepository.findById(id)
                 .map(existingProject -> {
+                    Long previousUserId = userIdOf(existingProject);
+                    
                     if (projectDetails.getName() != null) {
                         existingProject.setName(projectDetails.getName());
                     }
@@ -222,9 +339,11 @@ public class RelationalDataService {
                     
                     existingProject.setUpdatedAt(LocalDateTime.now());
                     
-                    return projectRepository.save(existingProject);
+                    Project updated = projectRepository.save(existingProject);
+                    eventPublisher.publishEvent(RelationalMutationEvent.projectUpdated(previousUserId, updated));
+                    return updated;
                 })
-                .orElseThrow(() -> new RuntimeException("Project not found with id: " + id));
+                .orElseThrow(() -> new RuntimeException("Project not found with id: " + id)));
     }
     
     /**
@@ -233,11 +352,13 @@ public class RelationalDataService {
      * @param id The ID of the project to delete.
      * @throws RuntimeException if the project is not found.
      */
-    @Transactional
     public void deleteProject(Long id) {
-        Project project = projectRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Project not found with id: " + id));
-        projectRepository.delete(project);
+        writeExecutor.run(() -> {
+            Project project = projectRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Project not found with id: " + id));
+            projectRepository.delete(project);
+            eventPublisher.publishEvent(RelationalMutationEvent.projectDeleted(id, userIdOf(project)));
+        });
     }
     
     /**
@@ -246,6 +367,7 @@ public class RelationalDataService {
      * @param userId The user ID.
      * @return The list of projects.
      */
+    @Transactional(transactionManager = DatabaseConfig.TRANSACTION_MANAGER, readOnly = true)
     public List<Project> findProjectsByUserId(Long userId) {
         return projectRepository.findByUserId(userId);
     }
@@ -254,46 +376,89 @@ public class RelationalDataService {
      * Search projects by name or description.
      * 
      * @param query The search query.
-     * @return The list of projects.
+     * @return The list of projects, most relevant first.
      */
+    @Transactional(transactionManager = DatabaseConfig.TRANSACTION_MANAGER, readOnly = true)
     public List<Project> searchProjects(String query) {
-        return projectRepository.searchProjects(query);
+        return searchEngine.searchProjects(query);
     }
     
     /**
-     * Get recent projects up to the given limit.
+     * Get the most recently updated projects up to the given limit.
+     * Limits up to the capacity of the recent projects cache are served from memory.
      * 
      * @param limit The maximum number of projects to return.
-     * @return The list of projects.
+     * @return The list of projects, most recent first.
+     * @throws IllegalArgumentException if the limit is not positive.
      */
     public List<Project> getRecentProjects(int limit) {
-        return projectRepository.findRecentProjects(limit);
+        return recentProjects.getRecentProjects(limit);
     }
     
     /**
-     * Get statistics about users and projects.
+     * Get statistics about users and projects, served from counts maintained as writes commit.
      * 
-     * @return A map containing various statistics.
+     * @return A map containing various statistics and the version of the counts.
      */
     public Map<String, Object> getStatistics() {
+        return relationalStatistics.getStatistics();
+    }
+    
+    /**
+     * Get the statistics of the relational caches.
+     * 
+     * @return A map with the statistics of the recent projects cache, of each second-level cache region
+     *         and of the username and email membership filters.
+     */
+    public Map<String, Object> getCacheStatistics() {
         Map<String, Object> statistics = new HashMap<>();
-        
-        // User statistics
-        statistics.put("totalUsers", userRepository.count());
-        statistics.put("usersWithProjects", userRepository.findUsersWithProjects().size());
-        
-        // Project statistics
-        statistics.put("totalProjects", projectRepository.count());
-        
-        // Projects per user
-        Map<Long, Long> projectsPerUser = new HashMap<>();
-        projectRepository.countProjectsByUser().forEach(result -> {
-            Long userId = (Long) result[0];
-            Long count = (Long) result[1];
-            projectsPerUser.put(userId, count);
-        });
-        statistics.put("projectsPerUser", projectsPerUser);
-        
+        statistics.put("recentProjects", recentProjects.getStatistics());
+        statistics.put("regions", cacheRegions.getStatistics());
+        statistics.put("userFilter", userFilter.getStatistics());
         return statistics;
     }
+    
+    /**
+     * Save a user and flush it, so that a username or email taken since it was checked is reported
+     * by the unique indexes here rather than at commit.
+     * 
+     * @param user The user to save.
+     * @return The saved user.
+     * @throws RuntimeException if the username or email already exists.
+     */
+    private User saveUser(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataAccessException e) {
+            // The SQLite dialect does not classify constraint errors, so match the driver's message
+            String message = String.valueOf(e.getMostSpecificCause().getMessage());
+            if (message.contains("UNIQUE constraint failed: users.username")) {
+                throw new RuntimeException("Username already exists: " + user.getUsername(), e);
+            }
+            if (message.contains("UNIQUE constraint failed: users.email")) {
+                throw new RuntimeException("Email already exists: " + user.getEmail(), e);
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Clamp a requested page size to the range [1, maxPageSize].
+     * 
+     * @param limit The requested page size.
+     * @return The page size to use.
+     */
+    private int clampPageSize(int limit) {
+        return Math.max(1, Math.min(limit, maxPageSize));
+    }
+    
+    /**
+     * Get the ID of a project's user.
+     * 
+     * @param project The project.
+     * @return The user ID, or null if the project has no user.
+     */
+    private static Long userIdOf(Project project) {
+        return project.getUser() != null ? project.getUser().getId() : null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,264 @@
+package com.graphapp.service;
+
+import com.graphapp.config.DatabaseConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Executor for relational write operations.
+ * <p>
+ * By default each operation runs in its own transaction on the calling thread. With group commit
+ * enabled, operations from concurrent callers are queued to a single writer thread, which runs
+ * everything that arrives within a short window (or up to a maximum batch size) in one transaction,
+ * so the whole batch pays for one commit and one fsync. Callers block until the shared transaction
+ * has committed, so a returned result is as durable as with individual commits.
+ * <p>
+ * If an operation in a batch fails, the batch is rolled back; the operations before it are
+ * committed again as one batch, the failing operation is retried in its own transaction, and the
+ * operations after it form a new batch, so one failing caller cannot fail the others. If the commit
+ * itself fails, every operation is re-run in its own transaction. Operations must therefore be safe
+ * to run again after a rollback: closures re-read their state from the database and reset any
+ * state of their arguments an earlier run changed, such as a generated ID.
+ */
+@Component
+public class RelationalWriteExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RelationalWriteExecutor.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final boolean groupCommitEnabled;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final BlockingQueue<PendingWrite<?>> queue = new LinkedBlockingQueue<>();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    /**
+     * Constructor for RelationalWriteExecutor.
+     *
+     * @param transactionManager The JPA transaction manager.
+     * @param groupCommitEnabled Whether concurrent writes are committed together.
+     * @param maxBatchSize The maximum number of operations committed in one transaction.
+     * @param windowMs How long the writer waits for more operations after the first one of a batch.
+     */
+    @Autowired
+    public RelationalWriteExecutor(@Qualifier(DatabaseConfig.TRANSACTION_MANAGER) PlatformTransactionManager transactionManager,
+                                   @Value("${sqlite.group-commit.enabled:false}") boolean groupCommitEnabled,
+                                   @Value("${sqlite.group-commit.max-batch-size:64}") int maxBatchSize,
+                                   @Value("${sqlite.group-commit.window-ms:2}") long windowMs) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.groupCommitEnabled = groupCommitEnabled;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+    }
+
+    /**
+     * Start the writer thread if group commit is enabled.
+     */
+    @PostConstruct
+    public void start() {
+        if (!groupCommitEnabled) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::runWriter, "sqlite-group-commit");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Stop the writer thread after committing the operations already queued.
+     *
+     * @throws InterruptedException if interrupted while waiting for the writer to finish.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Run a write operation in a transaction and return its result once committed.
+     *
+     * @param operation The operation.
+     * @param <T> The type of the result.
+     * @return The result of the operation.
+     * @throws RuntimeException if the operation or the commit fails.
+     */
+    public <T> T execute(Supplier<T> operation) {
+        // Callers already inside a transaction join it, rather than waiting on a writer
+        // that may need the connection their transaction holds
+        if (!running || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return transactionTemplate.execute(status -> operation.get());
+        }
+
+        PendingWrite<T> write = new PendingWrite<>(operation);
+        queue.add(write);
+        if (!running && queue.remove(write)) {
+            // Stopped after the check above, so the writer may have drained the queue already
+            return transactionTemplate.execute(status -> operation.get());
+        }
+        try {
+            return write.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for write to commit", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Run a write operation without a result in a transaction and return once committed.
+     *
+     * @param operation The operation.
+     * @throws RuntimeException if the operation or the commit fails.
+     */
+    public void run(Runnable operation) {
+        execute(() -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    /**
+     * Writer loop: wait for an operation, gather what arrives within the window, commit the batch.
+     */
+    private void runWriter() {
+        List<PendingWrite<?>> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    PendingWrite<?> next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Shutdown: commit whatever is queued without waiting for the window
+                queue.drainTo(batch, maxBatchSize - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                commitBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Run a batch of operations in one transaction and complete their futures after the commit.
+     * If an operation fails, commit the operations before it again, retry it alone and continue
+     * with the operations after it; if the commit fails, fall back to one transaction per operation.
+     *
+     * @param batch The operations.
+     */
+    private void commitBatch(List<PendingWrite<?>> batch) {
+        int start = 0;
+        while (start < batch.size()) {
+            List<PendingWrite<?>> rest = batch.subList(start, batch.size());
+            if (rest.size() == 1) {
+                commitAlone(rest.get(0));
+                return;
+            }
+            int[] current = {-1};
+            try {
+                List<Object> results = transactionTemplate.execute(status -> {
+                    List<Object> values = new ArrayList<>(rest.size());
+                    for (int i = 0; i < rest.size(); i++) {
+                        current[0] = i;
+                        values.add(rest.get(i).operation.get());
+                    }
+                    current[0] = -1;
+                    return values;
+                });
+                for (int i = 0; i < rest.size(); i++) {
+                    rest.get(i).complete(results.get(i));
+                }
+                return;
+            } catch (RuntimeException | Error e) {
+                int failed = current[0];
+                if (failed < 0) {
+                    logger.debug("Group commit of {} writes failed, retrying individually: {}", rest.size(), e.toString());
+                    rest.forEach(this::commitAlone);
+                    return;
+                }
+                logger.debug("Write {} of a group commit of {} failed, retrying it alone: {}", failed + 1, rest.size(), e.toString());
+                if (failed > 0) {
+                    commitBatch(new ArrayList<>(rest.subList(0, failed)));
+                }
+                commitAlone(rest.get(failed));
+                start += failed + 1;
+            }
+        }
+    }
+
+    /**
+     * Run an operation in its own transaction and complete its future with the result or failure.
+     *
+     * @param write The operation.
+     */
+    private void commitAlone(PendingWrite<?> write) {
+        try {
+            write.complete(transactionTemplate.execute(status -> write.operation.get()));
+        } catch (RuntimeException | Error e) {
+            write.future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * A queued operation and the future its caller waits on.
+     *
+     * @param <T> The type of the result.
+     */
+    private static class PendingWrite<T> {
+
+        private final Supplier<T> operation;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        PendingWrite(Supplier<T> operation) {
+            this.operation = operation;
+        }
+
+        @SuppressWarnings("unchecked")
+        void complete(Object result) {
+            future.complete((T) result);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.graphapp.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counting Bloom filter of strings with 4-bit counters, sixteen to a word.
+ * <p>
+ * {@link #mightContain} never returns false for a string that was added and not removed, as long
+ * as only added strings are removed; it returns true for an absent string with a probability
+ * that grows with the number of strings held, which {@link #expectedFpp} estimates from the share
+ * of occupied counters. A counter that reaches 15 stays there, since after an overflow its true
+ * count is unknown and decrementing it could produce false negatives.
+ * <p>
+ * Counters are updated with compare-and-set, so concurrent adds, removals and lookups need no
+ * lock. The k counters of a string are derived from one 64-bit hash by double hashing.
+ */
+public class CountingBloomFilter {
+
+    private static final int COUNTER_BITS = 4;
+    private static final int COUNTERS_PER_WORD = Long.SIZE / COUNTER_BITS;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long SATURATED = COUNTER_MASK;
+
+    private final AtomicLongArray words;
+    private final long counters;
+    private final int hashes;
+    private final AtomicLong occupied = new AtomicLong();
+    private final AtomicLong size = new AtomicLong();
+
+    /**
+     * Create a filter sized for a number of strings at a target false-positive probability.
+     *
+     * @param expectedInsertions The number of strings the filter is sized for.
+     * @param fpp The false-positive probability at that number of strings, between 0 and 1.
+     * @throws IllegalArgumentException if a parameter is out of range.
+     */
+    public CountingBloomFilter(long expectedInsertions, double fpp) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive: " + expectedInsertions);
+        }
+        if (!(fpp > 0 && fpp < 1)) {
+            throw new IllegalArgumentException("False-positive probability must be between 0 and 1: " + fpp);
+        }
+        // Optimal m = -n ln p / (ln 2)^2 counters and k = (m / n) ln 2 hashes
+        long m = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (m + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD);
+        this.words = new AtomicLongArray(words);
+        this.counters = (long) words * COUNTERS_PER_WORD;
+        this.hashes = Math.max(1, (int) Math.round((double) counters / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * Add a string.
+     *
+     * @param value The string.
+     */
+    public void add(String value) {
+        long hash = hash(value);
+        long h1 = hash;
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            increment(Math.floorMod(h1 + i * h2, counters));
+        }
+        size.incrementAndGet();
+    }
+
+    /**
+     * Remove a string that was added. Removing a string that was never added can make the
+     * filter miss strings that share its counters, so strings the filter reports absent are
+     * ignored.
+     *
+     * @param value The string.
+     */
+    public void remove(String value) {
+        if (!mightContain(value)) {
+            return;
+        }
+        long hash = hash(value);
+        long h1 = hash;
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            decrement(Math.floorMod(h1 + i * h2, counters));
+        }
+        size.decrementAndGet();
+    }
+
+    /**
+     * Check whether a string may have been added.
+     *
+     * @param value The string.
+     * @return False if the string is definitely absent, true if it may be present.
+     */
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        long h1 = hash;
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            if (counter(Math.floorMod(h1 + i * h2, counters)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the probability that an absent string is reported present, estimated from the share
+     * of occupied counters.
+     *
+     * @return The estimated false-positive probability.
+     */
+    public double expectedFpp() {
+        return Math.pow((double) occupied.get() / counters, hashes);
+    }
+
+    /**
+     * Get the number of strings held: those added minus those removed.
+     *
+     * @return The number of strings.
+     */
+    public long size() {
+        return size.get();
+    }
+
+    /**
+     * Get the memory taken by the counters.
+     *
+     * @return The size of the counters in bytes.
+     */
+    public long memoryBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    /**
+     * Get the number of counters each string sets.
+     *
+     * @return The number of hash functions.
+     */
+    public int hashes() {
+        return hashes;
+    }
+
+    private long counter(long index) {
+        int shift = (int) (index % COUNTERS_PER_WORD) * COUNTER_BITS;
+        return (words.get((int) (index / COUNTERS_PER_WORD)) >>> shift) & COUNTER_MASK;
+    }
+
+    private void increment(long index) {
+        int word = (int) (index / COUNTERS_PER_WORD);
+        int shift = (int) (index % COUNTERS_PER_WORD) * COUNTER_BITS;
+        while (true) {
+            long current = words.get(word);
+            long count = (current >>> shift) & COUNTER_MASK;
+            if (count == SATURATED) {
+                return;
+            }
+            if (words.compareAndSet(word, current, current + (1L << shift))) {
+                if (count == 0) {
+                    occupied.incrementAndGet();
+                }
+                return;
+            }
+        }
+    }
+
+    private void decrement(long index) {
+        int word = (int) (index / COUNTERS_PER_WORD);
+        int shift = (int) (index % COUNTERS_PER_WORD) * COUNTER_BITS;
+        while (true) {
+            long current = words.get(word);
+            long count = (current >>> shift) & COUNTER_MASK;
+            if (count == 0 || count == SATURATED) {
+                return;
+            }
+            if (words.compareAndSet(word, current, current - (1L << shift))) {
+                if (count == 1) {
+                    occupied.decrementAndGet();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Hash a string to 64 bits: FNV-1a over its characters, finished with a 64-bit mix.
+     *
+     * @param value The string.
+     * @return The hash.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * The MurmurHash3 64-bit finalizer.
+     *
+     * @param hash The value to mix.
+     * @return The mixed value.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb93fe53a87cdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,78 @@
+package com.graphapp.util;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive {@code int} values.
+ */
+public class IntArrayList {
+
+    private int[] elements;
+    private int size;
+
+    /**
+     * Constructor with an initial capacity.
+     *
+     * @param initialCapacity The initial capacity.
+     */
+    public IntArrayList(int initialCapacity) {
+        this.elements = new int[Math.max(1, initialCapacity)];
+    }
+
+    /**
+     * Default constructor.
+     */
+    public IntArrayList() {
+        this(16);
+    }
+
+    /**
+     * Append a value.
+     *
+     * @param value The value.
+     */
+    public void add(int value) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, elements.length << 1);
+        }
+        elements[size++] = value;
+    }
+
+    /**
+     * Get the value at an index.
+     *
+     * @param index The index.
+     * @return The value.
+     */
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return elements[index];
+    }
+
+    /**
+     * Get the number of values.
+     *
+     * @return The size.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove all values, keeping the capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Copy the values into an array of exactly {@link #size()} elements.
+     *
+     * @return The array.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+}
@@ -0,0 +1,71 @@
+package com.graphapp.util;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive {@code long} values.
+ */
+public class LongArrayList {
+
+    private long[] elements;
+    private int size;
+
+    /**
+     * Constructor with an initial capacity.
+     *
+     * @param initialCapacity The initial capacity.
+     */
+    public LongArrayList(int initialCapacity) {
+        this.elements = new long[Math.max(1, initialCapacity)];
+    }
+
+    /**
+     * Default constructor.
+     */
+    public LongArrayList() {
+        this(16);
+    }
+
+    /**
+     * Append a value.
+     *
+     * @param value The value.
+     */
+    public void add(long value) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, elements.length << 1);
+        }
+        elements[size++] = value;
+    }
+
+    /**
+     * Get the value at an index.
+     *
+     * @param index The index.
+     * @return The value.
+     */
+    public long get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return elements[index];
+    }
+
+    /**
+     * Get the number of values.
+     *
+     * @return The size.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copy the values into an array of exactly {@link #size()} elements.
+     *
+     * @return The array.
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+}
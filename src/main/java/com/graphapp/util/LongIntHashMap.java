@@ -0,0 +1,173 @@
+package com.graphapp.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive {@code long} keys to non-negative {@code int} values.
+ * Used to map Neo4j IDs to dense array indexes without boxing.
+ * Not thread-safe.
+ */
+public class LongIntHashMap {
+
+    /**
+     * Value returned by {@link #get(long)} when the key is absent.
+     */
+    public static final int MISSING = -1;
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    /**
+     * Constructor with an expected number of entries.
+     *
+     * @param expectedSize The expected number of entries.
+     */
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Default constructor.
+     */
+    public LongIntHashMap() {
+        this(16);
+    }
+
+    /**
+     * Associate a value with a key, replacing any previous value.
+     *
+     * @param key The key.
+     * @param value The value, which must be non-negative.
+     * @throws IllegalArgumentException if the value is negative.
+     */
+    public void put(long key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must be non-negative: " + value);
+        }
+        int slot = findSlot(keys, values, mask, key);
+        if (values[slot] == MISSING) {
+            size++;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (size > keys.length * LOAD_FACTOR) {
+            resize();
+        }
+    }
+
+    /**
+     * Get the value associated with a key.
+     *
+     * @param key The key.
+     * @return The value, or {@link #MISSING} if the key is absent.
+     */
+    public int get(long key) {
+        return values[findSlot(keys, values, mask, key)];
+    }
+
+    /**
+     * Remove the entry of a key, shifting back the entries that probed past it.
+     *
+     * @param key The key.
+     * @return The removed value, or {@link #MISSING} if the key was absent.
+     */
+    public int remove(long key) {
+        int gap = findSlot(keys, values, mask, key);
+        int removed = values[gap];
+        if (removed == MISSING) {
+            return MISSING;
+        }
+        for (int slot = (gap + 1) & mask; values[slot] != MISSING; slot = (slot + 1) & mask) {
+            // An entry may fill the gap only if the gap lies between its home slot and its slot
+            int home = mix(keys[slot]) & mask;
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        values[gap] = MISSING;
+        size--;
+        return removed;
+    }
+
+    /**
+     * Check if the map contains a key.
+     *
+     * @param key The key.
+     * @return True if the key is present, false otherwise.
+     */
+    public boolean containsKey(long key) {
+        return get(key) != MISSING;
+    }
+
+    /**
+     * Get the number of entries.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Allocate empty key and value tables of the given capacity.
+     *
+     * @param capacity The capacity, a power of two.
+     */
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, MISSING);
+        mask = capacity - 1;
+    }
+
+    /**
+     * Double the table capacity and re-insert all entries.
+     */
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != MISSING) {
+                int slot = findSlot(keys, values, mask, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Find the slot holding a key, or the empty slot where it would be inserted.
+     *
+     * @param keys The key table.
+     * @param values The value table.
+     * @param mask The table mask.
+     * @param key The key.
+     * @return The slot index.
+     */
+    private static int findSlot(long[] keys, int[] values, int mask, long key) {
+        int slot = mix(key) & mask;
+        while (values[slot] != MISSING && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Spread the bits of a key so sequential IDs do not cluster.
+     *
+     * @param key The key.
+     * @return The mixed hash.
+     */
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
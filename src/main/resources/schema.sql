@@ -11,6 +11,10 @@ CREATE TABLE IF NOT EXISTS users (
     last_name VARCHAR(50)
 );
 
+-- Enforce uniqueness with indexes (SQLite cannot add unique constraints to an existing table)
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_username ON users (username);
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_email ON users (email);
+
 -- Create projects table
 CREATE TABLE IF NOT EXISTS projects (
     id INTEGER PRIMARY KEY AUTOINCREMENT,